@@ -0,0 +1,71 @@
+package com.phonepick.advisor.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepick.advisor.service.PhoneListingService;
+
+/**
+ * Serialization cost of the full GET /api/phones listing per response encoding
+ * encode: write the listing as sent without compression
+ * encodeGzipped: the same, through gzip as server.compression applies it
+ * Payload sizes (raw and gzipped) are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+
+	@Param({"10000", "100000"})
+	public int catalogSize;
+
+	@Param({"JSON", "CBOR", "SMILE"})
+	public PhoneListingService.Encoding encoding;
+
+	private PhoneListingService listingService;
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		SyntheticCatalog catalog = SyntheticCatalog.of(catalogSize);
+		listingService = new PhoneListingService(catalog.phoneCatalog, new ObjectMapper(), 200);
+		int raw = encode();
+		int gzipped = encodeGzipped();
+		System.out.printf("%n%s, %d phones: %d bytes raw, %d bytes gzipped%n", encoding, catalogSize, raw, gzipped);
+	}
+
+	@Benchmark
+	public int encode() throws IOException {
+		buffer.reset();
+		listingService.all(encoding).writeTo(buffer);
+		return buffer.size();
+	}
+
+	@Benchmark
+	public int encodeGzipped() throws IOException {
+		buffer.reset();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8192)) {
+			listingService.all(encoding).writeTo(gzip);
+		}
+		return buffer.size();
+	}
+}
@@ -0,0 +1,101 @@
+package com.phonepick.advisor.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationRequest;
+import com.phonepick.advisor.service.RecommendationService;
+
+/**
+ * End-to-end RecommendationService.getRecommendations over synthetic catalogs
+ * live: no response cache, no precomputed tables (every call scores the range)
+ * tables: precomputed ranking tables, no response cache
+ * cached: response cache warm for every request in the rotation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationBenchmark {
+
+	// Front-end rank ladder, keyed the way the priority page sends it
+	private static final String[] FEATURES = {"camera", "battery", "performance", "privacy", "looks"};
+	private static final int[] WEIGHTS = {100, 85, 70, 55, 40};
+
+	@Param({"500", "10000", "100000"})
+	public int catalogSize;
+
+	private RecommendationService live;
+	private RecommendationService tables;
+	private RecommendationService cached;
+	private List<RecommendationRequest> requests;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticCatalog catalog = SyntheticCatalog.of(catalogSize);
+		live = catalog.recommendationService(0, false);
+		tables = catalog.recommendationService(0, true);
+		cached = catalog.recommendationService(10_000, false);
+
+		requests = new ArrayList<>();
+		for (String budget : RecommendationRequest.BUDGET_BUCKETS) {
+			for (int shift = 0; shift < FEATURES.length; shift++) {
+				requests.add(request(budget, shift));
+			}
+		}
+		requests.forEach(cached::getRecommendations);
+	}
+
+	@Benchmark
+	public List<PhoneRecommendation> live() {
+		return live.getRecommendations(nextRequest());
+	}
+
+	@Benchmark
+	public List<PhoneRecommendation> tables() {
+		return tables.getRecommendations(nextRequest());
+	}
+
+	@Benchmark
+	public List<PhoneRecommendation> cached() {
+		return cached.getRecommendations(nextRequest());
+	}
+
+	private RecommendationRequest nextRequest() {
+		RecommendationRequest request = requests.get(next);
+		next = (next + 1) % requests.size();
+		return request;
+	}
+
+	private static RecommendationRequest request(String budget, int shift) {
+		Map<String, Integer> priorities = new HashMap<>();
+		for (int rank = 0; rank < FEATURES.length; rank++) {
+			priorities.put(FEATURES[(rank + shift) % FEATURES.length], WEIGHTS[rank]);
+		}
+		RecommendationRequest request = new RecommendationRequest();
+		request.setProductType("smartphone");
+		request.setBudget(budget);
+		request.setPriorities(priorities);
+		return request;
+	}
+}
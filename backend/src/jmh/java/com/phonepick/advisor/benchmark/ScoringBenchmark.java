@@ -0,0 +1,111 @@
+package com.phonepick.advisor.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.service.CandidateRanker;
+import com.phonepick.advisor.service.PhoneCatalog;
+import com.phonepick.advisor.service.PhoneSpecScoringService;
+import com.phonepick.advisor.service.SpecProfile;
+import com.phonepick.advisor.service.TopKSelector;
+import com.phonepick.advisor.service.UnifiedScoringService;
+
+/**
+ * Per-phone building blocks of the recommendation path, plus a full-catalog rank
+ * Per-phone benchmarks walk the catalog so every call sees a different phone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoringBenchmark {
+
+	@Param({"500", "10000", "100000"})
+	public int catalogSize;
+
+	private List<Phone> phones;
+	private PhoneCatalog.Snapshot snapshot;
+	private CandidateRanker candidateRanker;
+	private UnifiedScoringService unifiedScoringService;
+	private PhoneSpecScoringService specScoringService;
+	private Map<String, Integer> priorities;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticCatalog catalog = SyntheticCatalog.of(catalogSize);
+		phones = catalog.phones;
+		snapshot = catalog.phoneCatalog.snapshot();
+		candidateRanker = catalog.candidateRanker;
+		unifiedScoringService = catalog.unifiedScoringService;
+		specScoringService = catalog.specScoringService;
+
+		priorities = new HashMap<>();
+		priorities.put("camera", 100);
+		priorities.put("battery", 85);
+		priorities.put("performance", 70);
+		priorities.put("privacy", 55);
+		priorities.put("looks", 40);
+	}
+
+	@Benchmark
+	public int calculateMatchScore() {
+		return candidateRanker.calculateMatchScore(nextPhone(), priorities);
+	}
+
+	@Benchmark
+	public int calculateUnifiedScore() {
+		return unifiedScoringService.calculateUnifiedScore(nextPhone(), null);
+	}
+
+	/**
+	 * Tokenize the spec strings once and run every spec scorer (per phone in updateAllPhoneScores)
+	 */
+	@Benchmark
+	public int scoreSpecs() {
+		SpecProfile specs = SpecProfile.of(nextPhone());
+		return specScoringService.scoreCameraSpec(specs) + specScoringService.scoreBatterySpec(specs)
+			+ specScoringService.scoreStorageAndRam(specs) + specScoringService.scoreProcessor(specs)
+			+ specScoringService.scoreDisplay(specs);
+	}
+
+	@Benchmark
+	public PhoneRecommendation fromPhone() {
+		return PhoneRecommendation.fromPhone(nextPhone(), 80);
+	}
+
+	/**
+	 * Score and select the top 5 over the whole catalog (kernel + top-K)
+	 */
+	@Benchmark
+	public void rankWholeCatalog(Blackhole blackhole) {
+		TopKSelector topK = candidateRanker.rank(snapshot, 0, snapshot.size(), priorities, 5);
+		blackhole.consume(topK.itemAt(0));
+	}
+
+	private Phone nextPhone() {
+		Phone phone = phones.get(next);
+		next = next + 1 == phones.size() ? 0 : next + 1;
+		return phone;
+	}
+}
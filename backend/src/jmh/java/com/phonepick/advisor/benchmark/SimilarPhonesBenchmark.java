@@ -0,0 +1,72 @@
+package com.phonepick.advisor.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.service.SimilarPhoneIndex;
+
+/**
+ * Latency of GET /api/phones/{id}/similar lookups
+ * wholeCatalog: no price filter, scans every phone
+ * cheaper: "like this but cheaper", phones priced below the query phone
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarPhonesBenchmark {
+
+	@Param({"10000", "100000"})
+	public int catalogSize;
+
+	private SimilarPhoneIndex index;
+	private long[] ids;
+	private int[] prices;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticCatalog catalog = SyntheticCatalog.of(catalogSize);
+		index = new SimilarPhoneIndex(catalog.phoneCatalog);
+		ids = new long[256];
+		prices = new int[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = catalog.phones.get(i * (catalog.phones.size() / ids.length)).getId();
+			prices[i] = catalog.phones.get(i * (catalog.phones.size() / ids.length)).getPrice();
+		}
+		index.findSimilar(ids[0], 0, Integer.MAX_VALUE, 5);
+	}
+
+	@Benchmark
+	public List<PhoneRecommendation> wholeCatalog() {
+		int query = next();
+		return index.findSimilar(ids[query], 0, Integer.MAX_VALUE, 5);
+	}
+
+	@Benchmark
+	public List<PhoneRecommendation> cheaper() {
+		int query = next();
+		return index.findSimilar(ids[query], 0, prices[query] - 1, 5);
+	}
+
+	private int next() {
+		next = (next + 1) % ids.length;
+		return next;
+	}
+}
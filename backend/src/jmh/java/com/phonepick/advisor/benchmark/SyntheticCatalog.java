@@ -0,0 +1,195 @@
+package com.phonepick.advisor.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneInsight;
+import com.phonepick.advisor.repository.PhoneInsightRepository;
+import com.phonepick.advisor.repository.PhoneRepository;
+import com.phonepick.advisor.service.CandidateRanker;
+import com.phonepick.advisor.service.ComparisonService;
+import com.phonepick.advisor.service.FlipkartDataParser;
+import com.phonepick.advisor.service.FlipkartSampleCsv;
+import com.phonepick.advisor.service.PhoneCatalog;
+import com.phonepick.advisor.service.PhoneInsightIndex;
+import com.phonepick.advisor.service.PhoneSpecScoringService;
+import com.phonepick.advisor.service.PriorityRankingTables;
+import com.phonepick.advisor.service.RankingSessions;
+import com.phonepick.advisor.service.RecommendationCache;
+import com.phonepick.advisor.service.RecommendationMetrics;
+import com.phonepick.advisor.service.RecommendationService;
+import com.phonepick.advisor.service.SkylineIndex;
+import com.phonepick.advisor.service.SpecFacetIndex;
+import com.phonepick.advisor.service.UnifiedScoringService;
+
+/**
+ * In-memory catalog for benchmarks
+ * Phones are parsed from android_smartphones.csv with the real import code, then
+ * replicated with jittered prices and scores up to the requested size. Repositories
+ * are Mockito stubs, so no database is involved.
+ */
+public final class SyntheticCatalog {
+
+	private static final String[] INSIGHT_PATTERNS = {
+		"camera-battery-performance-privacy-looks",
+		"battery-camera-performance-privacy-looks",
+		"performance-camera-battery-looks-privacy"
+	};
+
+	public final List<Phone> phones;
+	public final PhoneRepository phoneRepository;
+	public final PhoneInsightRepository phoneInsightRepository;
+	public final PhoneSpecScoringService specScoringService;
+	public final UnifiedScoringService unifiedScoringService;
+	public final PhoneCatalog phoneCatalog;
+	public final CandidateRanker candidateRanker;
+
+	private SyntheticCatalog(List<Phone> phones) {
+		this.phones = phones;
+		this.phoneRepository = mock(PhoneRepository.class);
+		when(phoneRepository.findAll()).thenReturn(phones);
+		this.phoneInsightRepository = mock(PhoneInsightRepository.class);
+		when(phoneInsightRepository.findByPhoneIdIn(any())).thenAnswer(call -> insightsFor(call.getArgument(0)));
+		this.specScoringService = new PhoneSpecScoringService();
+		this.unifiedScoringService = new UnifiedScoringService(specScoringService);
+		this.phoneCatalog = new PhoneCatalog(phoneRepository, unifiedScoringService, event -> { });
+		this.candidateRanker = new CandidateRanker();
+	}
+
+	public static SyntheticCatalog of(int size) {
+		return new SyntheticCatalog(scaleUp(importSample(), size, new Random(42)));
+	}
+
+	/**
+	 * Fully wired recommendation service
+	 * @param cacheEntries response cache size (0 disables caching)
+	 * @param precomputeTables build the per-bucket ranking tables up front
+	 */
+	public RecommendationService recommendationService(int cacheEntries, boolean precomputeTables) {
+		PriorityRankingTables rankingTables = new PriorityRankingTables(candidateRanker, phoneCatalog);
+		if (precomputeTables) {
+			rankingTables.onApplicationReady();
+			awaitTables(rankingTables);
+		}
+		return new RecommendationService(
+			phoneCatalog,
+			new PhoneInsightIndex(phoneInsightRepository, phoneCatalog, 64L * 1024 * 1024),
+			new RecommendationCache(cacheEntries),
+			candidateRanker,
+			rankingTables,
+			new SkylineIndex(phoneCatalog),
+			new RankingSessions(2000, 30),
+			new SpecFacetIndex(phoneCatalog),
+			new ComparisonService(phoneCatalog, 20000),
+			new RecommendationMetrics(new SimpleMeterRegistry())
+		);
+	}
+
+	private static void awaitTables(PriorityRankingTables rankingTables) {
+		long deadline = System.currentTimeMillis() + 300_000;
+		while (!rankingTables.isReady()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException("Ranking tables were not built in time");
+			}
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * Run the sample CSV through the real Flipkart import with a capturing repository
+	 */
+	private static List<Phone> importSample() {
+		List<Phone> imported = new ArrayList<>();
+		PhoneRepository capture = mock(PhoneRepository.class);
+		when(capture.existsByBrandAndModel(anyString(), anyString())).thenReturn(false);
+		when(capture.save(any(Phone.class))).thenAnswer(call -> {
+			Phone phone = call.getArgument(0);
+			imported.add(phone);
+			return phone;
+		});
+
+		UnifiedScoringService scoring = new UnifiedScoringService(new PhoneSpecScoringService());
+		FlipkartDataParser parser = new FlipkartDataParser(capture, scoring, event -> { });
+		parser.parseAndSaveFlipkartData(FlipkartSampleCsv.toImportFile().toString());
+		if (imported.isEmpty()) {
+			throw new IllegalStateException("No phones parsed from android_smartphones.csv");
+		}
+		return imported;
+	}
+
+	/**
+	 * Copies of the sample phones with new ids, model suffixes and jittered prices / scores
+	 */
+	private static List<Phone> scaleUp(List<Phone> sample, int size, Random random) {
+		List<Phone> phones = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Phone source = sample.get(i % sample.size());
+			int generation = i / sample.size();
+			Phone phone = new Phone();
+			phone.setId((long) i + 1);
+			phone.setBrand(source.getBrand());
+			phone.setModel(generation == 0 ? source.getModel() : source.getModel() + " Gen " + generation);
+			phone.setPrice(Math.max(1000, (int) (source.getPrice() * (0.8 + random.nextDouble() * 0.4))));
+			phone.setDisplayInfo(source.getDisplayInfo());
+			phone.setProcessor(source.getProcessor());
+			phone.setMemory_and_storage(source.getMemory_and_storage());
+			phone.setBattery(source.getBattery());
+			phone.setCameraInfo(source.getCameraInfo());
+			phone.setImageUrl(source.getImageUrl());
+			phone.setAffiliateAmazon(source.getAffiliateAmazon());
+			phone.setAffiliateFlipkart(source.getAffiliateFlipkart());
+			phone.setYoutubeSentimentScore(source.getYoutubeSentimentScore());
+			phone.setRedditSentimentScore(source.getRedditSentimentScore());
+			phone.setCameraScore(jitter(source.getCameraScore(), random));
+			phone.setBatteryScore(jitter(source.getBatteryScore(), random));
+			phone.setSoftwareScore(jitter(source.getSoftwareScore(), random));
+			phone.setPrivacyScore(jitter(source.getPrivacyScore(), random));
+			phone.setLooksScore(jitter(source.getLooksScore(), random));
+			phone.setSpecScore(source.getSpecScore());
+			phone.setUnifiedScore(jitter(source.getUnifiedScore(), random));
+			phone.setScoreInputsDigest(source.getScoreInputsDigest());
+			phones.add(phone);
+		}
+		return phones;
+	}
+
+	private static Integer jitter(Integer score, Random random) {
+		if (score == null) {
+			return null;
+		}
+		return Math.max(0, Math.min(100, score + random.nextInt(11) - 5));
+	}
+
+	private static List<PhoneInsight> insightsFor(Collection<Long> phoneIds) {
+		List<PhoneInsight> insights = new ArrayList<>();
+		for (Long phoneId : phoneIds) {
+			for (int p = 0; p < INSIGHT_PATTERNS.length; p++) {
+				String pattern = INSIGHT_PATTERNS[p];
+				PhoneInsight insight = new PhoneInsight();
+				insight.setId(phoneId * INSIGHT_PATTERNS.length + p);
+				insight.setPhoneId(phoneId);
+				insight.setPriorityPattern(pattern);
+				insight.setWhyPicked("Strong all-rounder for " + pattern);
+				insight.setWhyLoveIt("Great display, dependable battery and a clean software experience.");
+				insight.setWhatToKnow("No charger in the box on some variants.");
+				insights.add(insight);
+			}
+		}
+		return insights;
+	}
+}
@@ -0,0 +1,70 @@
+package com.phonepick.advisor.loadtest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a fixed round trip to every SQL statement of the load-test app (profile "loadtest")
+ * The embedded H2 answers in microseconds; with loadtest.db-latency-ms set, each execute
+ * sleeps first while holding its pooled connection, as a query to a remote Neon instance would.
+ */
+@Component
+@Profile("loadtest")
+public class DbLatencyInjector implements BeanPostProcessor {
+
+	private final long latencyMillis;
+
+	public DbLatencyInjector(@Value("${loadtest.db-latency-ms:0}") long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (latencyMillis <= 0 || !(bean instanceof DataSource dataSource)) {
+			return bean;
+		}
+		return new DelegatingDataSource(dataSource) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return (Connection) delayed(Connection.class, super.getConnection());
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return (Connection) delayed(Connection.class, super.getConnection(username, password));
+			}
+		};
+	}
+
+	/**
+	 * Proxy a connection so the statements it creates sleep before each execute
+	 */
+	private Object delayed(Class<?> type, Object target) {
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+			if (target instanceof Statement && method.getName().startsWith("execute")) {
+				Thread.sleep(latencyMillis);
+			}
+			Object result;
+			try {
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+				return delayed(method.getReturnType(), result);
+			}
+			return result;
+		});
+	}
+}
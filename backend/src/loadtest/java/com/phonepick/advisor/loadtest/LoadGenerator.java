@@ -0,0 +1,375 @@
+package com.phonepick.advisor.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.phonepick.advisor.AdvisorApplication;
+
+/**
+ * Closed-loop HTTP load generator for the advisor API
+ * Each of --concurrency workers sends one request at a time, picking the endpoint
+ * from a weighted traffic mix, and records its latency. After --warmup seconds the
+ * counters are reset and the run measures for --duration seconds, then prints
+ * throughput and p50 / p99 / p99.9 latency per endpoint.
+ *
+ * Without --url the app is booted in-process with the "loadtest" Spring profile
+ * (embedded H2 seeded by LoadTestDataSeeder), so no Neon instance is touched;
+ * --db-latency-ms adds a Neon-like round trip to each of its SQL statements.
+ *
+ * Options (--name=value): url, concurrency (64), duration (60), warmup (15),
+ * mix (recommend:60,phones:15,count:15,reddit:10), catalog-size (10000),
+ * profiles (extra Spring profiles for the in-process app, e.g. virtual-threads),
+ * db-latency-ms (0), db-pool-size (the profile's Hikari default), seed (7)
+ */
+public final class LoadGenerator {
+
+	private static final String[] BUDGETS = {
+		"under-10", "10-15", "15-20", "20-25", "25-30", "30-35",
+		"35-40", "40-50", "50-60", "60-75", "75-plus", "New Gen"
+	};
+	// Relative popularity of each budget bucket, mid-range heaviest
+	private static final int[] BUDGET_WEIGHTS = {8, 14, 18, 18, 12, 9, 6, 6, 4, 3, 1, 1};
+
+	// PrioritySelection presets and its rank -> weight ladder
+	private static final String[][] PRESETS = {
+		{"camera", "looks", "performance", "battery", "privacy"},
+		{"battery", "performance", "camera", "looks", "privacy"},
+		{"performance", "camera", "battery", "looks", "privacy"},
+		{"privacy", "performance", "camera", "battery", "looks"},
+		{"camera", "battery", "performance", "privacy", "looks"}
+	};
+	private static final int[] RANK_WEIGHTS = {100, 85, 70, 55, 40};
+
+	private final HttpClient client = HttpClient.newBuilder()
+		.connectTimeout(Duration.ofSeconds(5))
+		.version(HttpClient.Version.HTTP_1_1)
+		.build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String baseUrl;
+	private final Map<String, Integer> mix;
+	private final long seed;
+	private long[] phoneIds;
+	private String phonesEtag;
+
+	LoadGenerator(String baseUrl, Map<String, Integer> mix, long seed) {
+		this.baseUrl = baseUrl;
+		this.mix = mix;
+		this.seed = seed;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parseOptions(args);
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+		int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+		int warmup = Integer.parseInt(options.getOrDefault("warmup", "15"));
+		Map<String, Integer> mix = parseMix(options.getOrDefault("mix", "recommend:60,phones:15,count:15,reddit:10"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "7"));
+
+		ConfigurableApplicationContext app = null;
+		String url = options.get("url");
+		if (url == null) {
+			List<String> profiles = new ArrayList<>();
+			if (options.containsKey("profiles") && !options.get("profiles").isBlank()) {
+				profiles.addAll(Arrays.asList(options.get("profiles").split(",")));
+			}
+			List<String> properties = new ArrayList<>();
+			properties.add("loadtest.catalog-size=" + options.getOrDefault("catalog-size", "10000"));
+			properties.add("loadtest.db-latency-ms=" + options.getOrDefault("db-latency-ms", "0"));
+			if (options.containsKey("db-pool-size")) {
+				properties.add("spring.datasource.hikari.maximum-pool-size=" + options.get("db-pool-size"));
+			}
+			app = bootApp(profiles, properties);
+			url = baseUrl(app);
+		}
+		try {
+			LoadGenerator generator = new LoadGenerator(url.replaceAll("/+$", "") + "/api", mix, seed);
+			generator.discoverCatalog();
+			System.out.printf("Target %s, %d workers, mix %s, %d phones%n", url, concurrency, mix, generator.phoneIds.length);
+
+			generator.run(concurrency, warmup);
+			Map<String, Recorder> results = generator.run(concurrency, duration);
+			report(results, duration);
+		} finally {
+			if (app != null) {
+				app.close();
+			}
+		}
+	}
+
+	/**
+	 * Boot the app on a random port with the "loadtest" profile, the extra profiles and name=value properties
+	 */
+	static ConfigurableApplicationContext bootApp(List<String> extraProfiles, List<String> properties) {
+		List<String> profiles = new ArrayList<>(List.of("loadtest"));
+		profiles.addAll(extraProfiles);
+		List<String> args = new ArrayList<>(List.of("--server.port=0"));
+		properties.forEach(property -> args.add("--" + property));
+		return new SpringApplicationBuilder(AdvisorApplication.class)
+			.profiles(profiles.toArray(String[]::new))
+			.run(args.toArray(String[]::new));
+	}
+
+	static String baseUrl(ConfigurableApplicationContext app) {
+		return "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+	}
+
+	/**
+	 * Phone ids for the Reddit endpoints and the catalog ETag browsers would revalidate with
+	 */
+	void discoverCatalog() throws Exception {
+		HttpResponse<String> response = client.send(
+			HttpRequest.newBuilder(URI.create(baseUrl + "/phones")).GET().build(),
+			HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("GET /api/phones returned " + response.statusCode());
+		}
+		JsonNode phones = objectMapper.readTree(response.body());
+		phoneIds = new long[phones.size()];
+		for (int i = 0; i < phoneIds.length; i++) {
+			phoneIds[i] = phones.get(i).get("id").asLong();
+		}
+		if (phoneIds.length == 0) {
+			throw new IllegalStateException("Catalog is empty");
+		}
+		phonesEtag = response.headers().firstValue("ETag").orElse(null);
+	}
+
+	/**
+	 * Drive the mix with closed-loop workers for the given time and return per-endpoint recorders
+	 */
+	Map<String, Recorder> run(int concurrency, int seconds) throws Exception {
+		long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		List<Future<Map<String, Recorder>>> workers = new ArrayList<>(concurrency);
+		try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+			for (int w = 0; w < concurrency; w++) {
+				Random random = new Random(seed * 31 + w);
+				workers.add(executor.submit(() -> work(random, deadline)));
+			}
+		}
+		Map<String, Recorder> merged = new TreeMap<>();
+		for (Future<Map<String, Recorder>> worker : workers) {
+			worker.get().forEach((name, recorder) -> merged.computeIfAbsent(name, key -> new Recorder()).addAll(recorder));
+		}
+		return merged;
+	}
+
+	private Map<String, Recorder> work(Random random, long deadline) {
+		Map<String, Recorder> recorders = new HashMap<>();
+		int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+		while (System.nanoTime() < deadline) {
+			String operation = pick(mix, random.nextInt(totalWeight));
+			HttpRequest request = request(operation, random);
+			long start = System.nanoTime();
+			int status;
+			try {
+				status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			} catch (Exception e) {
+				status = -1;
+			}
+			recorders.computeIfAbsent(operation, key -> new Recorder()).record(System.nanoTime() - start, status);
+		}
+		return recorders;
+	}
+
+	private HttpRequest request(String operation, Random random) {
+		return switch (operation) {
+			case "recommend" -> HttpRequest.newBuilder(URI.create(baseUrl + "/recommend"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(recommendBody(random)))
+				.build();
+			case "phones" -> {
+				HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "/phones")).GET();
+				// Most repeat visitors revalidate a cached copy
+				if (phonesEtag != null && random.nextInt(100) < 70) {
+					builder.header("If-None-Match", phonesEtag);
+				}
+				yield builder.build();
+			}
+			case "count" -> HttpRequest.newBuilder(
+				URI.create(baseUrl + "/phones/count?budget=" + budget(random).replace(" ", "%20"))).GET().build();
+			case "reddit" -> {
+				long phoneId = phoneIds[random.nextInt(phoneIds.length)];
+				String path = random.nextInt(100) < 70 ? "/reddit/phone/" + phoneId + "/sentiment" : "/reddit/phone/" + phoneId;
+				yield HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+			}
+			default -> throw new IllegalArgumentException("Unknown operation in mix: " + operation);
+		};
+	}
+
+	/**
+	 * A preset order most of the time, otherwise a hand-dragged random order
+	 */
+	private String recommendBody(Random random) {
+		String[] order;
+		if (random.nextInt(100) < 60) {
+			order = PRESETS[random.nextInt(PRESETS.length)];
+		} else {
+			order = PRESETS[PRESETS.length - 1].clone();
+			for (int i = order.length - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				String swap = order[i];
+				order[i] = order[j];
+				order[j] = swap;
+			}
+		}
+		Map<String, Integer> priorities = new LinkedHashMap<>();
+		for (int rank = 0; rank < order.length; rank++) {
+			priorities.put(order[rank], RANK_WEIGHTS[rank]);
+		}
+		Map<String, Object> body = Map.of("productType", "smartphone", "budget", budget(random), "priorities", priorities);
+		try {
+			return objectMapper.writeValueAsString(body);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String budget(Random random) {
+		int total = Arrays.stream(BUDGET_WEIGHTS).sum();
+		int roll = random.nextInt(total);
+		for (int i = 0; i < BUDGETS.length; i++) {
+			roll -= BUDGET_WEIGHTS[i];
+			if (roll < 0) {
+				return BUDGETS[i];
+			}
+		}
+		return BUDGETS[BUDGETS.length - 1];
+	}
+
+	private static String pick(Map<String, Integer> mix, int roll) {
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Roll outside the mix");
+	}
+
+	private static void report(Map<String, Recorder> results, int seconds) {
+		Recorder total = new Recorder();
+		System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+			"endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (Map.Entry<String, Recorder> entry : results.entrySet()) {
+			print(entry.getKey(), entry.getValue(), seconds);
+			total.addAll(entry.getValue());
+		}
+		print("total", total, seconds);
+		if (!total.errorsByStatus.isEmpty()) {
+			System.out.println("Errors by status (-1 = connection failure): " + total.errorsByStatus);
+		}
+	}
+
+	private static void print(String name, Recorder recorder, int seconds) {
+		long[] sorted = recorder.sortedLatencies();
+		System.out.printf("%-10s %9d %7d %9.0f %9.2f %9.2f %9.2f %9.2f%n",
+			name, sorted.length, recorder.errors(), sorted.length / (double) seconds,
+			millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+			millis(percentile(sorted, 0.999)), millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+	}
+
+	/**
+	 * Nearest-rank percentile of sorted latencies
+	 */
+	static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(p * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	private static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+			}
+			int eq = arg.indexOf('=');
+			options.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		return options;
+	}
+
+	static Map<String, Integer> parseMix(String spec) {
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		for (String part : spec.split(",")) {
+			String[] entry = part.trim().split(":");
+			int weight = Integer.parseInt(entry[1].trim());
+			if (weight > 0) {
+				mix.put(entry[0].trim(), weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("Traffic mix has no positive weights: " + spec);
+		}
+		return mix;
+	}
+
+	/**
+	 * Latencies (ns) and failures of one worker, or merged across workers
+	 */
+	static final class Recorder {
+		private long[] latencies = new long[1024];
+		private int size;
+		private final Map<Integer, Integer> errorsByStatus = new TreeMap<>();
+
+		void record(long nanos, int status) {
+			if (size == latencies.length) {
+				latencies = Arrays.copyOf(latencies, size * 2);
+			}
+			latencies[size++] = nanos;
+			// 304 is the expected answer to a matching If-None-Match
+			if (status < 200 || (status >= 300 && status != 304)) {
+				errorsByStatus.merge(status, 1, Integer::sum);
+			}
+		}
+
+		void addAll(Recorder other) {
+			if (size + other.size > latencies.length) {
+				latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+			}
+			System.arraycopy(other.latencies, 0, latencies, size, other.size);
+			size += other.size;
+			other.errorsByStatus.forEach((status, count) -> errorsByStatus.merge(status, count, Integer::sum));
+		}
+
+		int count() {
+			return size;
+		}
+
+		int errors() {
+			return errorsByStatus.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+		long[] sortedLatencies() {
+			long[] sorted = Arrays.copyOf(latencies, size);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+	}
+}
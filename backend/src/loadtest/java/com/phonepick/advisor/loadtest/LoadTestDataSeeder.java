@@ -0,0 +1,160 @@
+package com.phonepick.advisor.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneInsight;
+import com.phonepick.advisor.repository.PhoneInsightRepository;
+import com.phonepick.advisor.repository.PhoneRepository;
+import com.phonepick.advisor.service.CatalogChangedEvent;
+import com.phonepick.advisor.service.FlipkartDataParser;
+import com.phonepick.advisor.service.FlipkartSampleCsv;
+import com.phonepick.advisor.service.ModelFamilyNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds the embedded load-test database (profile "loadtest")
+ * Imports android_smartphones.csv through the real Flipkart import, then adds
+ * jittered copies ("Gen N" models) until the catalog reaches loadtest.catalog-size.
+ * Every phone gets insights for the front-end's preset priority orders so the
+ * recommendation path resolves exact matches as in production.
+ */
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestDataSeeder implements CommandLineRunner {
+
+	// Priority patterns of the PrioritySelection presets
+	static final String[] INSIGHT_PATTERNS = {
+		"camera-looks-performance-battery-privacy",
+		"battery-performance-camera-looks-privacy",
+		"performance-camera-battery-looks-privacy",
+		"privacy-performance-camera-battery-looks",
+		"camera-battery-performance-privacy-looks"
+	};
+
+	private static final int SAVE_CHUNK = 1000;
+
+	private final PhoneRepository phoneRepository;
+	private final PhoneInsightRepository phoneInsightRepository;
+	private final FlipkartDataParser flipkartDataParser;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Value("${loadtest.catalog-size:10000}")
+	private int catalogSize;
+
+	@Value("${loadtest.seed:42}")
+	private long seed;
+
+	@Override
+	public void run(String... args) {
+		if (phoneRepository.count() > 0) {
+			log.info("Load-test database already seeded");
+			return;
+		}
+		long start = System.currentTimeMillis();
+		flipkartDataParser.parseAndSaveFlipkartData(FlipkartSampleCsv.toImportFile().toString());
+		List<Phone> sample = phoneRepository.findAll();
+		if (sample.isEmpty()) {
+			throw new IllegalStateException("No phones parsed from android_smartphones.csv");
+		}
+
+		Random random = new Random(seed);
+		List<Phone> copies = new ArrayList<>(SAVE_CHUNK);
+		for (int i = sample.size(); i < catalogSize; i++) {
+			copies.add(copyOf(sample.get(i % sample.size()), i / sample.size(), random));
+			if (copies.size() == SAVE_CHUNK) {
+				phoneRepository.saveAll(copies);
+				copies.clear();
+			}
+		}
+		phoneRepository.saveAll(copies);
+
+		List<PhoneInsight> insights = new ArrayList<>(SAVE_CHUNK);
+		for (Phone phone : phoneRepository.findAll()) {
+			for (String pattern : INSIGHT_PATTERNS) {
+				insights.add(insightFor(phone, pattern));
+				if (insights.size() == SAVE_CHUNK) {
+					phoneInsightRepository.saveAll(insights);
+					insights.clear();
+				}
+			}
+		}
+		phoneInsightRepository.saveAll(insights);
+
+		eventPublisher.publishEvent(CatalogChangedEvent.all("loadtest-seed"));
+		log.info("Seeded load-test catalog: {} phones ({} from the sample CSV) in {} ms",
+			phoneRepository.count(), sample.size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Another generation of a sample phone with jittered price and scores
+	 */
+	private static Phone copyOf(Phone source, int generation, Random random) {
+		Phone phone = new Phone();
+		phone.setBrand(source.getBrand());
+		phone.setModel(withGeneration(source.getBrand(), source.getModel(), generation));
+		phone.setPrice(Math.max(1000, (int) (source.getPrice() * (0.8 + random.nextDouble() * 0.4))));
+		phone.setDisplayInfo(source.getDisplayInfo());
+		phone.setProcessor(source.getProcessor());
+		phone.setMemory_and_storage(source.getMemory_and_storage());
+		phone.setBattery(source.getBattery());
+		phone.setCameraInfo(source.getCameraInfo());
+		phone.setImageUrl(source.getImageUrl());
+		phone.setAffiliateAmazon(source.getAffiliateAmazon());
+		phone.setAffiliateFlipkart(source.getAffiliateFlipkart());
+		phone.setCameraScore(jitter(source.getCameraScore(), random));
+		phone.setBatteryScore(jitter(source.getBatteryScore(), random));
+		phone.setSoftwareScore(jitter(source.getSoftwareScore(), random));
+		phone.setPrivacyScore(jitter(source.getPrivacyScore(), random));
+		phone.setLooksScore(jitter(source.getLooksScore(), random));
+		phone.setSpecScore(source.getSpecScore());
+		phone.setUnifiedScore(jitter(source.getUnifiedScore(), random));
+		phone.setScoreInputsDigest(source.getScoreInputsDigest());
+		ModelFamilyNormalizer.apply(phone);
+		return phone;
+	}
+
+	/**
+	 * "T4 Lite 5G Charger in the Box (Gold, 128 GB)" -> "T4 Lite 5G Gen 2 Charger in the Box (Gold, 128 GB)"
+	 * The generation follows the family name so each generation is its own model family.
+	 */
+	private static String withGeneration(String brand, String model, int generation) {
+		String familyName = ModelFamilyNormalizer.normalize(brand, model).getFamilyName();
+		int end = model.indexOf(familyName);
+		if (end < 0) {
+			return model + " Gen " + generation;
+		}
+		end += familyName.length();
+		return model.substring(0, end) + " Gen " + generation + model.substring(end);
+	}
+
+	private static Integer jitter(Integer score, Random random) {
+		if (score == null) {
+			return null;
+		}
+		return Math.max(0, Math.min(100, score + random.nextInt(11) - 5));
+	}
+
+	private static PhoneInsight insightFor(Phone phone, String pattern) {
+		PhoneInsight insight = new PhoneInsight();
+		insight.setPhoneId(phone.getId());
+		insight.setPriorityPattern(pattern);
+		insight.setWhyPicked(phone.getBrand() + " " + phone.getModel() + " is a strong pick for " + pattern);
+		insight.setWhyLoveIt("Great display, dependable battery and a clean software experience.");
+		insight.setWhatToKnow("No charger in the box on some variants.");
+		insight.setIsManual(false);
+		return insight;
+	}
+}
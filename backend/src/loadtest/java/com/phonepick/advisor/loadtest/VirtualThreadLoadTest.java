@@ -0,0 +1,67 @@
+package com.phonepick.advisor.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throughput of the app on Tomcat's 200 platform threads vs the virtual-threads profile
+ * when every SQL statement waits for an injected Neon round trip. Both runs boot the real
+ * app (loadtest profile, H2 behind DbLatencyInjector) and drive it over HTTP with more
+ * workers than Tomcat has threads. The pool is sized to the workers in both runs so the
+ * thread model, not Hikari, is what differs.
+ *
+ * ./mvnw -Ploadtest test -Dtest=VirtualThreadLoadTest -Dloadtest.virtual-threads=true
+ *        [-Dloadtest.concurrency=400 -Dloadtest.db-latency-ms=50 -Dloadtest.duration=20]
+ */
+@EnabledIfSystemProperty(named = "loadtest.virtual-threads", matches = "true")
+@Slf4j
+class VirtualThreadLoadTest {
+
+	// Reddit reads hit the database on every request, recommendations mostly the in-memory catalog
+	private static final String MIX = "reddit:80,recommend:20";
+
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+	private final long latencyMillis = Long.getLong("loadtest.db-latency-ms", 50);
+	private final int warmup = Integer.getInteger("loadtest.warmup", 5);
+	private final int duration = Integer.getInteger("loadtest.duration", 20);
+
+	@Test
+	void virtualThreadsOutperformPlatformThreadsUnderDbLatency() throws Exception {
+		double platform = throughput(List.of());
+		double virtual = throughput(List.of("virtual-threads"));
+		log.info("{} workers, {} ms per statement: platform threads {} req/s, virtual threads {} req/s",
+			concurrency, latencyMillis, Math.round(platform), Math.round(virtual));
+
+		assertTrue(virtual > platform * 1.5, "Virtual threads should serve the workers Tomcat's pool makes wait");
+	}
+
+	/**
+	 * Requests per second of one app boot with the given extra profiles
+	 */
+	private double throughput(List<String> profiles) throws Exception {
+		try (ConfigurableApplicationContext app = LoadGenerator.bootApp(profiles, List.of(
+				"loadtest.catalog-size=2000",
+				"loadtest.db-latency-ms=" + latencyMillis,
+				"spring.datasource.hikari.maximum-pool-size=" + concurrency))) {
+			LoadGenerator generator = new LoadGenerator(LoadGenerator.baseUrl(app) + "/api", LoadGenerator.parseMix(MIX), 7);
+			generator.discoverCatalog();
+			generator.run(concurrency, warmup);
+			Map<String, LoadGenerator.Recorder> results = generator.run(concurrency, duration);
+
+			int requests = results.values().stream().mapToInt(LoadGenerator.Recorder::count).sum();
+			int errors = results.values().stream().mapToInt(LoadGenerator.Recorder::errors).sum();
+			log.info("Profiles {}: {} requests, {} errors in {} s", profiles, requests, errors, duration);
+			assertEquals(0, errors, "Errors skew throughput");
+			return requests / (double) duration;
+		}
+	}
+}
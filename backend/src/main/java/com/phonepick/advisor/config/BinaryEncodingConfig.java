@@ -0,0 +1,48 @@
+package com.phonepick.advisor.config;
+
+import java.util.List;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepick.advisor.service.PhoneListingService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * CBOR and Smile responses for clients that ask for them by Accept header
+ * The converters share the application ObjectMapper's configuration and sit right
+ * after the JSON converter, so JSON stays the answer to wildcard Accept headers
+ * and to clients that list JSON first. Ordered first so {@link MetricsConfig} sees and
+ * times them like the JSON converter.
+ */
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring adds defaults when the dataformats are on the classpath; use the configured ones instead
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+            || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        int position = Math.min(json + 1, converters.size());
+        converters.add(position, new MappingJackson2SmileHttpMessageConverter(
+            PhoneListingService.Encoding.SMILE.mapperFrom(objectMapper)));
+        converters.add(position, new MappingJackson2CborHttpMessageConverter(
+            PhoneListingService.Encoding.CBOR.mapperFrom(objectMapper)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.phonepick.advisor.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepick.advisor.service.RecommendationMetrics;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times serialization of recommendation responses (JSON, CBOR or Smile)
+ * Swaps the Jackson converters for ones that record the write under
+ * recommendation.stage{stage=serialization} when the controller has tagged the
+ * request with a budget bucket. Other responses are written untimed.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final RecommendationMetrics metrics;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof TimedJacksonConverter)) {
+                converters.set(i, new TimedJacksonConverter(jackson.getObjectMapper(), metrics));
+            } else if (converter instanceof MappingJackson2CborHttpMessageConverter cbor
+                    && !(cbor instanceof TimedCborConverter)) {
+                converters.set(i, new TimedCborConverter(cbor.getObjectMapper(), metrics));
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smile
+                    && !(smile instanceof TimedSmileConverter)) {
+                converters.set(i, new TimedSmileConverter(smile.getObjectMapper(), metrics));
+            }
+        }
+    }
+
+    /**
+     * Runs a converter write, timed if the request carries a budget bucket
+     */
+    static void timed(RecommendationMetrics metrics, Write write) throws IOException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object bucket = attributes == null ? null
+            : attributes.getAttribute(RecommendationMetrics.BUCKET_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (bucket == null) {
+            write.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            write.run();
+        } finally {
+            metrics.recordStage(bucket.toString(), RecommendationMetrics.STAGE_SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+
+    @FunctionalInterface
+    interface Write {
+        void run() throws IOException;
+    }
+
+    static class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final RecommendationMetrics metrics;
+
+        TimedJacksonConverter(ObjectMapper objectMapper, RecommendationMetrics metrics) {
+            super(objectMapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(metrics, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    static class TimedCborConverter extends MappingJackson2CborHttpMessageConverter {
+
+        private final RecommendationMetrics metrics;
+
+        TimedCborConverter(ObjectMapper objectMapper, RecommendationMetrics metrics) {
+            super(objectMapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(metrics, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    static class TimedSmileConverter extends MappingJackson2SmileHttpMessageConverter {
+
+        private final RecommendationMetrics metrics;
+
+        TimedSmileConverter(ObjectMapper objectMapper, RecommendationMetrics metrics) {
+            super(objectMapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(metrics, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+}
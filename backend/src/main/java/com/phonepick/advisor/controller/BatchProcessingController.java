@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.phonepick.advisor.service.FlipkartDataParser;
+import com.phonepick.advisor.service.PhoneInsightIndex;
 import com.phonepick.advisor.service.TranscriptBatchService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class BatchProcessingController {
     
     private final TranscriptBatchService batchService;
     private final FlipkartDataParser flipkartDataParser;
+    private final PhoneInsightIndex phoneInsightIndex;
     
     /**
      * Manually trigger batch processing
@@ -76,4 +78,15 @@ public class BatchProcessingController {
                 .body(Map.of("error", "Import failed: " + e.getMessage()));
         }
     }
+    
+    /**
+     * Drop cached phone insights after editing the phone_insights table
+     * POST /api/admin/batch/refresh-insights
+     */
+    @PostMapping("/refresh-insights")
+    public ResponseEntity<?> refreshInsights() {
+        log.info("Phone insight cache refresh triggered");
+        phoneInsightIndex.invalidateAll();
+        return ResponseEntity.ok(Map.of("message", "Insight cache cleared"));
+    }
 }
@@ -0,0 +1,62 @@
+package com.phonepick.advisor.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.phonepick.advisor.service.ComparisonService;
+import com.phonepick.advisor.service.PhoneCatalog;
+import com.phonepick.advisor.service.RecommendationCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admin controller for inspecting the recommendation caches
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheAdminController {
+    
+    private final RecommendationCache recommendationCache;
+    private final PhoneCatalog phoneCatalog;
+    private final ComparisonService comparisonService;
+    
+    /**
+     * Recommendation cache hit rate and eviction counters
+     * GET /api/admin/cache/recommendations
+     */
+    @GetMapping("/recommendations")
+    public ResponseEntity<Map<String, Object>> getRecommendationCacheStats() {
+        return ResponseEntity.ok(Map.of(
+            "catalogVersion", phoneCatalog.snapshot().getVersion(),
+            "stats", recommendationCache.getStats()
+        ));
+    }
+    
+    /**
+     * Comparison text cache counters
+     * GET /api/admin/cache/comparisons
+     */
+    @GetMapping("/comparisons")
+    public ResponseEntity<Map<String, Object>> getComparisonCacheStats() {
+        return ResponseEntity.ok(comparisonService.getStats());
+    }
+    
+    /**
+     * Drop all cached recommendations
+     * DELETE /api/admin/cache/recommendations
+     */
+    @DeleteMapping("/recommendations")
+    public ResponseEntity<Map<String, String>> clearRecommendationCache() {
+        log.info("Recommendation cache clear triggered");
+        recommendationCache.clear();
+        return ResponseEntity.ok(Map.of("message", "Recommendation cache cleared"));
+    }
+}
@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.phonepick.advisor.repository.PhoneRepository;
+import com.phonepick.advisor.service.CatalogChangedEvent;
 import com.phonepick.advisor.service.FlipkartDataParser;
 import com.phonepick.advisor.service.PhoneAnalysisService;
 import com.phonepick.advisor.service.PhoneScoreUpdateService;
@@ -35,6 +38,7 @@ public class PhoneAnalysisController {
     private final FlipkartDataParser flipkartDataParser;
     private final PhoneRepository phoneRepository;
     private final PhoneScoreUpdateService phoneScoreUpdateService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Analyze a single phone
@@ -99,8 +103,8 @@ public class PhoneAnalysisController {
             response.put("databaseConnected", true);
             
             if (count > 0) {
-                // Get a sample
-                var sample = phoneRepository.findAll().stream().limit(5).toList();
+                // Get a sample (first page only, not the whole table)
+                var sample = phoneRepository.findAll(PageRequest.of(0, 5)).getContent();
                 response.put("sampleData", sample);
             }
             
@@ -143,6 +147,7 @@ public class PhoneAnalysisController {
             long count = phoneRepository.count();
             phoneRepository.deleteAll();
             log.warn("Deleted {} phones from database", count);
+            eventPublisher.publishEvent(CatalogChangedEvent.all("clear-phones"));
             
             return ResponseEntity.ok(Map.of(
                 "message", "All phones deleted",
@@ -1,16 +1,35 @@
 package com.phonepick.advisor.controller;
 
-import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneComparison;
 import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.PriorityChange;
+import com.phonepick.advisor.model.RecommendationPage;
 import com.phonepick.advisor.model.RecommendationRequest;
+import com.phonepick.advisor.model.RecommendationSession;
+import com.phonepick.advisor.model.SpecFilters;
+import com.phonepick.advisor.service.CatalogResponseCache;
+import com.phonepick.advisor.service.ComparisonService;
+import com.phonepick.advisor.service.PhoneListingService;
+import com.phonepick.advisor.service.PhoneSearchIndex;
+import com.phonepick.advisor.service.RecommendationMetrics;
 import com.phonepick.advisor.service.RecommendationService;
+import com.phonepick.advisor.service.SimilarPhoneIndex;
+import com.phonepick.advisor.service.SkylineIndex;
+import com.phonepick.advisor.service.SpecFacetIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +40,16 @@ import java.util.Map;
 public class RecommendationController {
     
     private final RecommendationService recommendationService;
+    private final ComparisonService comparisonService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final PhoneListingService phoneListingService;
+    private final SimilarPhoneIndex similarPhoneIndex;
+    private final SkylineIndex skylineIndex;
+    private final PhoneSearchIndex phoneSearchIndex;
+    private final SpecFacetIndex specFacetIndex;
+    
+    @Value("${recommendation.batch.max-size:500}")
+    private int maxBatchSize;
     
     /**
      * Main endpoint: Get phone recommendations
@@ -28,15 +57,91 @@ public class RecommendationController {
      */
     @PostMapping("/recommend")
     public ResponseEntity<List<PhoneRecommendation>> getRecommendations(
-            @Valid @RequestBody RecommendationRequest request) {
+            @Valid @RequestBody RecommendationRequest request,
+            HttpServletRequest httpRequest) {
         
         log.info("Received recommendation request: {}", request);
         
         List<PhoneRecommendation> recommendations = recommendationService.getRecommendations(request);
         
+        // Lets the JSON converter time serialization under this request's budget bucket
+        httpRequest.setAttribute(RecommendationMetrics.BUCKET_ATTRIBUTE, RecommendationMetrics.bucketOf(request));
+        
         return ResponseEntity.ok(recommendations);
     }
     
+    /**
+     * Batch endpoint: recommendations for many profiles in one call
+     * POST /api/recommend/batch
+     * Returns one recommendation list per request, in request order
+     */
+    @PostMapping("/recommend/batch")
+    public ResponseEntity<?> getBatchRecommendations(
+            @RequestBody List<@Valid RecommendationRequest> requests) {
+        
+        if (requests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Batch too large: " + requests.size() + " requests (max " + maxBatchSize + ")"));
+        }
+        log.info("Received batch of {} recommendation requests", requests.size());
+        
+        return ResponseEntity.ok(recommendationService.getRecommendations(requests));
+    }
+    
+    /**
+     * Paginated ranking beyond the top 5
+     * POST /api/recommend/page?size=10&cursor=...
+     * Pass the previous response's nextCursor to get the following page
+     */
+    @PostMapping("/recommend/page")
+    public ResponseEntity<?> getRecommendationPage(
+            @Valid @RequestBody RecommendationRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size) {
+        try {
+            RecommendationPage page = recommendationService.getRecommendationPage(request, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Start a live re-ranking session for priority sliders
+     * POST /api/recommend/session
+     * Returns the top picks and a sessionId for follow-up slider changes
+     */
+    @PostMapping("/recommend/session")
+    public ResponseEntity<?> openSession(@Valid @RequestBody RecommendationRequest request) {
+        try {
+            RecommendationSession session = recommendationService.openSession(request);
+            return ResponseEntity.ok(session);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Move one priority slider and re-rank incrementally
+     * PATCH /api/recommend/session/{id}  body: {"feature": "camera", "weight": 85}
+     * 404 when the session expired; the client then opens a new one
+     */
+    @PatchMapping("/recommend/session/{id}")
+    public ResponseEntity<?> updateSession(
+            @PathVariable String id,
+            @Valid @RequestBody PriorityChange change) {
+        try {
+            RecommendationSession session =
+                recommendationService.updateSession(id, change.getFeature(), change.getWeight());
+            if (session == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(session);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Health check endpoint
      * GET /api/health
@@ -51,13 +156,153 @@ public class RecommendationController {
     }
     
     /**
-     * Get all phones (for testing/admin)
-     * GET /api/phones
+     * List phones
+     * GET /api/phones - every phone as a full entity, by id (for testing/admin)
+     * GET /api/phones?limit=50&fields=id,model,price&minPrice=20000&cursor=... - one page,
+     * cheapest first, projected to the given fields; pass nextCursor for the following page
+     * Streamed from the catalog; If-None-Match with the current ETag returns 304
+     * Accept: application/cbor or application/x-jackson-smile returns the same body in binary form
      */
     @GetMapping("/phones")
-    public ResponseEntity<List<Phone>> getAllPhones() {
-        List<Phone> phones = recommendationService.getAllPhones();
-        return ResponseEntity.ok(phones);
+    public void getPhones(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        PhoneListingService.Encoding encoding = PhoneListingService.Encoding.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        PhoneListingService.Listing listing;
+        if (limit == null && cursor == null && fields == null && minPrice == null && maxPrice == null) {
+            listing = phoneListingService.all(encoding);
+        } else {
+            try {
+                listing = phoneListingService.page(limit != null ? limit : 50, cursor, fields, minPrice, maxPrice, encoding);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                phoneListingService.writeError(e.getMessage(), response.getOutputStream());
+                return;
+            }
+        }
+        // Shared caches keep one copy per encoding
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // Sets the ETag header, and answers a matching If-None-Match with 304
+        if (new ServletWebRequest(request, response).checkNotModified(listing.getEtag())) {
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePublic().getHeaderValue());
+        response.setContentType(listing.getEncoding().getMediaType().toString());
+        listing.writeTo(response.getOutputStream());
+    }
+    
+    /**
+     * Compare phones side by side (comparison modal)
+     * GET /api/phones/compare?ids=12,34,56&priorities=camera,battery
+     * The first id is the pick compared against the others
+     */
+    @GetMapping("/phones/compare")
+    public ResponseEntity<?> comparePhones(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) List<String> priorities) {
+        try {
+            PhoneComparison comparison = comparisonService.compare(ids, priorities != null ? priorities : List.of());
+            return ResponseEntity.ok(comparison);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Phones most like the given one, optionally within a price band
+     * GET /api/phones/42/similar?maxPrice=25000&limit=5
+     * matchScore is the similarity (0-100); other variants of the same model are excluded
+     */
+    @GetMapping("/phones/{id}/similar")
+    public ResponseEntity<?> getSimilarPhones(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int minPrice,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int maxPrice,
+            @RequestParam(defaultValue = "5") int limit) {
+        if (limit < 1 || limit > 20 || minPrice > maxPrice) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "limit must be 1-20 and minPrice must not exceed maxPrice"));
+        }
+        List<PhoneRecommendation> similar = similarPhoneIndex.findSimilar(id, minPrice, maxPrice, limit);
+        if (similar == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(similar);
+    }
+    
+    /**
+     * Search phones by brand, model and spec terms
+     * GET /api/phones/search?q=galaxy 5g amoled&limit=10
+     * Every term must match; the last one also as a prefix, for autocomplete.
+     * One phone per model family, most relevant first; matchScore is the relevance (0-100)
+     */
+    @GetMapping("/phones/search")
+    public ResponseEntity<?> searchPhones(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank() || limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "q must not be blank and limit must be 1-50"));
+        }
+        return ResponseEntity.ok(phoneSearchIndex.search(q, limit));
+    }
+    
+    /**
+     * Phones in a budget that no other phone beats on every feature at the same or lower price
+     * GET /api/phones/skyline?budget=20-25
+     * Cheapest first; matchScore is the phone's unified score
+     */
+    @GetMapping("/phones/skyline")
+    public ResponseEntity<?> getSkyline(@RequestParam String budget) {
+        if (!RecommendationRequest.BUDGET_BUCKETS.contains(budget)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Unknown budget: " + budget));
+        }
+        return ResponseEntity.ok(skylineIndex.skyline(RecommendationRequest.budgetRangeFor(budget)));
+    }
+    
+    /**
+     * Spec facet counts for a price range, under optional filters
+     * GET /api/phones/facets?budget=20-25&minRamGb=8&displayTypes=AMOLED&minRefreshRateHz=120
+     * Each facet is counted under every filter except its own, so the counts show
+     * what changing that one filter would give; the same filters go in a
+     * recommendation request's "filters" block
+     */
+    @GetMapping("/phones/facets")
+    public ResponseEntity<?> getFacetCounts(
+            @RequestParam(required = false) String budget,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @Valid SpecFilters filters) {
+        if (budget != null && !RecommendationRequest.BUDGET_BUCKETS.contains(budget)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Unknown budget: " + budget));
+        }
+        RecommendationRequest range = new RecommendationRequest();
+        range.setBudget(budget);
+        range.setMinPrice(minPrice);
+        range.setMaxPrice(maxPrice);
+        if (!range.isBudgetOrPriceRangePresent() || !range.isPriceRangeOrdered()) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "budget or an ordered minPrice / maxPrice range is required"));
+        }
+        return ResponseEntity.ok(specFacetIndex.summary(filters, range.getBudgetRange()));
+    }
+    
+    /**
+     * Catalog statistics: phone counts per budget bucket, brand and unified-score decile
+     * GET /api/phones/stats
+     * One call covers every bucket the budget page shows; conditional like /phones/count
+     */
+    @GetMapping("/phones/stats")
+    public ResponseEntity<byte[]> getPhoneStats() {
+        return conditional(catalogResponseCache.statistics());
     }
     
     /**
@@ -65,20 +310,21 @@ public class RecommendationController {
      * GET /api/phones/count?budget=20-25
      */
     @GetMapping("/phones/count")
-    public ResponseEntity<Map<String, Object>> getPhoneCount(
+    public ResponseEntity<byte[]> getPhoneCount(
             @RequestParam(required = false) String budget) {
-        
-        Map<String, Object> response = new HashMap<>();
-        
-        if (budget != null) {
-            Long count = recommendationService.getPhoneCountInBudget(budget);
-            response.put("count", count);
-            response.put("budget", budget);
-        } else {
-            Long totalCount = (long) recommendationService.getAllPhones().size();
-            response.put("count", totalCount);
-        }
-        
-        return ResponseEntity.ok(response);
+        return conditional(catalogResponseCache.phoneCount(budget));
+    }
+    
+    /**
+     * Pre-serialized catalog response with its ETag
+     * Spring answers a matching If-None-Match with 304 and no body; no-cache lets
+     * browsers and the CDN store the response but revalidate on every use.
+     */
+    private ResponseEntity<byte[]> conditional(CatalogResponseCache.CachedResponse response) {
+        return ResponseEntity.ok()
+            .eTag(response.getEtag())
+            .cacheControl(CacheControl.noCache().cachePublic())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(response.getBody());
     }
 }
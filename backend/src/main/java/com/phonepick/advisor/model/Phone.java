@@ -83,6 +83,28 @@ public class Phone {
     @Column(name = "reddit_sentiment_score")
     private Integer redditSentimentScore;
     
+    // Materialized scores - written by UnifiedScoringService#refreshStoredScores
+    // whenever specs or sentiment scores change, so the request path only reads them
+    @Column(name = "spec_score")
+    private Integer specScore;
+    
+    @Column(name = "unified_score")
+    private Integer unifiedScore;
+    
+    // SHA-256 (hex) of the inputs (spec strings, sentiment scores, scoring version)
+    // the materialized scores were computed from
+    @Column(name = "score_inputs_digest", length = 64)
+    private String scoreInputsDigest;
+    
+    // Model family shared by all color / storage listings of a phone (see ModelFamilyNormalizer)
+    @Column(name = "family_key")
+    private String familyKey;
+    
+    private String color;
+    
+    @Column(name = "storage_variant", length = 32)
+    private String storageVariant;
+    
     // Helper method for compatibility (returns the model field)
     public String getModelName() {
         return this.model;
@@ -0,0 +1,22 @@
+package com.phonepick.advisor.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Side-by-side comparison for the front-end comparison modal
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhoneComparison {
+    
+    // Requested phones in request order; matchScore holds the unified score
+    private List<PhoneRecommendation> phones;
+    
+    // Why the first phone beats each of the others
+    private List<PhoneRecommendation.AlternativeComparison> comparisons;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -71,13 +72,13 @@ public class PhoneRecommendation {
             "camera", phone.getCameraInfo() != null ? phone.getCameraInfo() : "N/A"
         ));
         
-        // Scores
+        // Scores (0 for a phone not scored yet, as the ranker reads it)
         recommendation.setScores(Map.of(
-            "camera", phone.getCameraScore(),
-            "battery", phone.getBatteryScore(),
-            "software", phone.getSoftwareScore(),
-            "privacy", phone.getPrivacyScore(),
-            "looks", phone.getLooksScore()
+            "camera", scoreOrZero(phone.getCameraScore()),
+            "battery", scoreOrZero(phone.getBatteryScore()),
+            "software", scoreOrZero(phone.getSoftwareScore()),
+            "privacy", scoreOrZero(phone.getPrivacyScore()),
+            "looks", scoreOrZero(phone.getLooksScore())
         ));
         
         // Affiliate links
@@ -94,15 +95,54 @@ public class PhoneRecommendation {
         return recommendation;
     }
     
+    /**
+     * Deep copy: changes to the copy, its maps or its comparisons leave this one untouched
+     */
+    public PhoneRecommendation copy() {
+        PhoneRecommendation copy = new PhoneRecommendation();
+        copy.setId(id);
+        copy.setBrand(brand);
+        copy.setModel(model);
+        copy.setPrice(price);
+        copy.setMatchScore(matchScore);
+        copy.setYoutubeSentimentScore(youtubeSentimentScore);
+        copy.setRedditSentimentScore(redditSentimentScore);
+        copy.setSpecs(specs != null ? new LinkedHashMap<>(specs) : null);
+        copy.setScores(scores != null ? new LinkedHashMap<>(scores) : null);
+        copy.setAffiliateLinks(affiliateLinks != null ? new LinkedHashMap<>(affiliateLinks) : null);
+        copy.setImage(image);
+        copy.setWhyPicked(whyPicked);
+        copy.setWhyLoveIt(whyLoveIt);
+        copy.setWhatToKnow(whatToKnow);
+        if (beatsAlternatives != null) {
+            List<AlternativeComparison> alternatives = new ArrayList<>(beatsAlternatives.size());
+            for (AlternativeComparison alternative : beatsAlternatives) {
+                alternatives.add(alternative == null ? null
+                    : new AlternativeComparison(alternative.getBrand(), alternative.getModel(), alternative.getReason()));
+            }
+            copy.setBeatsAlternatives(alternatives);
+        }
+        return copy;
+    }
+    
+    private static int scoreOrZero(Integer score) {
+        return score != null ? score : 0;
+    }
+    
     // Method to add insights
     public void addInsights(PhoneInsight insight) {
         if (insight != null) {
-            this.whyPicked = insight.getWhyPicked();
-            this.whyLoveIt = insight.getWhyLoveIt();
-            this.whatToKnow = insight.getWhatToKnow();
+            addInsights(insight.getWhyPicked(), insight.getWhyLoveIt(), insight.getWhatToKnow());
         }
     }
     
+    // Method to add insights from cached text
+    public void addInsights(String whyPicked, String whyLoveIt, String whatToKnow) {
+        this.whyPicked = whyPicked;
+        this.whyLoveIt = whyLoveIt;
+        this.whatToKnow = whatToKnow;
+    }
+    
     // Method to add alternative comparison
     public void addAlternativeComparison(String brand, String model, String reason) {
         if (beatsAlternatives == null) {
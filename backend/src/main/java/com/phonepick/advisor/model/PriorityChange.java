@@ -0,0 +1,26 @@
+package com.phonepick.advisor.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One moved priority slider in a live re-ranking session
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriorityChange {
+
+    // camera, battery, performance, privacy or looks
+    @NotNull(message = "Feature is required")
+    private String feature;
+
+    @NotNull(message = "Weight is required")
+    @Min(value = 0, message = "weight must be between 0 and 100")
+    @Max(value = 100, message = "weight must be between 0 and 100")
+    private Integer weight;
+}
@@ -0,0 +1,32 @@
+package com.phonepick.advisor.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a ranked recommendation list
+ * nextCursor is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationPage {
+    
+    private List<PhoneRecommendation> items;
+    
+    // Opaque token for the following page
+    private String nextCursor;
+    
+    // Phones in the requested price range (before per-model deduplication), after spec filters
+    private int candidateCount;
+    
+    // Phone counts per spec facet value; only on requests with filters
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Integer>> facets;
+}
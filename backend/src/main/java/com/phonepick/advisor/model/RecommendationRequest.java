@@ -1,7 +1,13 @@
 package com.phonepick.advisor.model;
 
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,14 +21,63 @@ public class RecommendationRequest {
     @NotNull(message = "Product type is required")
     private String productType;
     
-    @NotNull(message = "Budget is required")
+    // Named budget bucket; optional when minPrice / maxPrice are given
     private String budget;
     
     @NotNull(message = "Priorities are required")
     private Map<String, Integer> priorities;
     
+    // Custom price range (inclusive); overrides the budget bucket when either bound is set
+    @Min(value = 0, message = "minPrice must not be negative")
+    private Integer minPrice;
+    
+    @Min(value = 0, message = "maxPrice must not be negative")
+    private Integer maxPrice;
+    
+    // Optional hard spec constraints; only phones passing them are scored
+    @Valid
+    private SpecFilters filters;
+    
+    /**
+     * Named budget buckets offered by the front-end
+     */
+    public static final List<String> BUDGET_BUCKETS = List.of(
+        "under-10", "10-15", "15-20", "20-25", "25-30", "30-35",
+        "35-40", "40-50", "50-60", "60-75", "75-plus", "New Gen"
+    );
+    
     // Helper method to get budget range
     public BudgetRange getBudgetRange() {
+        if (hasCustomPriceRange()) {
+            return new BudgetRange(
+                minPrice != null ? minPrice : 0,
+                maxPrice != null ? maxPrice : Integer.MAX_VALUE
+            );
+        }
+        return budgetRangeFor(budget);
+    }
+    
+    public boolean hasCustomPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+    
+    public boolean hasFilters() {
+        return filters != null && !filters.isEmpty();
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "Budget or a price range is required")
+    public boolean isBudgetOrPriceRangePresent() {
+        return budget != null || hasCustomPriceRange();
+    }
+    
+    @JsonIgnore
+    @AssertTrue(message = "minPrice must not exceed maxPrice")
+    public boolean isPriceRangeOrdered() {
+        return minPrice == null || maxPrice == null || minPrice <= maxPrice;
+    }
+    
+    public static BudgetRange budgetRangeFor(String budget) {
         return switch (budget) {
             case "under-10" -> new BudgetRange(0, 10000);
             case "10-15" -> new BudgetRange(10000, 15000);
@@ -36,10 +91,15 @@ public class RecommendationRequest {
             case "60-75" -> new BudgetRange(60000, 75000);
             case "75-plus" -> new BudgetRange(75000, 200000);
             case "New Gen" -> new BudgetRange(95000, 300000);
-            default -> new BudgetRange(0, 200000);
+            default -> defaultBudgetRange();
         };
     }
     
+    // Used for any unrecognized budget string
+    public static BudgetRange defaultBudgetRange() {
+        return new BudgetRange(0, 200000);
+    }
+    
     @Data
     @AllArgsConstructor
     public static class BudgetRange {
@@ -0,0 +1,21 @@
+package com.phonepick.advisor.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Top picks of a live re-ranking session
+ * Send sessionId back with each slider change to re-rank incrementally.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationSession {
+    
+    private String sessionId;
+    
+    private List<PhoneRecommendation> recommendations;
+}
@@ -0,0 +1,72 @@
+package com.phonepick.advisor.model;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hard spec constraints on a recommendation request; unset fields do not filter
+ * Values are matched against the facets parsed from each phone's spec text, so a
+ * phone whose text does not state a value never passes a filter on it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecFilters {
+
+    /**
+     * Display types the parser recognises
+     */
+    public static final List<String> DISPLAY_TYPES = List.of("AMOLED", "OLED", "LCD");
+
+    @Min(value = 0, message = "minRamGb must not be negative")
+    private Integer minRamGb;
+
+    @Min(value = 0, message = "minStorageGb must not be negative")
+    private Integer minStorageGb;
+
+    private Boolean expandableStorage;
+
+    // Any of these, e.g. ["AMOLED", "OLED"]
+    private List<String> displayTypes;
+
+    @Min(value = 0, message = "minRefreshRateHz must not be negative")
+    private Integer minRefreshRateHz;
+
+    @Min(value = 0, message = "minBatteryMah must not be negative")
+    private Integer minBatteryMah;
+
+    private Boolean fiveG;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return minRamGb == null && minStorageGb == null && expandableStorage == null
+            && (displayTypes == null || displayTypes.isEmpty()) && minRefreshRateHz == null
+            && minBatteryMah == null && fiveG == null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "displayTypes must be AMOLED, OLED or LCD")
+    public boolean isDisplayTypesKnown() {
+        return displayTypes == null || displayTypes.stream()
+            .allMatch(type -> type != null && DISPLAY_TYPES.contains(type.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Canonical form for cache keys: equal filters give equal keys
+     */
+    @JsonIgnore
+    public String getKey() {
+        String types = displayTypes == null ? "" : String.join("/", displayTypes.stream()
+            .map(type -> type.toUpperCase(Locale.ROOT)).distinct().sorted().toList());
+        return minRamGb + "," + minStorageGb + "," + expandableStorage + "," + types + ","
+            + minRefreshRateHz + "," + minBatteryMah + "," + fiveG;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +41,11 @@ public interface PhoneInsightRepository extends JpaRepository<PhoneInsight, Long
      */
     boolean existsByPhoneIdAndPriorityPattern(Long phoneId, String priorityPattern);
     
+    /**
+     * Find all insights for a set of phones in one query (recommendation top-K)
+     */
+    List<PhoneInsight> findByPhoneIdIn(Collection<Long> phoneIds);
+    
     /**
      * Find the first insight for a phone (fallback when no pattern match)
      */
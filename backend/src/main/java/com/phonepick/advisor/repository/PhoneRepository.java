@@ -19,9 +19,6 @@ public interface PhoneRepository extends JpaRepository<Phone, Long> {
     // Custom query to get phones by brand
     List<Phone> findByBrandIgnoreCase(String brand);
     
-    // Find phones by model name (for Reddit/YouTube matching)
-    List<Phone> findByModelContainingIgnoreCase(String model);
-    
     // Find phones by brand and model
     List<Phone> findByBrandIgnoreCaseAndModelContainingIgnoreCase(String brand, String model);
     
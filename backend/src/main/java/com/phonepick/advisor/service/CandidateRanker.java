@@ -0,0 +1,176 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scores a catalog price range against user priorities and keeps the top K
+ * unique phone models. Shared by the live recommendation path and the
+ * precomputed ranking tables so both produce identical rankings.
+ */
+@Service
+@Slf4j
+public class CandidateRanker {
+
+    // Catalog entries scored per block; keeps the feature columns cache-resident across profiles
+    private static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Rank catalog entries [from, to) and keep the best K model families
+     */
+    public TopKSelector rank(PhoneCatalog.Snapshot catalog, int from, int to,
+                             Map<String, Integer> priorities, int k) {
+        return rankAll(catalog, from, to, null, List.of(priorities), k).get(0);
+    }
+
+    /**
+     * Rank only the catalog entries in [from, to) whose bit is set in matching
+     */
+    public TopKSelector rank(PhoneCatalog.Snapshot catalog, int from, int to, BitSet matching,
+                             Map<String, Integer> priorities, int k) {
+        return rankAll(catalog, from, to, matching, List.of(priorities), k).get(0);
+    }
+
+    /**
+     * Rank one catalog range for several priority profiles in a shared pass
+     * Each block of the range is scored for every profile before moving on, so the
+     * catalog is read once regardless of how many profiles are ranked.
+     */
+    public List<TopKSelector> rankAll(PhoneCatalog.Snapshot catalog, int from, int to,
+                                      List<Map<String, Integer>> profiles, int k) {
+        return rankAll(catalog, from, to, null, profiles, k);
+    }
+
+    /**
+     * Shared-pass ranking restricted to the entries set in matching (null ranks all of [from, to))
+     * Runs of consecutive matches are scored as blocks, so sparse filters skip the
+     * rest of the range without touching it.
+     */
+    public List<TopKSelector> rankAll(PhoneCatalog.Snapshot catalog, int from, int to, BitSet matching,
+                                      List<Map<String, Integer>> profiles, int k) {
+        List<TopKSelector> selectors = new ArrayList<>(profiles.size());
+        for (int p = 0; p < profiles.size(); p++) {
+            selectors.add(new TopKSelector(k));
+        }
+        if (to > from) {
+            int[][] weights = new int[profiles.size()][];
+            for (int p = 0; p < profiles.size(); p++) {
+                weights[p] = scorerWeights(profiles.get(p));
+            }
+            int[] baseMatchScores = new int[Math.min(BLOCK_SIZE, to - from)];
+            int blockStart = nextMatch(matching, from, to);
+            while (blockStart < to) {
+                int blockEnd = Math.min(to, blockStart + BLOCK_SIZE);
+                if (matching != null) {
+                    blockEnd = Math.min(blockEnd, matching.nextClearBit(blockStart));
+                }
+                for (int p = 0; p < profiles.size(); p++) {
+                    // Base match scores for the whole block in one pass over the feature columns
+                    ScoringKernel.matchScores(catalog.features(), blockStart, blockEnd, weights[p], baseMatchScores);
+                    offerBlock(catalog, blockStart, blockEnd, baseMatchScores, selectors.get(p));
+                }
+                blockStart = nextMatch(matching, blockEnd, to);
+            }
+        }
+        selectors.forEach(TopKSelector::finish);
+        return selectors;
+    }
+
+    private static int nextMatch(BitSet matching, int from, int to) {
+        if (matching == null || from >= to) {
+            return from;
+        }
+        int next = matching.nextSetBit(from);
+        return next < 0 ? to : Math.min(next, to);
+    }
+
+    private void offerBlock(PhoneCatalog.Snapshot catalog, int from, int to,
+                            int[] baseMatchScores, TopKSelector topK) {
+        for (int index = from; index < to; index++) {
+            int baseMatchScore = baseMatchScores[index - from];
+
+            // Unified score (YouTube, Reddit and spec scores) materialized at write time
+            int unifiedScore = catalog.unifiedScoreAt(index);
+
+            int finalMatchScore = ScoringKernel.combine(baseMatchScore, unifiedScore);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Phone {}: base={}, unified={}, final={}",
+                         catalog.get(index).getModel(), baseMatchScore, unifiedScore, finalMatchScore);
+            }
+
+            // Variants of the same brand + model compete for one slot
+            topK.offer(catalog.familyKeyAt(index), finalMatchScore, index);
+        }
+    }
+
+    /**
+     * Weights in kernel column order: camera, battery, performance, privacy, looks
+     */
+    static int[] scorerWeights(Map<String, Integer> priorities) {
+        return new int[] {
+            priorities.getOrDefault("camera", 50),
+            priorities.getOrDefault("battery", 50),
+            priorities.getOrDefault("performance", 50),
+            priorities.getOrDefault("privacy", 50),
+            priorities.getOrDefault("looks", 50)
+        };
+    }
+
+    /**
+     * Combine priority match with unified scoring (70% priority match, 30% unified)
+     */
+    public static int combineScores(int baseMatchScore, int unifiedScore) {
+        return (int) Math.round(baseMatchScore * 0.70 + unifiedScore * 0.30);
+    }
+
+    /**
+     * Calculate weighted match score for a phone based on user priorities
+     * Formula: Sum of (feature_score * priority_weight) / number_of_features
+     * A feature score not computed yet counts as 0.
+     */
+    public int calculateMatchScore(Phone phone, Map<String, Integer> priorities) {
+        int totalScore = 0;
+        int totalWeight = 0;
+
+        // Camera
+        int cameraWeight = priorities.getOrDefault("camera", 50);
+        totalScore += scoreOrZero(phone.getCameraScore()) * cameraWeight / 100;
+        totalWeight += cameraWeight;
+
+        // Battery
+        int batteryWeight = priorities.getOrDefault("battery", 50);
+        totalScore += scoreOrZero(phone.getBatteryScore()) * batteryWeight / 100;
+        totalWeight += batteryWeight;
+
+        // Software/Performance
+        int performanceWeight = priorities.getOrDefault("performance", 50);
+        totalScore += scoreOrZero(phone.getSoftwareScore()) * performanceWeight / 100;
+        totalWeight += performanceWeight;
+
+        // Privacy
+        int privacyWeight = priorities.getOrDefault("privacy", 50);
+        totalScore += scoreOrZero(phone.getPrivacyScore()) * privacyWeight / 100;
+        totalWeight += privacyWeight;
+
+        // Looks/Design
+        int looksWeight = priorities.getOrDefault("looks", 50);
+        totalScore += scoreOrZero(phone.getLooksScore()) * looksWeight / 100;
+        totalWeight += looksWeight;
+
+        // Normalize to 0-100 scale
+        return Math.round((float) totalScore / 5);
+    }
+
+    private static int scoreOrZero(Integer score) {
+        return score != null ? score : 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.phonepick.advisor.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Published by every code path that writes to the phones table
+ * (imports, score updates, sentiment batch jobs).
+ * An empty id set means "anything may have changed" and forces a full reload.
+ */
+public class CatalogChangedEvent {
+
+    private final String source;
+    private final Set<Long> phoneIds;
+
+    private CatalogChangedEvent(String source, Set<Long> phoneIds) {
+        this.source = source;
+        this.phoneIds = phoneIds;
+    }
+
+    /**
+     * Full reload - used by imports and jobs that touch many rows
+     */
+    public static CatalogChangedEvent all(String source) {
+        return new CatalogChangedEvent(source, Collections.emptySet());
+    }
+
+    /**
+     * Partial reload of the given phones
+     */
+    public static CatalogChangedEvent of(String source, Collection<Long> phoneIds) {
+        return new CatalogChangedEvent(source, Collections.unmodifiableSet(new TreeSet<>(phoneIds)));
+    }
+
+    public String getSource() { return source; }
+    public Set<Long> getPhoneIds() { return phoneIds; }
+    public boolean isFullReload() { return phoneIds.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return isFullReload()
+            ? String.format("CatalogChangedEvent[%s, all]", source)
+            : String.format("CatalogChangedEvent[%s, %d phones]", source, phoneIds.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.phonepick.advisor.service;
+
+import java.util.Set;
+
+/**
+ * Published by {@link PhoneCatalog} after a new snapshot has been swapped in
+ * Lets structures derived from the catalog update only what changed.
+ * An empty id set means the whole catalog was reloaded.
+ */
+public class CatalogRefreshedEvent {
+
+    private final PhoneCatalog.Snapshot previous;
+    private final PhoneCatalog.Snapshot current;
+    private final Set<Long> changedIds;
+
+    public CatalogRefreshedEvent(PhoneCatalog.Snapshot previous, PhoneCatalog.Snapshot current, Set<Long> changedIds) {
+        this.previous = previous;
+        this.current = current;
+        this.changedIds = changedIds;
+    }
+
+    /**
+     * Snapshot before the refresh, null on the first load
+     */
+    public PhoneCatalog.Snapshot getPrevious() { return previous; }
+    public PhoneCatalog.Snapshot getCurrent() { return current; }
+    public Set<Long> getChangedIds() { return changedIds; }
+    public boolean isFullReload() { return previous == null || changedIds.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return isFullReload()
+            ? String.format("CatalogRefreshedEvent[version %d, all]", current.getVersion())
+            : String.format("CatalogRefreshedEvent[version %d, %d phones]", current.getVersion(), changedIds.size());
+    }
+}
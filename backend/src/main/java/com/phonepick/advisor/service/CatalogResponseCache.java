@@ -0,0 +1,123 @@
+package com.phonepick.advisor.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized catalog responses, cached per catalog version
+ * GET /api/phones/count and /api/phones/stats only change when a write path bumps
+ * the catalog version, so their JSON is rendered once per version and served as bytes. Each
+ * body carries a strong ETag derived from its content, which stays stable across
+ * restarts and instances whose version counters differ. The phone listing itself
+ * is streamed by {@link PhoneListingService} rather than cached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogResponseCache {
+
+    private static final String TOTAL_COUNT = "count";
+    private static final String STATISTICS = "stats";
+
+    private final PhoneCatalog phoneCatalog;
+    private final CatalogStatistics catalogStatistics;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    /**
+     * Phone count overall or within a budget, as GET /api/phones/count returns it
+     */
+    public CachedResponse phoneCount(String budget) {
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        if (budget == null) {
+            return cached(TOTAL_COUNT, catalog, () -> Map.of("count", (long) catalog.listingCount()));
+        }
+        ResponseBody body = () -> {
+            RecommendationRequest.BudgetRange range = RecommendationRequest.budgetRangeFor(budget);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("count", (long) catalog.countBetween(range.getMin(), range.getMax()));
+            response.put("budget", budget);
+            return response;
+        };
+        // The body echoes the budget string, so only the known buckets are cached
+        return RecommendationRequest.BUDGET_BUCKETS.contains(budget)
+            ? cached(TOTAL_COUNT + ":" + budget, catalog, body)
+            : render(catalog.getVersion(), body);
+    }
+
+    /**
+     * Counts per budget bucket, brand and score decile, as GET /api/phones/stats returns them
+     */
+    public CachedResponse statistics() {
+        CatalogStatistics.Stats stats = catalogStatistics.current();
+        return cached(STATISTICS, stats.getBuiltFrom(), stats::toResponse);
+    }
+
+    private CachedResponse cached(String key, PhoneCatalog.Snapshot catalog, ResponseBody body) {
+        CachedResponse response = responses.get(key);
+        if (response != null && response.version == catalog.getVersion()) {
+            return response;
+        }
+        // Concurrent misses may render twice; the last write wins and both are identical
+        response = render(catalog.getVersion(), body);
+        responses.put(key, response);
+        log.debug("Rendered {} for catalog version {} ({} bytes)", key, catalog.getVersion(), response.body.length);
+        return response;
+    }
+
+    private CachedResponse render(long version, ResponseBody body) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body.build());
+            return new CachedResponse(version, bytes, etagOf(bytes));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private static String etagOf(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        Object build();
+    }
+
+    /**
+     * JSON bytes and strong ETag for one catalog version
+     */
+    public static final class CachedResponse {
+        private final long version;
+        private final byte[] body;
+        private final String etag;
+
+        CachedResponse(long version, byte[] body, String etag) {
+            this.version = version;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public long getVersion() { return version; }
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+    }
+}
@@ -0,0 +1,208 @@
+package com.phonepick.advisor.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Phone counts per budget bucket, per brand and per unified-score decile
+ * Built once from the catalog, then kept current by {@link CatalogRefreshedEvent}s:
+ * a partial refresh subtracts the changed phones' old listings and adds the new
+ * ones, so write paths that touch a few phones cost a few map updates.
+ *
+ * Bucket counts use the same inclusive bounds as GET /api/phones/count, so a phone
+ * priced exactly on a boundary counts in both neighbouring buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStatistics {
+
+    static final int DECILES = 10;
+
+    private static final List<String> BUCKETS = RecommendationRequest.BUDGET_BUCKETS;
+    private static final RecommendationRequest.BudgetRange[] BUCKET_RANGES = BUCKETS.stream()
+        .map(RecommendationRequest::budgetRangeFor)
+        .toArray(RecommendationRequest.BudgetRange[]::new);
+
+    private final PhoneCatalog phoneCatalog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Stats stats;
+
+    /**
+     * Statistics for the current catalog
+     * Rebuilt on the spot if a refresh was missed.
+     */
+    public Stats current() {
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        Stats current = stats;
+        if (current != null && current.builtFrom.sharesDataWith(catalog)) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (stats == null || !stats.builtFrom.sharesDataWith(catalog)) {
+                stats = Counts.of(catalog).toStats(catalog);
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        lock.lock();
+        try {
+            Stats current = stats;
+            PhoneCatalog.Snapshot next = event.getCurrent();
+            if (current == null) {
+                // Nothing served yet; build lazily on first read
+                return;
+            }
+            // Incremental only when this event continues from the data the counts describe
+            if (event.isFullReload() || !current.builtFrom.sharesDataWith(event.getPrevious())) {
+                stats = Counts.of(next).toStats(next);
+                return;
+            }
+            Counts counts = current.counts.copy();
+            PhoneCatalog.Snapshot previous = event.getPrevious();
+            for (Long id : event.getChangedIds()) {
+                Phone before = previous.findById(id);
+                if (before != null) {
+                    counts.add(previous, before, -1);
+                }
+                Phone after = next.findById(id);
+                if (after != null) {
+                    counts.add(next, after, 1);
+                }
+            }
+            stats = counts.toStats(next);
+            log.debug("Catalog statistics updated for {} phones", event.getChangedIds().size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static int decileOf(int unifiedScore) {
+        return Math.max(0, Math.min(DECILES - 1, unifiedScore / 10));
+    }
+
+    /**
+     * Mutable counters, copied before every update so published stats never change
+     */
+    private static final class Counts {
+        private int total;
+        private final int[] buckets;
+        private final int[] deciles;
+        private final Map<String, Integer> brands;
+
+        private Counts(int total, int[] buckets, int[] deciles, Map<String, Integer> brands) {
+            this.total = total;
+            this.buckets = buckets;
+            this.deciles = deciles;
+            this.brands = brands;
+        }
+
+        static Counts of(PhoneCatalog.Snapshot catalog) {
+            Counts counts = new Counts(0, new int[BUCKETS.size()], new int[DECILES], new HashMap<>());
+            for (Phone phone : catalog.all()) {
+                counts.add(catalog, phone, 1);
+            }
+            return counts;
+        }
+
+        Counts copy() {
+            return new Counts(total, buckets.clone(), deciles.clone(), new HashMap<>(brands));
+        }
+
+        /**
+         * Count a listing in (delta 1) or out (delta -1)
+         */
+        void add(PhoneCatalog.Snapshot catalog, Phone phone, int delta) {
+            total += delta;
+            int price = phone.getPrice();
+            for (int b = 0; b < BUCKET_RANGES.length; b++) {
+                if (price >= BUCKET_RANGES[b].getMin() && price <= BUCKET_RANGES[b].getMax()) {
+                    buckets[b] += delta;
+                }
+            }
+            // Interchangeable variants share their representative's unified score
+            int index = catalog.indexOf(phone.getId());
+            if (index >= 0) {
+                deciles[decileOf(catalog.unifiedScoreAt(index))] += delta;
+            }
+            String brand = phone.getBrand() != null ? phone.getBrand() : "Unknown";
+            brands.merge(brand, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        Stats toStats(PhoneCatalog.Snapshot catalog) {
+            Map<String, Integer> byBucket = new LinkedHashMap<>();
+            for (int b = 0; b < BUCKETS.size(); b++) {
+                byBucket.put(BUCKETS.get(b), buckets[b]);
+            }
+            // Most common brands first
+            Map<String, Integer> byBrand = new LinkedHashMap<>();
+            brands.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> byBrand.put(entry.getKey(), entry.getValue()));
+            Map<String, Integer> byDecile = new LinkedHashMap<>();
+            for (int d = 0; d < DECILES; d++) {
+                byDecile.put(d * 10 + "-" + (d == DECILES - 1 ? 100 : d * 10 + 9), deciles[d]);
+            }
+            return new Stats(catalog, this, total, byBucket, byBrand, byDecile);
+        }
+    }
+
+    /**
+     * Immutable statistics for one catalog snapshot, as GET /api/phones/stats returns them
+     */
+    public static final class Stats {
+        private final PhoneCatalog.Snapshot builtFrom;
+        private final Counts counts;
+        private final int totalPhones;
+        private final Map<String, Integer> budgets;
+        private final Map<String, Integer> brands;
+        private final Map<String, Integer> unifiedScoreDeciles;
+
+        private Stats(PhoneCatalog.Snapshot builtFrom, Counts counts, int totalPhones, Map<String, Integer> budgets,
+                      Map<String, Integer> brands, Map<String, Integer> unifiedScoreDeciles) {
+            this.builtFrom = builtFrom;
+            this.counts = counts;
+            this.totalPhones = totalPhones;
+            this.budgets = budgets;
+            this.brands = brands;
+            this.unifiedScoreDeciles = unifiedScoreDeciles;
+        }
+
+        PhoneCatalog.Snapshot getBuiltFrom() { return builtFrom; }
+
+        /**
+         * JSON body: totals per budget bucket, brand (most common first) and score decile
+         */
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("totalPhones", totalPhones);
+            response.put("budgets", budgets);
+            response.put("brands", brands);
+            response.put("unifiedScoreDeciles", unifiedScoreDeciles);
+            return response;
+        }
+
+        public int getTotalPhones() { return totalPhones; }
+        public Map<String, Integer> getBudgets() { return budgets; }
+        public Map<String, Integer> getBrands() { return brands; }
+        public Map<String, Integer> getUnifiedScoreDeciles() { return unifiedScoreDeciles; }
+    }
+}
@@ -0,0 +1,213 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneComparison;
+import com.phonepick.advisor.model.PhoneRecommendation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pairwise "why the top pick beats this alternative" text
+ * Reasons depend only on the two phones and the user's top priorities, and the
+ * same pairs recur for every request in a budget band, so they are kept in a
+ * bounded LRU keyed by (topId, altId, top priorities) and reused until the
+ * catalog version changes.
+ */
+@Service
+@Slf4j
+public class ComparisonService {
+
+    private final PhoneCatalog phoneCatalog;
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ComparisonService(PhoneCatalog phoneCatalog,
+                             @Value("${recommendation.comparisons.cache-max-entries:20000}") int maxEntries) {
+        this.phoneCatalog = phoneCatalog;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ComparisonService.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Comparison text for top pick vs alternative, cached per catalog version
+     */
+    public String comparisonReason(Phone topPhone, Phone alternative, List<String> topPriorities, long catalogVersion) {
+        String key = keyFor(topPhone.getId(), alternative.getId(), topPriorities);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.catalogVersion == catalogVersion) {
+                hits.incrementAndGet();
+                return entry.reason;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        String reason = generateComparisonReason(topPhone, alternative, topPriorities);
+        lock.lock();
+        try {
+            entries.put(key, new Entry(catalogVersion, reason));
+        } finally {
+            lock.unlock();
+        }
+        return reason;
+    }
+
+    /**
+     * Side-by-side comparison of catalog phones for the comparison modal
+     * The first phone is compared against each of the others; repeated ids are ignored.
+     * @throws IllegalArgumentException if fewer than two distinct ids are given or a phone is unknown
+     */
+    public PhoneComparison compare(List<Long> phoneIds, List<String> topPriorities) {
+        // A repeated id would compare a phone with itself
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(phoneIds));
+        if (distinctIds.size() < 2) {
+            throw new IllegalArgumentException("At least two distinct phone ids are required");
+        }
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        List<Phone> phones = new ArrayList<>(distinctIds.size());
+        for (Long phoneId : distinctIds) {
+            Phone phone = catalog.findById(phoneId);
+            if (phone == null) {
+                throw new IllegalArgumentException("Phone not found: " + phoneId);
+            }
+            phones.add(phone);
+        }
+
+        List<PhoneRecommendation> summaries = new ArrayList<>(phones.size());
+        for (Phone phone : phones) {
+            // No request weights here: matchScore carries the unified score
+            summaries.add(PhoneRecommendation.fromPhone(phone, catalog.unifiedScoreAt(catalog.indexOf(phone.getId()))));
+        }
+
+        Phone top = phones.get(0);
+        List<PhoneRecommendation.AlternativeComparison> comparisons = new ArrayList<>(phones.size() - 1);
+        for (Phone alternative : phones.subList(1, phones.size())) {
+            comparisons.add(new PhoneRecommendation.AlternativeComparison(
+                alternative.getBrand(),
+                alternative.getModel(),
+                comparisonReason(top, alternative, topPriorities, catalog.getVersion())
+            ));
+        }
+        return new PhoneComparison(summaries, comparisons);
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return Map.of("size", size, "maxEntries", maxEntries, "hits", hits.get(), "misses", misses.get());
+    }
+
+    private static String keyFor(Long topId, Long altId, List<String> topPriorities) {
+        return topId + ":" + altId + ":" + String.join(",", topPriorities);
+    }
+
+    /**
+     * Generate comparison reason based on feature scores
+     */
+    String generateComparisonReason(Phone topPhone, Phone alternative, List<String> topPriorities) {
+        List<String> advantages = new ArrayList<>();
+
+        // Check user's top priorities
+        for (String priority : topPriorities) {
+            int topScore = getFeatureScore(topPhone, priority);
+            int altScore = getFeatureScore(alternative, priority);
+
+            if (topScore > altScore) {
+                int diff = topScore - altScore;
+                if (diff >= 5) { // Only mention if significantly better
+                    String advantage = getAdvantageText(priority, diff);
+                    if (advantage != null) {
+                        advantages.add(advantage);
+                    }
+                }
+            }
+        }
+
+        // Check price advantage
+        if (topPhone.getPrice() < alternative.getPrice()) {
+            int savings = alternative.getPrice() - topPhone.getPrice();
+            advantages.add("₹" + String.format("%,d", savings) + " cheaper");
+        }
+
+        // If no clear advantages found, use generic text
+        if (advantages.isEmpty()) {
+            return "Better overall balance for your priorities";
+        }
+
+        // Join advantages
+        if (advantages.size() == 1) {
+            return advantages.get(0);
+        } else if (advantages.size() == 2) {
+            return advantages.get(0) + " and " + advantages.get(1);
+        } else {
+            return advantages.get(0) + ", " + advantages.get(1) + ", and more";
+        }
+    }
+
+    /**
+     * Get feature score by name (0 for a phone not scored yet)
+     */
+    private int getFeatureScore(Phone phone, String feature) {
+        Integer score = switch (feature.toLowerCase()) {
+            case "camera" -> phone.getCameraScore();
+            case "battery" -> phone.getBatteryScore();
+            case "performance", "software" -> phone.getSoftwareScore();
+            case "privacy" -> phone.getPrivacyScore();
+            case "looks", "design" -> phone.getLooksScore();
+            default -> null;
+        };
+        return score != null ? score : 0;
+    }
+
+    /**
+     * Convert feature advantage to human-readable text
+     */
+    private String getAdvantageText(String feature, int scoreDiff) {
+        return switch (feature.toLowerCase()) {
+            case "camera" -> scoreDiff >= 10 ? "significantly better camera" : "better camera quality";
+            case "battery" -> scoreDiff >= 10 ? "much longer battery life" : "better battery life";
+            case "performance", "software" -> scoreDiff >= 10 ? "noticeably faster performance" : "smoother performance";
+            case "privacy" -> scoreDiff >= 10 ? "stronger privacy protection" : "better privacy features";
+            case "looks", "design" -> scoreDiff >= 10 ? "premium design and build" : "better design";
+            default -> null;
+        };
+    }
+
+    private static class Entry {
+        private final long catalogVersion;
+        private final String reason;
+
+        Entry(long catalogVersion, String reason) {
+            this.catalogVersion = catalogVersion;
+            this.reason = reason;
+        }
+    }
+}
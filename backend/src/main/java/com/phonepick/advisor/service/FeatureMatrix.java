@@ -0,0 +1,67 @@
+package com.phonepick.advisor.service;
+
+import com.phonepick.advisor.model.Phone;
+
+/**
+ * Column-oriented copy of the five feature scores, in catalog order
+ * Lets the scoring kernel stream over primitive arrays instead of calling
+ * boxed Integer getters on every phone. A score not computed yet is stored
+ * as 0, as {@link CandidateRanker#calculateMatchScore} reads it.
+ */
+public final class FeatureMatrix {
+
+    final int[] camera;
+    final int[] battery;
+    final int[] software;
+    final int[] privacy;
+    final int[] looks;
+
+    // True if every feature score is within 0..100
+    final boolean normalized;
+
+    private FeatureMatrix(int[] camera, int[] battery, int[] software, int[] privacy, int[] looks,
+                          boolean normalized) {
+        this.camera = camera;
+        this.battery = battery;
+        this.software = software;
+        this.privacy = privacy;
+        this.looks = looks;
+        this.normalized = normalized;
+    }
+
+    public static FeatureMatrix of(Phone[] phones) {
+        int n = phones.length;
+        int[] camera = new int[n];
+        int[] battery = new int[n];
+        int[] software = new int[n];
+        int[] privacy = new int[n];
+        int[] looks = new int[n];
+        boolean normalized = true;
+        for (int i = 0; i < n; i++) {
+            Phone phone = phones[i];
+            Integer[] scores = {
+                phone.getCameraScore(), phone.getBatteryScore(), phone.getSoftwareScore(),
+                phone.getPrivacyScore(), phone.getLooksScore()
+            };
+            for (Integer score : scores) {
+                if (score != null && (score < 0 || score > 100)) {
+                    normalized = false;
+                }
+            }
+            camera[i] = valueOf(scores[0]);
+            battery[i] = valueOf(scores[1]);
+            software[i] = valueOf(scores[2]);
+            privacy[i] = valueOf(scores[3]);
+            looks[i] = valueOf(scores[4]);
+        }
+        return new FeatureMatrix(camera, battery, software, privacy, looks, normalized);
+    }
+
+    public int size() {
+        return camera.length;
+    }
+
+    private static int valueOf(Integer score) {
+        return score != null ? score : 0;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
@@ -25,6 +26,8 @@ import lombok.extern.slf4j.Slf4j;
 public class FlipkartDataParser {
     
     private final PhoneRepository phoneRepository;
+    private final UnifiedScoringService unifiedScoringService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public Map<String, Object> parseAndSaveFlipkartData(String csvFilePath) {
         List<Phone> phones = new ArrayList<>();
@@ -76,6 +79,10 @@ public class FlipkartDataParser {
             log.info("Import completed: {} total, {} success, {} skipped, {} errors", 
                     totalLines, successCount, skipCount, errorCount);
             
+            if (successCount > 0) {
+                eventPublisher.publishEvent(CatalogChangedEvent.all("flipkart-import"));
+            }
+            
         } catch (IOException e) {
             log.error("Error reading CSV file", e);
             throw new RuntimeException("Failed to read CSV file: " + e.getMessage());
@@ -149,6 +156,7 @@ public class FlipkartDataParser {
             
             // Calculate feature scores
             calculateFeatureScores(phone);
+            unifiedScoringService.refreshStoredScores(phone);
             
             return phone;
             
@@ -168,6 +176,9 @@ public class FlipkartDataParser {
             phone.setBrand("Unknown");
             phone.setModel(fullModel);
         }
+        
+        // Family key, color and storage so listings of one phone collapse in the catalog
+        ModelFamilyNormalizer.apply(phone);
     }
     
 
@@ -0,0 +1,137 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.phonepick.advisor.model.Phone;
+
+/**
+ * Splits a listing title into model family, color and storage variant
+ * Flipkart lists every color and storage option as its own title, e.g.
+ * "T4 Lite 5G Charger in the Box (Titanium Gold, 128 GB)". The family is the
+ * title without the trailing "(color, storage)" group and without marketing
+ * tails (charger, battery and "with ..." blurbs), so all of its listings share
+ * one family key such as "vivo::t4 lite 5g".
+ */
+public final class ModelFamilyNormalizer {
+
+    // Trailing "(...)" group; only treated as a variant if it names a color or storage
+    private static final Pattern VARIANT_GROUP = Pattern.compile("\\(([^()]*)\\)\\s*$");
+    private static final Pattern STORAGE = Pattern.compile("(?i)^(\\d+)\\s*(GB|TB)$");
+
+    // Start of a marketing tail: "Charger in the Box", "6000mAh", "45W", "with ...", "Up to ...", "& AI", "| ..."
+    private static final Pattern MARKETING_TAIL = Pattern.compile(
+        "(?i)\\s+(?:charger\\b|with\\b|up to\\b|\\d+\\s*mah\\b|\\d+\\s*w\\b|&|\\|)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ModelFamilyNormalizer() {
+    }
+
+    /**
+     * Family and variant of a listing; color and storage are null when the title has none
+     */
+    public static Variant normalize(String brand, String model) {
+        String title = model != null ? model.trim() : "";
+        List<String> colors = new ArrayList<>();
+        String storage = null;
+
+        Matcher group = VARIANT_GROUP.matcher(title);
+        if (group.find()) {
+            String content = group.group(1);
+            boolean variant = content.contains(",");
+            for (String part : content.split(",")) {
+                String value = collapse(part);
+                Matcher size = STORAGE.matcher(value);
+                if (size.matches()) {
+                    storage = size.group(1) + " " + size.group(2).toUpperCase(Locale.ROOT);
+                    variant = true;
+                } else if (!value.isEmpty()) {
+                    colors.add(value);
+                }
+            }
+            if (variant) {
+                title = title.substring(0, group.start()).trim();
+            } else {
+                colors.clear();
+            }
+        }
+
+        Matcher tail = MARKETING_TAIL.matcher(title);
+        if (tail.find() && tail.start() > 0) {
+            title = title.substring(0, tail.start());
+        }
+
+        // Some titles repeat the color (and storage) before the group: "GT 30 5G+ Pulse Green 128"
+        for (String color : colors) {
+            int at = title.toLowerCase(Locale.ROOT).lastIndexOf(" " + color.toLowerCase(Locale.ROOT));
+            if (at > 0) {
+                title = title.substring(0, at);
+            }
+        }
+
+        String familyName = collapse(title);
+        if (familyName.isEmpty()) {
+            familyName = collapse(model != null ? model : "");
+        }
+        String color = colors.isEmpty() ? null : String.join(", ", colors);
+        return new Variant(familyKey(brand, familyName), familyName, color, storage);
+    }
+
+    /**
+     * Fill the family key, color and storage variant of a phone from its brand and model
+     */
+    public static void apply(Phone phone) {
+        Variant variant = normalize(phone.getBrand(), phone.getModel());
+        phone.setFamilyKey(variant.getFamilyKey());
+        phone.setColor(variant.getColor());
+        phone.setStorageVariant(variant.getStorage());
+    }
+
+    /**
+     * Stored family key, or one derived from the title for rows imported before normalization
+     */
+    public static String familyKeyOf(Phone phone) {
+        String stored = phone.getFamilyKey();
+        return stored != null ? stored : normalize(phone.getBrand(), phone.getModel()).getFamilyKey();
+    }
+
+    private static String familyKey(String brand, String familyName) {
+        String brandKey = collapse(brand != null ? brand : "").toLowerCase(Locale.ROOT);
+        String name = familyName.toLowerCase(Locale.ROOT);
+        // "Samsung Galaxy S25" and "Samsung S25" are the same phone
+        if (brandKey.equals("samsung") && name.startsWith("galaxy ")) {
+            name = name.substring("galaxy ".length());
+        }
+        return brandKey + "::" + name;
+    }
+
+    private static String collapse(String value) {
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ");
+    }
+
+    /**
+     * Model family plus the color / storage that distinguish one listing
+     */
+    public static final class Variant {
+        private final String familyKey;
+        private final String familyName;
+        private final String color;
+        private final String storage;
+
+        Variant(String familyKey, String familyName, String color, String storage) {
+            this.familyKey = familyKey;
+            this.familyName = familyName;
+            this.color = color;
+            this.storage = storage;
+        }
+
+        public String getFamilyKey() { return familyKey; }
+        public String getFamilyName() { return familyName; }
+        public String getColor() { return color; }
+        public String getStorage() { return storage; }
+    }
+}
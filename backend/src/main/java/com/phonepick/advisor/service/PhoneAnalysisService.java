@@ -4,10 +4,12 @@ import com.phonepick.advisor.model.Phone;
 import com.phonepick.advisor.repository.PhoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +25,7 @@ public class PhoneAnalysisService {
     private final FeatureSentimentAnalysisService sentimentAnalysisService;
     private final UnifiedScoringService unifiedScoringService;
     private final PhoneRepository phoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Analyze a phone by checking YouTube videos and running feature-based sentiment analysis
@@ -101,7 +104,9 @@ public class PhoneAnalysisService {
         
         // Step 5: Update phone with YouTube sentiment score
         phone.setYoutubeSentimentScore(avgSentimentScore);
+        unifiedScoringService.refreshStoredScores(phone);
         phoneRepository.save(phone);
+        eventPublisher.publishEvent(CatalogChangedEvent.of("phone-analysis", List.of(phoneId)));
         
         log.info("Analysis complete for {}. Average sentiment: {}, Channels: {}, Consensus: {}",
                 phoneModel, avgSentimentScore, channelOverallScores.size(), hasConsensus);
@@ -0,0 +1,424 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-optimized, in-memory copy of the phones table
+ * Phones are kept sorted by price so budget ranges resolve with a binary search
+ * instead of a database round trip. The snapshot is immutable and swapped
+ * atomically whenever a write path publishes a {@link CatalogChangedEvent}.
+ * Unified scores are materialized alongside the phones so the request path
+ * never re-parses spec strings. Every swap that changes phone data publishes a
+ * {@link CatalogRefreshedEvent} for derived structures.
+ *
+ * Listings are grouped by model family. Color variants of a family that share
+ * price and scores are interchangeable for ranking, so only the first of them
+ * (lowest id) enters the ranking arrays; lookups by id, price-range listings
+ * and counts still see every listing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhoneCatalog {
+
+    private static final Comparator<Phone> PRICE_ORDER =
+        Comparator.comparing(Phone::getPrice).thenComparing(Phone::getId);
+
+    private final PhoneRepository phoneRepository;
+    private final UnifiedScoringService unifiedScoringService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Current snapshot, loaded lazily on first use
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = buildSnapshot(phoneRepository.findAll(), 1);
+            }
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Phones with min <= price <= max, cheapest first (same bounds as SQL BETWEEN)
+     */
+    public List<Phone> findByPriceBetween(int min, int max) {
+        return snapshot().between(min, max);
+    }
+
+    /**
+     * Rebuild after a write. Runs after commit when published inside a transaction,
+     * immediately otherwise.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            if (event.isFullReload()) {
+                refresh();
+            } else {
+                refresh(event.getPhoneIds());
+            }
+        } catch (Exception e) {
+            // Keep serving the previous snapshot rather than failing the writer
+            log.error("Failed to refresh phone catalog after {}: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every phone from the database
+     */
+    public void refresh() {
+        Snapshot previous;
+        Snapshot current;
+        rebuildLock.lock();
+        try {
+            previous = snapshot;
+            long version = previous != null ? previous.getVersion() + 1 : 1;
+            current = buildSnapshot(phoneRepository.findAll(), version);
+            snapshot = current;
+            log.info("Phone catalog reloaded: {} phones, {} ranked after collapsing variants (version {})",
+                     current.listingCount(), current.size(), version);
+        } finally {
+            rebuildLock.unlock();
+        }
+        eventPublisher.publishEvent(new CatalogRefreshedEvent(previous, current, Set.of()));
+    }
+
+    /**
+     * Advance the catalog version without reloading phones
+     * Used when data derived from the catalog (e.g. insights) changed, so
+     * version-keyed caches drop their entries.
+     */
+    public void bumpVersion() {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.withVersion(current.getVersion() + 1);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Reload only the given phones and merge them into a new snapshot
+     * Ids that no longer exist in the database are dropped.
+     */
+    public void refresh(Collection<Long> phoneIds) {
+        Snapshot previous;
+        Snapshot current;
+        Set<Long> changed = Set.copyOf(phoneIds);
+        rebuildLock.lock();
+        try {
+            previous = snapshot;
+            if (previous == null) {
+                current = buildSnapshot(phoneRepository.findAll(), 1);
+                changed = Set.of();
+            } else {
+                List<Phone> merged = new ArrayList<>(previous.listingCount() + changed.size());
+                for (Phone phone : previous.listings) {
+                    if (!changed.contains(phone.getId())) {
+                        merged.add(phone);
+                    }
+                }
+                merged.addAll(phoneRepository.findAllById(changed));
+                current = buildSnapshot(merged, previous.getVersion() + 1);
+            }
+            snapshot = current;
+            log.debug("Phone catalog refreshed {} phones (version {})", changed.size(), current.getVersion());
+        } finally {
+            rebuildLock.unlock();
+        }
+        eventPublisher.publishEvent(new CatalogRefreshedEvent(previous, current, changed));
+    }
+
+    private Snapshot buildSnapshot(List<Phone> phones, long version) {
+        Phone[] sorted = phones.stream()
+            .filter(phone -> phone.getPrice() != null)
+            .sorted(PRICE_ORDER)
+            .toArray(Phone[]::new);
+
+        int[] listingPrices = new int[sorted.length];
+        int[] representatives = new int[sorted.length];
+        List<Phone> ranked = new ArrayList<>(sorted.length);
+        List<Integer> rankedUnified = new ArrayList<>(sorted.length);
+        List<String> rankedFamilies = new ArrayList<>(sorted.length);
+        Map<String, Integer> samePrice = new HashMap<>();
+        int stale = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            Phone phone = sorted[i];
+            listingPrices[i] = phone.getPrice();
+            int unifiedScore;
+            if (unifiedScoringService.needsRescore(phone)) {
+                // Row predates materialized scores - compute in memory only
+                unifiedScore = unifiedScoringService.calculateUnifiedScore(phone, null);
+                stale++;
+            } else {
+                unifiedScore = phone.getUnifiedScore();
+            }
+            
+            // Variants only collapse at equal price, so one price run is checked at a time
+            if (i > 0 && listingPrices[i] != listingPrices[i - 1]) {
+                samePrice.clear();
+            }
+            String familyKey = ModelFamilyNormalizer.familyKeyOf(phone);
+            Integer representative = samePrice.putIfAbsent(rankingKey(familyKey, phone, unifiedScore), ranked.size());
+            if (representative == null) {
+                representative = ranked.size();
+                ranked.add(phone);
+                rankedUnified.add(unifiedScore);
+                rankedFamilies.add(familyKey);
+            }
+            representatives[i] = representative;
+        }
+        
+        if (stale > 0) {
+            log.warn("{} phones have missing or stale stored scores - run /api/analysis/update-scores to persist them", stale);
+        }
+        
+        Phone[] rankedPhones = ranked.toArray(Phone[]::new);
+        int[] prices = new int[rankedPhones.length];
+        int[] unifiedScores = new int[rankedPhones.length];
+        for (int i = 0; i < rankedPhones.length; i++) {
+            prices[i] = rankedPhones[i].getPrice();
+            unifiedScores[i] = rankedUnified.get(i);
+        }
+        return new Snapshot(version, rankedPhones, prices, unifiedScores, rankedFamilies.toArray(String[]::new),
+                            sorted, listingPrices, representatives);
+    }
+
+    /**
+     * Listings with equal keys (and equal price) rank identically: same family, scores and unified score
+     */
+    private static String rankingKey(String familyKey, Phone phone, int unifiedScore) {
+        return familyKey + '|' + phone.getCameraScore() + '|' + phone.getBatteryScore() + '|' + phone.getSoftwareScore()
+            + '|' + phone.getPrivacyScore() + '|' + phone.getLooksScore() + '|' + unifiedScore;
+    }
+
+    /**
+     * Immutable, price-sorted view of the catalog
+     * Indexes (size, get, lowerBound, ...) address the ranking arrays, which hold
+     * one listing per group of interchangeable variants. between, countBetween,
+     * all, findById and the listing accessors cover every listing.
+     */
+    public static class Snapshot {
+        private final long version;
+        private final Phone[] phones;
+        private final int[] prices;
+        private final int[] unifiedScores;
+        private final String[] familyKeys;
+        private final FeatureMatrix features;
+        private final Phone[] listings;
+        private final int[] listingPrices;
+        private final Phone[] listingsInIdOrder;
+        private final Map<Long, Integer> listingById;
+        private final Map<Long, Integer> indexById;
+
+        /**
+         * Snapshot where every listing is ranked on its own
+         */
+        Snapshot(long version, Phone[] phones, int[] prices, int[] unifiedScores, String[] familyKeys) {
+            this(version, phones, prices, unifiedScores, familyKeys, phones, prices, identity(phones.length));
+        }
+
+        Snapshot(long version, Phone[] phones, int[] prices, int[] unifiedScores, String[] familyKeys,
+                 Phone[] listings, int[] listingPrices, int[] representatives) {
+            this(version, phones, prices, unifiedScores, familyKeys, FeatureMatrix.of(phones),
+                 listings, listingPrices, inIdOrder(listings),
+                 indexById(listings, identity(listings.length)), indexById(listings, representatives));
+        }
+
+        private Snapshot(long version, Phone[] phones, int[] prices, int[] unifiedScores, String[] familyKeys,
+                         FeatureMatrix features, Phone[] listings, int[] listingPrices, Phone[] listingsInIdOrder,
+                         Map<Long, Integer> listingById, Map<Long, Integer> indexById) {
+            this.version = version;
+            this.phones = phones;
+            this.prices = prices;
+            this.unifiedScores = unifiedScores;
+            this.familyKeys = familyKeys;
+            this.features = features;
+            this.listings = listings;
+            this.listingPrices = listingPrices;
+            this.listingsInIdOrder = listingsInIdOrder;
+            this.listingById = listingById;
+            this.indexById = indexById;
+        }
+
+        Snapshot withVersion(long newVersion) {
+            return new Snapshot(newVersion, phones, prices, unifiedScores, familyKeys, features,
+                                listings, listingPrices, listingsInIdOrder, listingById, indexById);
+        }
+
+        private static Map<Long, Integer> indexById(Phone[] listings, int[] indexes) {
+            Map<Long, Integer> index = new HashMap<>(listings.length * 2);
+            for (int i = 0; i < listings.length; i++) {
+                index.put(listings[i].getId(), indexes[i]);
+            }
+            return index;
+        }
+
+        private static Phone[] inIdOrder(Phone[] listings) {
+            Phone[] sorted = listings.clone();
+            Arrays.sort(sorted, Comparator.comparing(Phone::getId));
+            return sorted;
+        }
+
+        private static int[] identity(int length) {
+            int[] indexes = new int[length];
+            for (int i = 0; i < length; i++) {
+                indexes[i] = i;
+            }
+            return indexes;
+        }
+
+        /**
+         * True if both snapshots hold the same phone data (they may differ in version only)
+         */
+        public boolean sharesDataWith(Snapshot other) {
+            return other != null && other.phones == phones;
+        }
+
+        public long getVersion() { return version; }
+        public int size() { return phones.length; }
+        public int listingCount() { return listings.length; }
+        public Phone get(int index) { return phones[index]; }
+        public int priceAt(int index) { return prices[index]; }
+        public int unifiedScoreAt(int index) { return unifiedScores[index]; }
+        public String familyKeyAt(int index) { return familyKeys[index]; }
+        public FeatureMatrix features() { return features; }
+
+        /**
+         * Catalog index of the phone with this id (or of the variant ranked in its place), or -1
+         */
+        public int indexOf(Long phoneId) {
+            Integer index = indexById.get(phoneId);
+            return index != null ? index : -1;
+        }
+
+        /**
+         * Phone by id, or null if it is not in the catalog
+         */
+        public Phone findById(Long phoneId) {
+            Integer index = listingById.get(phoneId);
+            return index != null ? listings[index] : null;
+        }
+
+        /**
+         * First index with price >= min
+         */
+        public int lowerBound(int min) {
+            return lowerBound(prices, min);
+        }
+
+        private static int lowerBound(int[] prices, int min) {
+            int lo = 0;
+            int hi = prices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[mid] < min) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * First index with price > max
+         */
+        public int upperBound(int max) {
+            return upperBound(prices, max);
+        }
+
+        private static int upperBound(int[] prices, int max) {
+            int lo = 0;
+            int hi = prices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[mid] <= max) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Every listing with min <= price <= max, cheapest first
+         */
+        public List<Phone> between(int min, int max) {
+            int from = lowerBound(listingPrices, min);
+            int to = Math.max(from, upperBound(listingPrices, max));
+            return Collections.unmodifiableList(Arrays.asList(listings).subList(from, to));
+        }
+
+        public int countBetween(int min, int max) {
+            return Math.max(0, upperBound(listingPrices, max) - lowerBound(listingPrices, min));
+        }
+
+        public List<Phone> all() {
+            return Collections.unmodifiableList(Arrays.asList(listings));
+        }
+
+        /**
+         * Every listing ordered by id
+         */
+        public List<Phone> allById() {
+            return Collections.unmodifiableList(Arrays.asList(listingsInIdOrder));
+        }
+
+        /**
+         * Listing at a position in price order (cheapest first, ties by id)
+         */
+        public Phone listingAt(int position) {
+            return listings[position];
+        }
+
+        /**
+         * First listing position that sorts after (price, id) in price order
+         * Keyset pagination resumes here, so listings added or removed before
+         * the cursor do not shift the next page.
+         */
+        public int listingPositionAfter(int price, long id) {
+            int position = lowerBound(listingPrices, price);
+            while (position < listings.length && listingPrices[position] == price
+                   && listings[position].getId() <= id) {
+                position++;
+            }
+            return position;
+        }
+
+        /**
+         * First listing position with price >= min
+         */
+        public int listingLowerBound(int min) {
+            return lowerBound(listingPrices, min);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.PhoneInsight;
+import com.phonepick.advisor.repository.PhoneInsightRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process index of phone insights keyed by (phoneId, priority pattern)
+ * Phones missing from the index are loaded with a single batched query, and the
+ * "any insight for this phone" fallback is resolved once at load time. Loads run
+ * one at a time under their own lock, so concurrent misses for the same phones
+ * share one query while hits never wait on the database.
+ * Entries are evicted least-recently-used once the cached text exceeds a byte budget,
+ * since whyPicked / whyLoveIt / whatToKnow are unbounded TEXT columns.
+ */
+@Service
+@Slf4j
+public class PhoneInsightIndex {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    private final PhoneInsightRepository phoneInsightRepository;
+    private final PhoneCatalog phoneCatalog;
+    private final long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final LinkedHashMap<Long, PhoneEntry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+    // Bumped by invalidation; a load that started earlier returns its rows but does not cache them
+    private long generation;
+
+    public PhoneInsightIndex(PhoneInsightRepository phoneInsightRepository,
+                             PhoneCatalog phoneCatalog,
+                             @Value("${recommendation.insights.cache-max-bytes:8388608}") long maxBytes) {
+        this.phoneInsightRepository = phoneInsightRepository;
+        this.phoneCatalog = phoneCatalog;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Resolve the best insight for each phone: exact pattern match first, otherwise
+     * the phone's fallback insight. Phones with no insights at all are absent from the result.
+     */
+    public Map<Long, Match> resolve(Collection<Long> phoneIds, String priorityPattern) {
+        return match(entriesFor(phoneIds), phoneIds, priorityPattern);
+    }
+
+    /**
+     * Resolve insights for several priority patterns at once
+     * Phones missing from the index are loaded with one query across all patterns.
+     */
+    public Map<String, Map<Long, Match>> resolveAll(Map<String, ? extends Collection<Long>> phoneIdsByPattern) {
+        Set<Long> allIds = new HashSet<>();
+        phoneIdsByPattern.values().forEach(allIds::addAll);
+        Map<Long, PhoneEntry> found = entriesFor(allIds);
+
+        Map<String, Map<Long, Match>> result = new HashMap<>();
+        for (Map.Entry<String, ? extends Collection<Long>> entry : phoneIdsByPattern.entrySet()) {
+            result.put(entry.getKey(), match(found, entry.getValue(), entry.getKey()));
+        }
+        return result;
+    }
+
+    private Map<Long, PhoneEntry> entriesFor(Collection<Long> phoneIds) {
+        Map<Long, PhoneEntry> found = new HashMap<>();
+        Set<Long> missing = collectCached(phoneIds, found);
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        loadLock.lock();
+        try {
+            // Another request may have loaded some of these while this one waited
+            missing = collectCached(missing, found);
+            if (!missing.isEmpty()) {
+                found.putAll(load(missing));
+            }
+        } finally {
+            loadLock.unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Copy cached entries into found and return the ids that are not cached
+     */
+    private Set<Long> collectCached(Collection<Long> phoneIds, Map<Long, PhoneEntry> found) {
+        Set<Long> missing = new LinkedHashSet<>();
+        lock.lock();
+        try {
+            for (Long phoneId : phoneIds) {
+                PhoneEntry entry = entries.get(phoneId);
+                if (entry != null) {
+                    found.put(phoneId, entry);
+                } else {
+                    missing.add(phoneId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return missing;
+    }
+
+    private static Map<Long, Match> match(Map<Long, PhoneEntry> found, Collection<Long> phoneIds, String priorityPattern) {
+        Map<Long, Match> result = new HashMap<>();
+        for (Long phoneId : phoneIds) {
+            PhoneEntry entry = found.get(phoneId);
+            Match match = entry != null ? entry.match(priorityPattern) : null;
+            if (match != null) {
+                result.put(phoneId, match);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop all cached insights (e.g. after insight rows were edited)
+     * Also bumps the catalog version so cached recommendations are rebuilt.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            currentBytes = 0;
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+        phoneCatalog.bumpVersion();
+        log.info("Phone insight index cleared");
+    }
+
+    /**
+     * Drop cached insights for specific phones
+     */
+    public void invalidate(Collection<Long> phoneIds) {
+        lock.lock();
+        try {
+            for (Long phoneId : phoneIds) {
+                PhoneEntry removed = entries.remove(phoneId);
+                if (removed != null) {
+                    currentBytes -= removed.bytes;
+                }
+            }
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+        phoneCatalog.bumpVersion();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.lock();
+        try {
+            return currentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Load insights for the given phones with one query and add them to the index
+     * Called with loadLock held.
+     */
+    private Map<Long, PhoneEntry> load(Collection<Long> phoneIds) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Map<Long, List<PhoneInsight>> byPhone = new HashMap<>();
+        for (PhoneInsight insight : phoneInsightRepository.findByPhoneIdIn(phoneIds)) {
+            byPhone.computeIfAbsent(insight.getPhoneId(), id -> new ArrayList<>()).add(insight);
+        }
+
+        Map<Long, PhoneEntry> loaded = new HashMap<>();
+        for (Long phoneId : phoneIds) {
+            // Phones without insights are cached too, so they don't hit the DB on every request
+            loaded.put(phoneId, PhoneEntry.of(byPhone.getOrDefault(phoneId, List.of())));
+        }
+
+        lock.lock();
+        try {
+            if (generation != loadGeneration) {
+                log.debug("Insights invalidated during load; not caching {} phones", phoneIds.size());
+                return loaded;
+            }
+            for (Map.Entry<Long, PhoneEntry> entry : loaded.entrySet()) {
+                PhoneEntry previous = entries.put(entry.getKey(), entry.getValue());
+                if (previous != null) {
+                    currentBytes -= previous.bytes;
+                }
+                currentBytes += entry.getValue().bytes;
+            }
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+
+        log.debug("Loaded insights for {} phones ({} with insights)", phoneIds.size(), byPhone.size());
+        return loaded;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<PhoneEntry> iterator = entries.values().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            currentBytes -= iterator.next().bytes;
+            iterator.remove();
+        }
+    }
+
+    private static long sizeOf(String text) {
+        return text == null ? 0 : STRING_OVERHEAD_BYTES + 2L * text.length();
+    }
+
+    /**
+     * Resolved insight text for one phone
+     */
+    public static class Match {
+        private final String whyPicked;
+        private final String whyLoveIt;
+        private final String whatToKnow;
+        private final boolean exact;
+
+        Match(String whyPicked, String whyLoveIt, String whatToKnow, boolean exact) {
+            this.whyPicked = whyPicked;
+            this.whyLoveIt = whyLoveIt;
+            this.whatToKnow = whatToKnow;
+            this.exact = exact;
+        }
+
+        Match asFallback() {
+            return new Match(whyPicked, whyLoveIt, whatToKnow, false);
+        }
+
+        public String getWhyPicked() { return whyPicked; }
+        public String getWhyLoveIt() { return whyLoveIt; }
+        public String getWhatToKnow() { return whatToKnow; }
+        public boolean isExact() { return exact; }
+
+        long bytes() {
+            return sizeOf(whyPicked) + sizeOf(whyLoveIt) + sizeOf(whatToKnow);
+        }
+    }
+
+    /**
+     * All insights of one phone, keyed by priority pattern, with the fallback pre-resolved
+     */
+    private static class PhoneEntry {
+        private final Map<String, Match> byPattern;
+        private final Match fallback;
+        private final long bytes;
+
+        private PhoneEntry(Map<String, Match> byPattern, Match fallback, long bytes) {
+            this.byPattern = byPattern;
+            this.fallback = fallback;
+            this.bytes = bytes;
+        }
+
+        static PhoneEntry of(List<PhoneInsight> insights) {
+            // Lowest id first - same row findFirstByPhoneId returns
+            List<PhoneInsight> ordered = new ArrayList<>(insights);
+            ordered.sort(Comparator.comparing(PhoneInsight::getId));
+
+            Map<String, Match> byPattern = new HashMap<>();
+            long bytes = ENTRY_OVERHEAD_BYTES;
+            for (PhoneInsight insight : ordered) {
+                if (insight.getPriorityPattern() == null || byPattern.containsKey(insight.getPriorityPattern())) {
+                    continue;
+                }
+                Match match = new Match(insight.getWhyPicked(), insight.getWhyLoveIt(), insight.getWhatToKnow(), true);
+                byPattern.put(insight.getPriorityPattern(), match);
+                bytes += sizeOf(insight.getPriorityPattern()) + match.bytes();
+            }
+
+            Match fallback = null;
+            if (!ordered.isEmpty()) {
+                PhoneInsight first = ordered.get(0);
+                Match exact = byPattern.get(first.getPriorityPattern());
+                fallback = exact != null
+                    ? exact.asFallback()
+                    : new Match(first.getWhyPicked(), first.getWhyLoveIt(), first.getWhatToKnow(), false);
+                if (exact == null) {
+                    bytes += fallback.bytes();
+                }
+            }
+            return new PhoneEntry(byPattern, fallback, bytes);
+        }
+
+        Match match(String priorityPattern) {
+            Match exact = byPattern.get(priorityPattern);
+            return exact != null ? exact : fallback;
+        }
+    }
+}
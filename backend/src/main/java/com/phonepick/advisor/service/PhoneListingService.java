@@ -0,0 +1,372 @@
+package com.phonepick.advisor.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.phonepick.advisor.model.Phone;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams GET /api/phones straight from the catalog snapshot
+ * Phones are written one by one to the response, so no list copy or serialized
+ * catalog is ever held in memory. The ETag of the full listing is a content hash,
+ * computed once per catalog data change by serializing into a digest; pages derive
+ * their ETag from it and their query.
+ *
+ * Pages use keyset pagination in price order: the cursor is the (price, id) of the
+ * last phone returned, so phones added or removed before it never shift a page.
+ * Each phone is projected to the requested fields only.
+ *
+ * Listings are written as JSON, CBOR or Smile ({@link Encoding}); each encoding
+ * has its own ETag.
+ */
+@Service
+@Slf4j
+public class PhoneListingService {
+
+    // Fields returned by a page when none are requested
+    public static final List<String> DEFAULT_FIELDS =
+        List.of("id", "brand", "model", "price", "imageUrl", "unifiedScore");
+
+    // Projectable fields, named as the full Phone JSON names them
+    private static final Map<String, Function<Phone, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", Phone::getId);
+        FIELDS.put("brand", Phone::getBrand);
+        FIELDS.put("model", Phone::getModel);
+        FIELDS.put("price", Phone::getPrice);
+        FIELDS.put("memory_and_storage", Phone::getMemory_and_storage);
+        FIELDS.put("displayInfo", Phone::getDisplayInfo);
+        FIELDS.put("cameraInfo", Phone::getCameraInfo);
+        FIELDS.put("processor", Phone::getProcessor);
+        FIELDS.put("battery", Phone::getBattery);
+        FIELDS.put("imageUrl", Phone::getImageUrl);
+        FIELDS.put("cameraScore", Phone::getCameraScore);
+        FIELDS.put("batteryScore", Phone::getBatteryScore);
+        FIELDS.put("softwareScore", Phone::getSoftwareScore);
+        FIELDS.put("privacyScore", Phone::getPrivacyScore);
+        FIELDS.put("looksScore", Phone::getLooksScore);
+        FIELDS.put("affiliateAmazon", Phone::getAffiliateAmazon);
+        FIELDS.put("affiliateFlipkart", Phone::getAffiliateFlipkart);
+        FIELDS.put("youtubeSentimentScore", Phone::getYoutubeSentimentScore);
+        FIELDS.put("redditSentimentScore", Phone::getRedditSentimentScore);
+        FIELDS.put("specScore", Phone::getSpecScore);
+        FIELDS.put("unifiedScore", Phone::getUnifiedScore);
+        FIELDS.put("familyKey", Phone::getFamilyKey);
+        FIELDS.put("color", Phone::getColor);
+        FIELDS.put("storageVariant", Phone::getStorageVariant);
+    }
+
+    private final PhoneCatalog phoneCatalog;
+    private final ObjectMapper objectMapper;
+    private final Map<Encoding, ObjectMapper> mappers = new EnumMap<>(Encoding.class);
+    private final ObjectWriter phoneWriter;
+    private final int maxPageSize;
+    private volatile ListingEtag listingEtag;
+
+    public PhoneListingService(PhoneCatalog phoneCatalog, ObjectMapper objectMapper,
+                               @Value("${catalog.listing.max-page-size:200}") int maxPageSize) {
+        this.phoneCatalog = phoneCatalog;
+        this.objectMapper = objectMapper;
+        // One flush at the end instead of one per phone
+        this.phoneWriter = objectMapper.writerFor(Phone.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxPageSize = maxPageSize;
+        mappers.put(Encoding.JSON, objectMapper);
+        mappers.put(Encoding.CBOR, Encoding.CBOR.mapperFrom(objectMapper));
+        mappers.put(Encoding.SMILE, Encoding.SMILE.mapperFrom(objectMapper));
+    }
+
+    /**
+     * Every phone in id order as full entities (the unpaginated GET /api/phones)
+     */
+    public Listing all(Encoding encoding) {
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        String etag = encoding == Encoding.JSON ? etagOf(catalog)
+            : hash((etagOf(catalog) + '|' + encoding).getBytes(StandardCharsets.UTF_8));
+        return new Listing(etag, encoding, out -> writeAll(catalog, generator(out, encoding)));
+    }
+
+    /**
+     * One page of phones in price order, projected to the given fields
+     * @param limit page size, 1 to the configured maximum
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param fields field names, or null / empty for {@link #DEFAULT_FIELDS}
+     * @param minPrice inclusive lower price bound, or null
+     * @param maxPrice inclusive upper price bound, or null
+     * @param encoding wire format of the page
+     * @throws IllegalArgumentException for an invalid limit, cursor, field or price range
+     */
+    public Listing page(int limit, String cursor, List<String> fields, Integer minPrice, Integer maxPrice,
+                        Encoding encoding) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        int min = minPrice != null ? minPrice : 0;
+        int max = maxPrice != null ? maxPrice : Integer.MAX_VALUE;
+        if (min > max) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        List<String> projection = projection(fields);
+
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        int start = catalog.listingLowerBound(min);
+        if (cursor != null) {
+            long[] key = decodeCursor(cursor);
+            start = Math.max(start, catalog.listingPositionAfter((int) key[0], key[1]));
+        }
+        int from = start;
+        String query = String.join(",", projection) + '|' + limit + '|' + cursor + '|' + min + '|' + max + '|' + encoding;
+        String etag = hash((etagOf(catalog) + '|' + query).getBytes(StandardCharsets.UTF_8));
+        return new Listing(etag, encoding, out -> writePage(catalog, from, limit, max, projection, generator(out, encoding)));
+    }
+
+    /**
+     * {"error": message}, the body of a rejected listing request
+     */
+    public void writeError(String message, OutputStream out) throws IOException {
+        try (JsonGenerator generator = generator(out, Encoding.JSON)) {
+            generator.writeStartObject();
+            generator.writeStringField("error", message);
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeAll(PhoneCatalog.Snapshot catalog, JsonGenerator out) throws IOException {
+        try (JsonGenerator generator = out) {
+            generator.writeStartArray();
+            for (Phone phone : catalog.allById()) {
+                phoneWriter.writeValue(generator, phone);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writePage(PhoneCatalog.Snapshot catalog, int from, int limit, int max,
+                           List<String> projection, JsonGenerator out) throws IOException {
+        List<Function<Phone, Object>> accessors = new ArrayList<>(projection.size());
+        for (String field : projection) {
+            accessors.add(FIELDS.get(field));
+        }
+        try (JsonGenerator generator = out) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            int position = from;
+            Phone last = null;
+            for (int count = 0; count < limit && position < catalog.listingCount(); count++, position++) {
+                Phone phone = catalog.listingAt(position);
+                if (phone.getPrice() > max) {
+                    break;
+                }
+                generator.writeStartObject();
+                for (int f = 0; f < accessors.size(); f++) {
+                    generator.writeFieldName(projection.get(f));
+                    generator.writeObject(accessors.get(f).apply(phone));
+                }
+                generator.writeEndObject();
+                last = phone;
+            }
+            generator.writeEndArray();
+            boolean more = last != null && position < catalog.listingCount()
+                && catalog.listingAt(position).getPrice() <= max;
+            generator.writeStringField("nextCursor", more ? encodeCursor(last) : null);
+            generator.writeEndObject();
+        }
+    }
+
+    private JsonGenerator generator(OutputStream out, Encoding encoding) throws IOException {
+        // The servlet container closes the response stream
+        return mappers.get(encoding).getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static List<String> projection(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return DEFAULT_FIELDS;
+        }
+        LinkedHashSet<String> projection = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + " (allowed: " + FIELDS.keySet() + ")");
+            }
+            projection.add(name);
+        }
+        return List.copyOf(projection);
+    }
+
+    /**
+     * Content hash of the full listing, reused until the catalog's phone data changes
+     */
+    private String etagOf(PhoneCatalog.Snapshot catalog) {
+        ListingEtag current = listingEtag;
+        if (current != null && current.catalog.sharesDataWith(catalog)) {
+            return current.etag;
+        }
+        // Concurrent misses may hash twice; both results are identical
+        MessageDigest digest = sha256();
+        try (DigestOutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            writeAll(catalog, generator(out, Encoding.JSON));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize phone listing", e);
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        listingEtag = new ListingEtag(catalog, etag);
+        log.debug("Hashed phone listing for catalog version {}", catalog.getVersion());
+        return etag;
+    }
+
+    private static String hash(byte[] bytes) {
+        return "\"" + HexFormat.of().formatHex(sha256().digest(bytes), 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encodeCursor(Phone last) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("k" + last.getPrice() + ":" + last.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            if (!decoded.startsWith("k") || colon < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new long[] {Integer.parseInt(decoded.substring(1, colon)), Long.parseLong(decoded.substring(colon + 1))};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Wire formats of a listing
+     * CBOR and Smile carry the same fields as JSON in a binary form; Smile also
+     * back-references repeated field names and short repeated strings (brands, specs).
+     */
+    public enum Encoding {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR),
+        SMILE(new MediaType("application", "x-jackson-smile"));
+
+        private final MediaType mediaType;
+
+        Encoding(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() { return mediaType; }
+
+        /**
+         * Mapper for this encoding with the application mapper's configuration
+         */
+        public ObjectMapper mapperFrom(ObjectMapper json) {
+            return switch (this) {
+                case JSON -> json;
+                case CBOR -> json.copyWith(new CBORFactory());
+                case SMILE -> json.copyWith(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            };
+        }
+
+        /**
+         * The encoding an Accept header prefers; JSON unless CBOR or Smile is asked for by name
+         */
+        public static Encoding negotiate(String accept) {
+            if (accept == null || accept.isBlank()) {
+                return JSON;
+            }
+            List<MediaType> accepted;
+            try {
+                accepted = MediaType.parseMediaTypes(accept);
+            } catch (IllegalArgumentException e) {
+                return JSON;
+            }
+            Encoding best = JSON;
+            double bestQuality = -1;
+            for (MediaType type : accepted) {
+                // Wildcards and anything else fall back to JSON
+                Encoding encoding = JSON;
+                for (Encoding candidate : values()) {
+                    if (candidate.mediaType.equalsTypeAndSubtype(type)) {
+                        encoding = candidate;
+                    }
+                }
+                if (type.getQualityValue() > bestQuality) {
+                    best = encoding;
+                    bestQuality = type.getQualityValue();
+                }
+            }
+            return best;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A listing bound to one catalog snapshot: its ETag, encoding and a writer for its body
+     */
+    public static final class Listing {
+        private final String etag;
+        private final Encoding encoding;
+        private final BodyWriter body;
+
+        Listing(String etag, Encoding encoding, BodyWriter body) {
+            this.etag = etag;
+            this.encoding = encoding;
+            this.body = body;
+        }
+
+        public String getEtag() { return etag; }
+        public Encoding getEncoding() { return encoding; }
+
+        public void writeTo(OutputStream out) throws IOException {
+            body.writeTo(out);
+        }
+    }
+
+    private static final class ListingEtag {
+        private final PhoneCatalog.Snapshot catalog;
+        private final String etag;
+
+        ListingEtag(PhoneCatalog.Snapshot catalog, String etag) {
+            this.catalog = catalog;
+            this.etag = etag;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.phonepick.advisor.model.Phone;
 import com.phonepick.advisor.repository.PhoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +21,8 @@ public class PhoneScoreUpdateService {
     
     private final PhoneRepository phoneRepository;
     private final PhoneSpecScoringService specScoringService;
+    private final UnifiedScoringService unifiedScoringService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Update all phones with new spec-based scores
@@ -49,6 +52,7 @@ public class PhoneScoreUpdateService {
         }
         
         log.info("Phone score update complete. Updated: {}, Failed: {}", updated, failed);
+        eventPublisher.publishEvent(CatalogChangedEvent.all("score-update"));
         return new UpdateResult(updated, failed);
     }
     
@@ -59,21 +63,24 @@ public class PhoneScoreUpdateService {
     public Phone updatePhoneScores(Phone phone) {
         log.debug("Updating scores for: {} {}", phone.getBrand(), phone.getModel());
         
+        // Spec strings are tokenized once for all the scorers
+        SpecProfile specs = SpecProfile.of(phone);
+        
         // Camera score
-        int cameraScore = specScoringService.scoreCameraSpec(phone.getCameraInfo());
+        int cameraScore = specScoringService.scoreCameraSpec(specs);
         phone.setCameraScore(cameraScore);
         
         // Battery score
-        int batteryScore = specScoringService.scoreBatterySpec(phone.getBattery());
+        int batteryScore = specScoringService.scoreBatterySpec(specs);
         phone.setBatteryScore(batteryScore);
         
         // Software/Performance score
-        int perfScore = specScoringService.scoreProcessor(phone.getProcessor());
+        int perfScore = specScoringService.scoreProcessor(specs);
         phone.setSoftwareScore(perfScore);
         
         // Looks/Design score (based on display quality and build)
-        int displayScore = specScoringService.scoreDisplay(phone.getDisplayInfo());
-        int storageScore = specScoringService.scoreStorageAndRam(phone.getMemory_and_storage());
+        int displayScore = specScoringService.scoreDisplay(specs);
+        int storageScore = specScoringService.scoreStorageAndRam(specs);
         
         // Looks is average of display and general build quality indicators
         int looksScore = (displayScore + getBuildQualityScore(phone)) / 2;
@@ -84,6 +91,12 @@ public class PhoneScoreUpdateService {
             phone.setPrivacyScore(getPrivacyScore(phone.getBrand()));
         }
         
+        // Backfill family / variant columns for rows imported before normalization
+        ModelFamilyNormalizer.apply(phone);
+        
+        // Materialized spec/unified scores (no-op when inputs are unchanged)
+        unifiedScoringService.refreshStoredScores(phone);
+        
         log.debug("Updated scores - Camera: {}, Battery: {}, Perf: {}, Looks: {}, Privacy: {}",
                  cameraScore, batteryScore, perfScore, looksScore, phone.getPrivacyScore());
         
@@ -149,7 +162,9 @@ public class PhoneScoreUpdateService {
         Phone phone = phoneRepository.findById(phoneId)
             .orElseThrow(() -> new IllegalArgumentException("Phone not found: " + phoneId));
         
-        return updatePhoneScores(phone);
+        Phone updated = updatePhoneScores(phone);
+        eventPublisher.publishEvent(CatalogChangedEvent.of("score-update", List.of(phoneId)));
+        return updated;
     }
     
     /**
@@ -175,6 +190,8 @@ public class PhoneScoreUpdateService {
         }
         
         log.info("Price range update complete. Updated: {}, Failed: {}", updated, failed);
+        eventPublisher.publishEvent(CatalogChangedEvent.of("score-update",
+            phones.stream().map(Phone::getId).toList()));
         return new UpdateResult(updated, failed);
     }
     
@@ -0,0 +1,472 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inverted index over brand, model and spec tokens for phone search
+ * Every listing is tokenized once ("Dimensity 6300 5G Processor", "8 GB RAM" ->
+ * dimensity, 6300, 5g, 8, gb, 8gb, ram) and each term keeps an id-sorted postings
+ * list with the fields it occurred in. A query matches phones holding all of its
+ * terms; the last term also matches as a prefix, so partially typed words
+ * autocomplete. Query cost follows the postings of the query terms, not the
+ * catalog size.
+ *
+ * Postings depend only on the phone itself, so a partial catalog refresh rewrites
+ * just the postings of terms the changed phones had or now have.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PhoneSearchIndex {
+
+    // Field bits in a posting, and the relevance of a match in each
+    static final int BRAND = 1;
+    static final int MODEL = 2;
+    static final int PROCESSOR = 4;
+    static final int SPECS = 8;
+    private static final int MAX_WEIGHT = 4;
+    private static final int SCORE_SCALE = 128;
+
+    // Units glued to the number before them, so "8 GB" is also searchable as "8gb"
+    private static final Set<String> UNITS = Set.of("gb", "tb", "mb", "mah", "hz", "mp", "w", "inch", "cm");
+    private static final Set<String> STOP_WORDS = Set.of("and", "the", "in", "of", "with", "for", "upto", "up", "to");
+
+    private final PhoneCatalog phoneCatalog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Index index;
+
+    /**
+     * Phones matching every query term, most relevant first, one per model family
+     * matchScore carries the relevance (100 = every term matched exactly in the brand).
+     */
+    public List<PhoneRecommendation> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        List<Hit> hits = match(terms, limit);
+        int best = terms.size() * MAX_WEIGHT * 2;
+        List<PhoneRecommendation> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            results.add(PhoneRecommendation.fromPhone(hit.phone, hit.relevance * 100 / best));
+        }
+        return results;
+    }
+
+    /**
+     * Best match for a phone named in free text (e.g. the model a Reddit search was run for)
+     * @return null if no phone holds every term
+     */
+    public Phone findBest(String text) {
+        List<Hit> hits = match(tokenize(text), 1);
+        return hits.isEmpty() ? null : hits.get(0).phone;
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        lock.lock();
+        try {
+            index = apply(index, event);
+        } catch (Exception e) {
+            // Dropped here, rebuilt from the current catalog on the next query
+            index = null;
+            log.error("Failed to update search index after {}: {}", event, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Hit> match(List<String> terms, int limit) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Index current = current();
+        // Matching postings per query term; the last term is a prefix
+        List<TermMatch> matches = new ArrayList<>(terms.size());
+        for (int t = 0; t < terms.size(); t++) {
+            TermMatch match = current.lookup(terms.get(t), t == terms.size() - 1);
+            if (match.size == 0) {
+                return List.of();
+            }
+            matches.add(match);
+        }
+        // Smallest postings first, so later terms only filter a short candidate list
+        matches.sort(Comparator.comparingInt(match -> match.size));
+        Map<Long, Integer> scores = matches.get(0).scoreAll();
+        for (int t = 1; t < matches.size() && !scores.isEmpty(); t++) {
+            scores = matches.get(t).filter(scores);
+        }
+
+        long[] ids = new long[scores.size()];
+        int n = 0;
+        for (Long id : scores.keySet()) {
+            ids[n++] = id;
+        }
+        // Id order makes ties deterministic: the earlier arrival wins
+        Arrays.sort(ids);
+        PhoneCatalog.Snapshot catalog = current.catalog;
+        Phone[] candidates = new Phone[ids.length];
+        TopKSelector top = new TopKSelector(limit);
+        for (int i = 0; i < ids.length; i++) {
+            Phone phone = catalog.findById(ids[i]);
+            int index = catalog.indexOf(ids[i]);
+            if (phone == null || index < 0) {
+                continue;
+            }
+            candidates[i] = phone;
+            // Relevance first, the unified score (0..100) breaks ties
+            top.offer(catalog.familyKeyAt(index), scores.get(ids[i]) * SCORE_SCALE + catalog.unifiedScoreAt(index), i);
+        }
+        top.finish();
+        List<Hit> hits = new ArrayList<>(top.size());
+        for (int rank = 0; rank < top.size(); rank++) {
+            hits.add(new Hit(candidates[top.itemAt(rank)], top.scoreAt(rank) / SCORE_SCALE));
+        }
+        return hits;
+    }
+
+    private Index current() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (index == null) {
+                index = build(phoneCatalog.snapshot());
+            }
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Index for the refreshed catalog, rewriting only the postings the changed phones touch
+     */
+    static Index apply(Index previous, CatalogRefreshedEvent event) {
+        if (event.isFullReload() || previous == null || !previous.catalog.sharesDataWith(event.getPrevious())) {
+            return build(event.getCurrent());
+        }
+        PhoneCatalog.Snapshot before = event.getPrevious();
+        PhoneCatalog.Snapshot after = event.getCurrent();
+        Map<String, Set<Long>> removed = new HashMap<>();
+        Map<String, TreeMap<Long, Integer>> added = new HashMap<>();
+        for (Long id : event.getChangedIds()) {
+            Phone old = before.findById(id);
+            Phone phone = after.findById(id);
+            if (old == phone) {
+                continue;
+            }
+            if (old != null) {
+                for (String term : fieldsByTerm(old).keySet()) {
+                    removed.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+                }
+            }
+            if (phone != null) {
+                for (Map.Entry<String, Integer> entry : fieldsByTerm(phone).entrySet()) {
+                    added.computeIfAbsent(entry.getKey(), key -> new TreeMap<>()).put(id, entry.getValue());
+                }
+            }
+        }
+        Set<String> touched = new HashSet<>(removed.keySet());
+        touched.addAll(added.keySet());
+        TreeMap<String, Postings> terms = new TreeMap<>(previous.terms);
+        for (String term : touched) {
+            Postings postings = Postings.merge(terms.get(term), removed.getOrDefault(term, Set.of()),
+                                               added.getOrDefault(term, new TreeMap<>()));
+            if (postings.ids.length == 0) {
+                terms.remove(term);
+            } else {
+                terms.put(term, postings);
+            }
+        }
+        log.debug("Search index updated for catalog version {}: {} terms rewritten", after.getVersion(), touched.size());
+        return new Index(after, terms);
+    }
+
+    static Index build(PhoneCatalog.Snapshot catalog) {
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        // Id order keeps every postings list sorted as it is appended to
+        for (Phone phone : catalog.allById()) {
+            for (Map.Entry<String, Integer> entry : fieldsByTerm(phone).entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), key -> new PostingsBuilder()).add(phone.getId(), entry.getValue());
+            }
+        }
+        TreeMap<String, Postings> terms = new TreeMap<>();
+        builders.forEach((term, builder) -> terms.put(term, builder.build()));
+        log.debug("Search index built for catalog version {}: {} phones, {} terms",
+                  catalog.getVersion(), catalog.listingCount(), terms.size());
+        return new Index(catalog, terms);
+    }
+
+    /**
+     * Every term of a phone with the fields it occurs in
+     */
+    static Map<String, Integer> fieldsByTerm(Phone phone) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        addTerms(fields, phone.getBrand(), BRAND);
+        addTerms(fields, phone.getModel(), MODEL);
+        addTerms(fields, phone.getProcessor(), PROCESSOR);
+        addTerms(fields, phone.getMemory_and_storage(), SPECS);
+        addTerms(fields, phone.getDisplayInfo(), SPECS);
+        addTerms(fields, phone.getBattery(), SPECS);
+        return fields;
+    }
+
+    private static void addTerms(Map<String, Integer> fields, String text, int field) {
+        for (String term : tokenize(text)) {
+            fields.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Lower-cased alphanumeric words, "6.74" kept whole, with number+unit pairs both
+     * glued and apart ("6000 mAh" and "6000mAh" -> 6000, mah, 6000mah); duplicates and
+     * stop words dropped
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+        String previous = null;
+        int i = 0;
+        while (i < lower.length()) {
+            if (!Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < lower.length() && (Character.isLetterOrDigit(lower.charAt(i))
+                   || (lower.charAt(i) == '.' && i + 1 < lower.length() && Character.isDigit(lower.charAt(i + 1))
+                       && Character.isDigit(lower.charAt(i - 1))))) {
+                i++;
+            }
+            String word = lower.substring(start, i);
+            if (!STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+            if (previous != null && UNITS.contains(word) && isNumber(previous)) {
+                terms.add(previous + word);
+            }
+            // "6000mAh" and "50MP" also as number and unit
+            int unit = unitStart(word);
+            if (unit > 0) {
+                terms.add(word.substring(0, unit));
+                terms.add(word.substring(unit));
+            }
+            previous = word;
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Where a glued unit starts in "6000mah", or -1 if the word is not number+unit
+     */
+    private static int unitStart(String word) {
+        int i = 0;
+        while (i < word.length() && (Character.isDigit(word.charAt(i)) || word.charAt(i) == '.')) {
+            i++;
+        }
+        return i > 0 && i < word.length() && UNITS.contains(word.substring(i)) ? i : -1;
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!Character.isDigit(c) && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int weightOf(int fields) {
+        if ((fields & BRAND) != 0) return MAX_WEIGHT;
+        if ((fields & MODEL) != 0) return 3;
+        if ((fields & PROCESSOR) != 0) return 2;
+        return 1;
+    }
+
+    private static final class Hit {
+        private final Phone phone;
+        private final int relevance;
+
+        Hit(Phone phone, int relevance) {
+            this.phone = phone;
+            this.relevance = relevance;
+        }
+    }
+
+    static final class Index {
+        private final PhoneCatalog.Snapshot catalog;
+        private final NavigableMap<String, Postings> terms;
+
+        Index(PhoneCatalog.Snapshot catalog, NavigableMap<String, Postings> terms) {
+            this.catalog = catalog;
+            this.terms = terms;
+        }
+
+        int termCount() { return terms.size(); }
+
+        TermMatch lookup(String term, boolean prefix) {
+            if (!prefix) {
+                Postings exact = terms.get(term);
+                return exact != null ? new TermMatch(term, List.of(Map.entry(term, exact))) : new TermMatch(term, List.of());
+            }
+            return new TermMatch(term, new ArrayList<>(terms.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()));
+        }
+    }
+
+    /**
+     * Postings of every index term one query term matches
+     * An exact match scores twice the field weight, a prefix match the weight.
+     */
+    static final class TermMatch {
+        private final String term;
+        private final List<Map.Entry<String, Postings>> postings;
+        private final int size;
+
+        TermMatch(String term, List<Map.Entry<String, Postings>> postings) {
+            this.term = term;
+            this.postings = postings;
+            int total = 0;
+            for (Map.Entry<String, Postings> entry : postings) {
+                total += entry.getValue().ids.length;
+            }
+            this.size = total;
+        }
+
+        private int multiplier(String indexTerm) {
+            return indexTerm.equals(term) ? 2 : 1;
+        }
+
+        Map<Long, Integer> scoreAll() {
+            Map<Long, Integer> scores = new HashMap<>(size * 2);
+            for (Map.Entry<String, Postings> entry : postings) {
+                int multiplier = multiplier(entry.getKey());
+                Postings list = entry.getValue();
+                for (int i = 0; i < list.ids.length; i++) {
+                    scores.merge(list.ids[i], weightOf(list.fields[i]) * multiplier, Math::max);
+                }
+            }
+            return scores;
+        }
+
+        /**
+         * Candidates that also hold this term, with its score added
+         * Probes each candidate with binary searches when that is cheaper than
+         * walking every matching postings list.
+         */
+        Map<Long, Integer> filter(Map<Long, Integer> candidates) {
+            Map<Long, Integer> best;
+            if ((long) candidates.size() * postings.size() < size) {
+                best = new HashMap<>(candidates.size() * 2);
+                for (Long id : candidates.keySet()) {
+                    for (Map.Entry<String, Postings> entry : postings) {
+                        Postings list = entry.getValue();
+                        int at = Arrays.binarySearch(list.ids, id);
+                        if (at >= 0) {
+                            best.merge(id, weightOf(list.fields[at]) * multiplier(entry.getKey()), Math::max);
+                        }
+                    }
+                }
+            } else {
+                best = new HashMap<>(Math.min(size, candidates.size()) * 2);
+                for (Map.Entry<String, Postings> entry : postings) {
+                    int multiplier = multiplier(entry.getKey());
+                    Postings list = entry.getValue();
+                    for (int i = 0; i < list.ids.length; i++) {
+                        if (candidates.containsKey(list.ids[i])) {
+                            best.merge(list.ids[i], weightOf(list.fields[i]) * multiplier, Math::max);
+                        }
+                    }
+                }
+            }
+            Map<Long, Integer> scores = new HashMap<>(best.size() * 2);
+            best.forEach((id, score) -> scores.put(id, candidates.get(id) + score));
+            return scores;
+        }
+    }
+
+    /**
+     * Ids (ascending) of the phones holding one term, with the fields it occurs in
+     */
+    static final class Postings {
+        private final long[] ids;
+        private final byte[] fields;
+
+        Postings(long[] ids, byte[] fields) {
+            this.ids = ids;
+            this.fields = fields;
+        }
+
+        /**
+         * Copy of the postings without the removed ids, with the added ones merged in
+         */
+        static Postings merge(Postings previous, Set<Long> removed, TreeMap<Long, Integer> added) {
+            long[] oldIds = previous != null ? previous.ids : new long[0];
+            byte[] oldFields = previous != null ? previous.fields : new byte[0];
+            PostingsBuilder builder = new PostingsBuilder();
+            int i = 0;
+            for (Map.Entry<Long, Integer> entry : added.entrySet()) {
+                long id = entry.getKey();
+                for (; i < oldIds.length && oldIds[i] < id; i++) {
+                    if (!removed.contains(oldIds[i])) {
+                        builder.add(oldIds[i], oldFields[i]);
+                    }
+                }
+                if (i < oldIds.length && oldIds[i] == id) {
+                    i++;
+                }
+                builder.add(id, entry.getValue());
+            }
+            for (; i < oldIds.length; i++) {
+                if (!removed.contains(oldIds[i])) {
+                    builder.add(oldIds[i], oldFields[i]);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    private static final class PostingsBuilder {
+        private long[] ids = new long[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(long id, int field) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ids[size] = id;
+            fields[size++] = (byte) field;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(ids, size), Arrays.copyOf(fields, size));
+        }
+    }
+}
@@ -3,12 +3,11 @@ package com.phonepick.advisor.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Enhanced phone specification scoring service
  * Provides granular, feature-based scoring for phone specifications
+ * Scorers read a {@link SpecProfile}; parse it once per phone and pass it to each.
+ * The String overloads parse a profile of just that field.
  */
 @Service
 @Slf4j
@@ -19,22 +18,18 @@ public class PhoneSpecScoringService {
      * Considers: MP count, number of cameras, special features
      */
     public int scoreCameraSpec(String cameraInfo) {
-        if (cameraInfo == null || cameraInfo.isEmpty()) {
+        return scoreCameraSpec(SpecProfile.of(cameraInfo, null, null, null, null));
+    }
+    
+    public int scoreCameraSpec(SpecProfile specs) {
+        if (!specs.hasCameraInfo()) {
             return 50;
         }
         
         int score = 40; // Base score
-        String lower = cameraInfo.toLowerCase();
         
-        // Extract main camera MP
-        Pattern mpPattern = Pattern.compile("(\\d+)\\s*mp");
-        Matcher matcher = mpPattern.matcher(lower);
-        
-        int maxMp = 0;
-        while (matcher.find()) {
-            int mp = Integer.parseInt(matcher.group(1));
-            maxMp = Math.max(maxMp, mp);
-        }
+        // Main camera MP
+        int maxMp = specs.getMaxCameraMp();
         
         // Score based on MP (diminishing returns after 108MP)
         if (maxMp >= 200) score += 30;
@@ -46,17 +41,17 @@ public class PhoneSpecScoringService {
         else if (maxMp >= 16) score += 5;
         
         // Bonus for multiple cameras
-        long cameraCount = lower.split("\\+").length;
+        int cameraCount = specs.getCameraCount();
         if (cameraCount >= 4) score += 10;
         else if (cameraCount >= 3) score += 7;
         else if (cameraCount >= 2) score += 4;
         
         // Bonus for special features
-        if (lower.contains("ois") || lower.contains("optical stabilization")) score += 5;
-        if (lower.contains("telephoto") || lower.contains("periscope")) score += 5;
-        if (lower.contains("ultra wide") || lower.contains("ultrawide")) score += 3;
-        if (lower.contains("macro")) score += 2;
-        if (lower.contains("night mode") || lower.contains("night sight")) score += 3;
+        if (specs.hasOpticalStabilization()) score += 5;
+        if (specs.hasTelephoto()) score += 5;
+        if (specs.hasUltraWide()) score += 3;
+        if (specs.hasMacro()) score += 2;
+        if (specs.hasNightMode()) score += 3;
         
         return Math.min(100, score);
     }
@@ -66,20 +61,19 @@ public class PhoneSpecScoringService {
      * Also considers fast charging
      */
     public int scoreBatterySpec(String batteryInfo) {
-        if (batteryInfo == null || batteryInfo.isEmpty()) {
+        return scoreBatterySpec(SpecProfile.of(null, batteryInfo, null, null, null));
+    }
+    
+    public int scoreBatterySpec(SpecProfile specs) {
+        if (!specs.hasBatteryInfo()) {
             return 50;
         }
         
         int score = 30; // Base score
-        String lower = batteryInfo.toLowerCase();
-        
-        // Extract battery capacity
-        Pattern capacityPattern = Pattern.compile("(\\d+)\\s*mah");
-        Matcher matcher = capacityPattern.matcher(lower);
         
-        if (matcher.find()) {
-            int capacity = Integer.parseInt(matcher.group(1));
-            
+        // Battery capacity
+        int capacity = specs.getBatteryMah();
+        if (capacity > 0) {
             // Granular scoring in 250mAh increments
             if (capacity >= 6000) score += 40;
             else if (capacity >= 5750) score += 38;
@@ -96,12 +90,8 @@ public class PhoneSpecScoringService {
         }
         
         // Fast charging bonus
-        Pattern chargingPattern = Pattern.compile("(\\d+)\\s*w");
-        Matcher chargingMatcher = chargingPattern.matcher(lower);
-        
-        if (chargingMatcher.find()) {
-            int wattage = Integer.parseInt(chargingMatcher.group(1));
-            
+        int wattage = specs.getChargingWatts();
+        if (wattage > 0) {
             if (wattage >= 120) score += 15;
             else if (wattage >= 80) score += 12;
             else if (wattage >= 65) score += 10;
@@ -111,8 +101,8 @@ public class PhoneSpecScoringService {
         }
         
         // Wireless charging bonus
-        if (lower.contains("wireless")) score += 5;
-        if (lower.contains("reverse charging")) score += 3;
+        if (specs.hasWirelessCharging()) score += 5;
+        if (specs.hasReverseCharging()) score += 3;
         
         return Math.min(100, score);
     }
@@ -122,20 +112,19 @@ public class PhoneSpecScoringService {
      * CRITICAL: Non-expandable storage below 128GB gets minimum score
      */
     public int scoreStorageAndRam(String memoryInfo) {
-        if (memoryInfo == null || memoryInfo.isEmpty()) {
+        return scoreStorageAndRam(SpecProfile.of(null, null, memoryInfo, null, null));
+    }
+    
+    public int scoreStorageAndRam(SpecProfile specs) {
+        if (!specs.hasMemoryInfo()) {
             return 50;
         }
         
         int score = 30; // Base score
-        String lower = memoryInfo.toLowerCase();
-        
-        // Extract RAM
-        Pattern ramPattern = Pattern.compile("(\\d+)\\s*gb\\s*ram");
-        Matcher ramMatcher = ramPattern.matcher(lower);
         
-        if (ramMatcher.find()) {
-            int ram = Integer.parseInt(ramMatcher.group(1));
-            
+        // RAM
+        int ram = specs.getRamGb();
+        if (ram > 0) {
             if (ram >= 16) score += 20;
             else if (ram >= 12) score += 17;
             else if (ram >= 8) score += 14;
@@ -144,20 +133,11 @@ public class PhoneSpecScoringService {
             else if (ram >= 3) score += 3;
         }
         
-        // Extract storage
-        Pattern storagePattern = Pattern.compile("(\\d+)\\s*gb(?!\\s*ram)");
-        Matcher storageMatcher = storagePattern.matcher(lower);
+        // Storage
+        int maxStorage = specs.getStorageGb();
         
-        int maxStorage = 0;
-        while (storageMatcher.find()) {
-            int storage = Integer.parseInt(storageMatcher.group(1));
-            maxStorage = Math.max(maxStorage, storage);
-        }
-        
-        // Check expandability
-        boolean expandable = lower.contains("expandable") || 
-                           lower.contains("card slot") || 
-                           lower.contains("microsd");
+        // Expandability
+        boolean expandable = specs.isExpandableStorage();
         
         // CRITICAL RULE: Non-expandable < 128GB gets minimum score
         if (!expandable && maxStorage < 128) {
@@ -183,9 +163,10 @@ public class PhoneSpecScoringService {
         if (expandable) score += 5;
         
         // UFS version bonus (faster storage)
-        if (lower.contains("ufs 4.0")) score += 8;
-        else if (lower.contains("ufs 3.1")) score += 6;
-        else if (lower.contains("ufs 3.0")) score += 4;
+        int ufs = specs.getUfsVersion();
+        if (ufs == 40) score += 8;
+        else if (ufs == 31) score += 6;
+        else if (ufs == 30) score += 4;
         
         return Math.min(100, score);
     }
@@ -194,59 +175,42 @@ public class PhoneSpecScoringService {
      * Score processor/performance
      */
     public int scoreProcessor(String processorInfo) {
-        if (processorInfo == null || processorInfo.isEmpty()) {
+        return scoreProcessor(SpecProfile.of(null, null, null, processorInfo, null));
+    }
+    
+    public int scoreProcessor(SpecProfile specs) {
+        if (!specs.hasProcessorInfo()) {
             return 50;
         }
         
         int score = 40; // Base score
-        String lower = processorInfo.toLowerCase();
         
-        // Flagship processors
-        if (lower.contains("snapdragon 8 gen 3") || lower.contains("sd 8 gen 3")) {
-            score += 30;
-        } else if (lower.contains("snapdragon 8 gen 2") || lower.contains("sd 8 gen 2")) {
-            score += 28;
-        } else if (lower.contains("snapdragon 8+ gen 1") || lower.contains("sd 8+ gen 1")) {
-            score += 26;
-        } else if (lower.contains("snapdragon 8 gen 1") || lower.contains("sd 8 gen 1")) {
-            score += 24;
-        } else if (lower.contains("snapdragon 888")) {
-            score += 22;
-        } else if (lower.contains("dimensity 9200") || lower.contains("dimensity 9300")) {
-            score += 28;
-        } else if (lower.contains("dimensity 9000")) {
-            score += 26;
-        } else if (lower.contains("exynos 2400")) {
-            score += 25;
-        } else if (lower.contains("exynos 2200")) {
-            score += 23;
-        }
-        // Mid-range processors
-        else if (lower.contains("snapdragon 7+ gen 3") || lower.contains("snapdragon 7s gen 3")) {
-            score += 20;
-        } else if (lower.contains("snapdragon 7+ gen 2") || lower.contains("snapdragon 7s gen 2")) {
-            score += 18;
-        } else if (lower.contains("snapdragon 778") || lower.contains("snapdragon 780")) {
-            score += 16;
-        } else if (lower.contains("dimensity 8200") || lower.contains("dimensity 8300")) {
-            score += 18;
-        } else if (lower.contains("dimensity 7200")) {
-            score += 15;
-        }
-        // Budget processors
-        else if (lower.contains("snapdragon 6") || lower.contains("snapdragon 4")) {
-            score += 10;
-        } else if (lower.contains("dimensity 6")) {
-            score += 10;
-        } else if (lower.contains("helio g")) {
-            score += 8;
-        }
+        score += switch (specs.getChipset()) {
+            // Flagship processors
+            case SNAPDRAGON_8_GEN_3 -> 30;
+            case SNAPDRAGON_8_GEN_2, DIMENSITY_9200 -> 28;
+            case SNAPDRAGON_8_PLUS_GEN_1, DIMENSITY_9000 -> 26;
+            case EXYNOS_2400 -> 25;
+            case SNAPDRAGON_8_GEN_1 -> 24;
+            case EXYNOS_2200 -> 23;
+            case SNAPDRAGON_888 -> 22;
+            // Mid-range processors
+            case SNAPDRAGON_7_GEN_3 -> 20;
+            case SNAPDRAGON_7_GEN_2, DIMENSITY_8200 -> 18;
+            case SNAPDRAGON_778 -> 16;
+            case DIMENSITY_7200 -> 15;
+            // Budget processors
+            case SNAPDRAGON_6_OR_4, DIMENSITY_6 -> 10;
+            case HELIO_G -> 8;
+            case UNKNOWN -> 0;
+        };
         
         // Process node bonus
-        if (lower.contains("3nm") || lower.contains("3 nm")) score += 10;
-        else if (lower.contains("4nm") || lower.contains("4 nm")) score += 8;
-        else if (lower.contains("5nm") || lower.contains("5 nm")) score += 6;
-        else if (lower.contains("6nm") || lower.contains("6 nm")) score += 4;
+        int node = specs.getProcessNodeNm();
+        if (node == 3) score += 10;
+        else if (node == 4) score += 8;
+        else if (node == 5) score += 6;
+        else if (node == 6) score += 4;
         
         return Math.min(100, score);
     }
@@ -255,50 +219,52 @@ public class PhoneSpecScoringService {
      * Score display specifications
      */
     public int scoreDisplay(String displayInfo) {
-        if (displayInfo == null || displayInfo.isEmpty()) {
+        return scoreDisplay(SpecProfile.of(null, null, null, null, displayInfo));
+    }
+    
+    public int scoreDisplay(SpecProfile specs) {
+        if (!specs.hasDisplayInfo()) {
             return 50;
         }
         
         int score = 35; // Base score
-        String lower = displayInfo.toLowerCase();
         
         // Panel type
-        if (lower.contains("amoled") || lower.contains("oled") || lower.contains("super amoled")) {
+        SpecProfile.Panel panel = specs.getPanel();
+        if (panel == SpecProfile.Panel.AMOLED || panel == SpecProfile.Panel.OLED) {
             score += 15;
-        } else if (lower.contains("ips lcd") || lower.contains("lcd")) {
+        } else if (panel == SpecProfile.Panel.LCD) {
             score += 8;
         }
         
         // Refresh rate
-        if (lower.contains("144hz") || lower.contains("144 hz")) score += 15;
-        else if (lower.contains("120hz") || lower.contains("120 hz")) score += 12;
-        else if (lower.contains("90hz") || lower.contains("90 hz")) score += 8;
-        else if (lower.contains("60hz") || lower.contains("60 hz")) score += 3;
+        int refreshRate = specs.getRefreshRateHz();
+        if (refreshRate == 144) score += 15;
+        else if (refreshRate == 120) score += 12;
+        else if (refreshRate == 90) score += 8;
+        else if (refreshRate == 60) score += 3;
         
         // Resolution
-        if (lower.contains("2k") || lower.contains("1440p") || lower.contains("quad hd")) {
+        SpecProfile.Resolution resolution = specs.getResolution();
+        if (resolution == SpecProfile.Resolution.QHD) {
             score += 12;
-        } else if (lower.contains("fhd+") || lower.contains("1080p") || lower.contains("full hd")) {
+        } else if (resolution == SpecProfile.Resolution.FHD) {
             score += 8;
-        } else if (lower.contains("hd+")) {
+        } else if (resolution == SpecProfile.Resolution.HD) {
             score += 4;
         }
         
         // Size bonus for larger screens
-        Pattern sizePattern = Pattern.compile("(\\d+\\.\\d+)");
-        Matcher sizeMatcher = sizePattern.matcher(lower);
-        if (sizeMatcher.find()) {
-            double size = Double.parseDouble(sizeMatcher.group(1));
-            if (size >= 6.7) score += 8;
-            else if (size >= 6.5) score += 6;
-            else if (size >= 6.0) score += 4;
-        }
+        double size = specs.getDisplaySize();
+        if (size >= 6.7) score += 8;
+        else if (size >= 6.5) score += 6;
+        else if (size >= 6.0) score += 4;
         
         // Special features
-        if (lower.contains("ltpo") || lower.contains("adaptive refresh")) score += 5;
-        if (lower.contains("hdr10+") || lower.contains("hdr10")) score += 5;
-        if (lower.contains("dolby vision")) score += 5;
-        if (lower.contains("gorilla glass") || lower.contains("victus")) score += 3;
+        if (specs.hasAdaptiveRefresh()) score += 5;
+        if (specs.hasHdr()) score += 5;
+        if (specs.hasDolbyVision()) score += 5;
+        if (specs.hasToughenedGlass()) score += 3;
         
         return Math.min(100, score);
     }
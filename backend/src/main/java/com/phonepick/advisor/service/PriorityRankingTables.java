@@ -0,0 +1,321 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Precomputed top-N rankings for every (budget bucket, priority ordering) pair
+ * The priority page ranks five features and the recommendations page posts them
+ * under these keys with the weights of a fixed ladder (PrioritySelection.jsx,
+ * Recommendations.jsx), so there are only 120 distinct weight profiles per bucket. Each bucket
+ * stores the winners of all profiles in flat arrays, as offsets from the bucket's
+ * first catalog index.
+ *
+ * Tables are built in the background on startup and after catalog refreshes.
+ * A partial refresh only re-materializes buckets whose price range contains the
+ * old or new price of a changed phone; the rest are reused as-is. Requests with
+ * any other weights, or arriving while the tables lag the catalog, get null from
+ * {@link #lookup} and are ranked live.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityRankingTables {
+
+    // Features the priority page ranks, and the weight given to each rank (highest first)
+    static final String[] RANKED_FEATURES = {"camera", "battery", "performance", "privacy", "looks"};
+    static final int[] RANK_WEIGHTS = {100, 85, 70, 55, 40};
+
+    // Weights read by the scorer, in CandidateRanker order (missing weights default to 50)
+    private static final String[] SCORER_KEYS = {"camera", "battery", "performance", "privacy", "looks"};
+
+    private static final int DEPTH = RecommendationService.MAX_RECOMMENDATIONS;
+
+    static final List<RecommendationRequest.BudgetRange> BUCKETS = budgetBuckets();
+    static final List<Map<String, Integer>> PROFILES = priorityProfiles();
+
+    private static final Map<Long, Integer> BUCKET_BY_RANGE = new HashMap<>();
+    private static final Map<Long, Integer> PROFILE_BY_WEIGHTS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < BUCKETS.size(); i++) {
+            BUCKET_BY_RANGE.put(rangeKey(BUCKETS.get(i).getMin(), BUCKETS.get(i).getMax()), i);
+        }
+        for (int i = 0; i < PROFILES.size(); i++) {
+            PROFILE_BY_WEIGHTS.putIfAbsent(weightsKey(PROFILES.get(i)), i);
+        }
+    }
+
+    private final CandidateRanker candidateRanker;
+    private final PhoneCatalog phoneCatalog;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ranking-tables");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Tables tables;
+
+    /**
+     * Precomputed ranking for this request, or null if it must be ranked live
+     */
+    public RankedCandidates lookup(RecommendationRequest.BudgetRange budgetRange,
+                                   Map<String, Integer> priorities,
+                                   PhoneCatalog.Snapshot catalog) {
+        Tables current = tables;
+        if (current == null || !current.builtFrom.sharesDataWith(catalog)) {
+            return null;
+        }
+        int bucket = bucketIndex(budgetRange);
+        if (bucket < 0) {
+            return null;
+        }
+        long weights = weightsKey(priorities);
+        Integer profile = weights < 0 ? null : PROFILE_BY_WEIGHTS.get(weights);
+        if (profile == null) {
+            return null;
+        }
+        return current.buckets[bucket].row(profile, catalog.lowerBound(budgetRange.getMin()));
+    }
+
+    public boolean isReady() {
+        return tables != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(() -> {
+            try {
+                rebuild(phoneCatalog.snapshot());
+            } catch (Exception e) {
+                log.error("Failed to build ranking tables: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queued on the single worker thread so refreshes are applied in publish order
+     */
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        executor.execute(() -> {
+            try {
+                apply(event);
+            } catch (Exception e) {
+                // Stale tables no longer match the catalog, so requests fall back to live ranking
+                log.error("Failed to update ranking tables after {}: {}", event, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Materialize every bucket from scratch
+     */
+    void rebuild(PhoneCatalog.Snapshot catalog) {
+        long start = System.currentTimeMillis();
+        BucketTable[] buckets = new BucketTable[BUCKETS.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = buildBucket(catalog, BUCKETS.get(i));
+        }
+        tables = new Tables(catalog, buckets);
+        log.info("Ranking tables built: {} buckets x {} priority profiles over {} phones in {} ms",
+                 buckets.length, PROFILES.size(), catalog.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Bring the tables up to date with a refreshed catalog, rebuilding only touched buckets
+     */
+    void apply(CatalogRefreshedEvent event) {
+        Tables current = tables;
+        if (event.isFullReload() || current == null || !current.builtFrom.sharesDataWith(event.getPrevious())) {
+            rebuild(event.getCurrent());
+            return;
+        }
+
+        boolean[] touched = touchedBuckets(event);
+        BucketTable[] buckets = current.buckets.clone();
+        int rebuilt = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (touched[i]) {
+                buckets[i] = buildBucket(event.getCurrent(), BUCKETS.get(i));
+                rebuilt++;
+            }
+        }
+        tables = new Tables(event.getCurrent(), buckets);
+        log.debug("Ranking tables updated: {} of {} buckets rebuilt for {} changed phones",
+                  rebuilt, buckets.length, event.getChangedIds().size());
+    }
+
+    private BucketTable buildBucket(PhoneCatalog.Snapshot catalog, RecommendationRequest.BudgetRange range) {
+        int from = catalog.lowerBound(range.getMin());
+        int to = Math.max(from, catalog.upperBound(range.getMax()));
+
+        int[] offsets = new int[PROFILES.size() * DEPTH];
+        int[] scores = new int[PROFILES.size() * DEPTH];
+        byte[] counts = new byte[PROFILES.size()];
+        List<TopKSelector> ranked = candidateRanker.rankAll(catalog, from, to, PROFILES, DEPTH);
+        for (int profile = 0; profile < PROFILES.size(); profile++) {
+            TopKSelector topK = ranked.get(profile);
+            counts[profile] = (byte) topK.size();
+            for (int rank = 0; rank < topK.size(); rank++) {
+                offsets[profile * DEPTH + rank] = topK.itemAt(rank) - from;
+                scores[profile * DEPTH + rank] = topK.scoreAt(rank);
+            }
+        }
+        return new BucketTable(offsets, scores, counts);
+    }
+
+    /**
+     * Index of the bucket with exactly this range, or -1
+     */
+    static int bucketIndex(RecommendationRequest.BudgetRange budgetRange) {
+        Integer bucket = BUCKET_BY_RANGE.get(rangeKey(budgetRange.getMin(), budgetRange.getMax()));
+        return bucket != null ? bucket : -1;
+    }
+
+    /**
+     * Buckets whose price range contains the old or new price of a changed phone
+     */
+    static boolean[] touchedBuckets(CatalogRefreshedEvent event) {
+        List<Integer> touchedPrices = new ArrayList<>();
+        collectPrices(event.getPrevious(), event.getChangedIds(), touchedPrices);
+        collectPrices(event.getCurrent(), event.getChangedIds(), touchedPrices);
+
+        boolean[] touched = new boolean[BUCKETS.size()];
+        for (int i = 0; i < touched.length; i++) {
+            RecommendationRequest.BudgetRange range = BUCKETS.get(i);
+            for (int price : touchedPrices) {
+                if (price >= range.getMin() && price <= range.getMax()) {
+                    touched[i] = true;
+                    break;
+                }
+            }
+        }
+        return touched;
+    }
+
+    private static void collectPrices(PhoneCatalog.Snapshot catalog, Set<Long> phoneIds, List<Integer> prices) {
+        for (Long phoneId : phoneIds) {
+            Phone phone = catalog.findById(phoneId);
+            if (phone != null) {
+                prices.add(phone.getPrice());
+            }
+        }
+    }
+
+    private static long rangeKey(int min, int max) {
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Pack the five scorer weights into one key, or -1 if any is outside 0..4095
+     */
+    private static long weightsKey(Map<String, Integer> priorities) {
+        long key = 0;
+        for (String feature : SCORER_KEYS) {
+            Integer weight = priorities.getOrDefault(feature, 50);
+            if (weight == null || weight < 0 || weight > 0xFFF) {
+                return -1;
+            }
+            key = (key << 12) | weight;
+        }
+        return key;
+    }
+
+    private static List<RecommendationRequest.BudgetRange> budgetBuckets() {
+        // Distinct (min, max) pairs, including the catch-all range for unknown strings
+        Map<Long, RecommendationRequest.BudgetRange> ranges = new LinkedHashMap<>();
+        for (String budget : RecommendationRequest.BUDGET_BUCKETS) {
+            RecommendationRequest.BudgetRange range = RecommendationRequest.budgetRangeFor(budget);
+            ranges.putIfAbsent(rangeKey(range.getMin(), range.getMax()), range);
+        }
+        RecommendationRequest.BudgetRange fallback = RecommendationRequest.defaultBudgetRange();
+        ranges.putIfAbsent(rangeKey(fallback.getMin(), fallback.getMax()), fallback);
+        return List.copyOf(ranges.values());
+    }
+
+    private static List<Map<String, Integer>> priorityProfiles() {
+        List<Map<String, Integer>> profiles = new ArrayList<>(120);
+        permute(RANKED_FEATURES.clone(), 0, profiles);
+        return List.copyOf(profiles);
+    }
+
+    private static void permute(String[] features, int position, List<Map<String, Integer>> profiles) {
+        if (position == features.length) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (int rank = 0; rank < features.length; rank++) {
+                weights.put(features[rank], RANK_WEIGHTS[rank]);
+            }
+            profiles.add(Map.copyOf(weights));
+            return;
+        }
+        for (int i = position; i < features.length; i++) {
+            String swap = features[position]; features[position] = features[i]; features[i] = swap;
+            permute(features, position + 1, profiles);
+            swap = features[position]; features[position] = features[i]; features[i] = swap;
+        }
+    }
+
+    private static final class Tables {
+        private final PhoneCatalog.Snapshot builtFrom;
+        private final BucketTable[] buckets;
+
+        Tables(PhoneCatalog.Snapshot builtFrom, BucketTable[] buckets) {
+            this.builtFrom = builtFrom;
+            this.buckets = buckets;
+        }
+    }
+
+    /**
+     * Winners of every priority profile for one bucket, DEPTH slots per profile
+     */
+    private static final class BucketTable {
+        private final int[] offsets;
+        private final int[] scores;
+        private final byte[] counts;
+
+        BucketTable(int[] offsets, int[] scores, byte[] counts) {
+            this.offsets = offsets;
+            this.scores = scores;
+            this.counts = counts;
+        }
+
+        RankedCandidates row(int profile, int bucketStart) {
+            int base = profile * DEPTH;
+            int count = counts[profile];
+            return new RankedCandidates() {
+                @Override
+                public int size() { return count; }
+
+                @Override
+                public int itemAt(int rank) { return bucketStart + offsets[base + rank]; }
+
+                @Override
+                public int scoreAt(int rank) { return scores[base + rank]; }
+            };
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.phonepick.advisor.service;
+
+/**
+ * Read-only view of a ranked candidate list, best first
+ * Items are catalog indexes into the snapshot the ranking was computed for.
+ */
+public interface RankedCandidates {
+
+    int size();
+
+    int itemAt(int rank);
+
+    int scoreAt(int rank);
+}
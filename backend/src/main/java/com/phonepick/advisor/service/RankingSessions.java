@@ -0,0 +1,249 @@
+package com.phonepick.advisor.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-side state for live priority sliders
+ * A session pins a budget range and keeps the weighted feature total of every
+ * candidate. Moving one slider only recomputes that feature's term:
+ * total += score * newWeight / 100 - score * oldWeight / 100, which is exact
+ * because each term is truncated on its own (see {@link ScoringKernel}).
+ * Re-ranking then only needs the rounding and the top-K pass.
+ *
+ * Sessions live in a bounded LRU and expire after an idle timeout. A session whose
+ * catalog has since been refreshed recomputes its totals on the next change.
+ */
+@Service
+@Slf4j
+public class RankingSessions {
+
+    // Weights read by the scorer, in FeatureMatrix column order
+    static final String[] WEIGHT_KEYS = {"camera", "battery", "performance", "privacy", "looks"};
+
+    private final int maxEntries;
+    private final long idleTimeoutMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Session> sessions;
+
+    public RankingSessions(@Value("${recommendation.sessions.max-entries:2000}") int maxEntries,
+                           @Value("${recommendation.sessions.idle-timeout-minutes:30}") int idleTimeoutMinutes) {
+        this.maxEntries = maxEntries;
+        this.idleTimeoutMillis = idleTimeoutMinutes * 60_000L;
+        this.sessions = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > RankingSessions.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Start a session for this budget range and these weights, ranked against the catalog
+     * @param bucket metrics bucket of the opening request, reported with every later change
+     */
+    public Ranking open(RecommendationRequest.BudgetRange budgetRange, Map<String, Integer> priorities,
+                        String bucket, PhoneCatalog.Snapshot catalog, int k) {
+        Session session = new Session(UUID.randomUUID().toString(), budgetRange, priorities, bucket);
+        session.lock.lock();
+        try {
+            session.load(catalog);
+            log.debug("Opened ranking session {} over {} phones", session.id, session.totals.length);
+            lock.lock();
+            try {
+                sessions.put(session.id, session);
+            } finally {
+                lock.unlock();
+            }
+            return session.rank(k);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Set one weight and re-rank
+     * @param feature one of camera, battery, performance, privacy, looks
+     * @return null if the session is unknown or expired
+     * @throws IllegalArgumentException for an unknown feature
+     */
+    public Ranking update(String sessionId, String feature, int weight, PhoneCatalog.Snapshot catalog, int k) {
+        int column = columnOf(feature);
+        if (column < 0) {
+            throw new IllegalArgumentException("Unknown feature: " + feature);
+        }
+        Session session = find(sessionId);
+        if (session == null) {
+            return null;
+        }
+
+        // One slider can fire faster than a request completes; changes apply in arrival order
+        session.lock.lock();
+        try {
+            if (session.catalog.sharesDataWith(catalog)) {
+                session.setWeight(column, weight);
+            } else {
+                // Catalog refreshed since the last change: start over from the new data
+                session.weights[column] = weight;
+                session.load(catalog);
+            }
+            session.priorities.put(feature, weight);
+            return session.rank(k);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return sessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Session find(String sessionId) {
+        lock.lock();
+        try {
+            Session session = sessions.get(sessionId);
+            if (session == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            if (now - session.lastUsed > idleTimeoutMillis) {
+                sessions.remove(sessionId);
+                return null;
+            }
+            session.lastUsed = now;
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int columnOf(String feature) {
+        for (int column = 0; column < WEIGHT_KEYS.length; column++) {
+            if (WEIGHT_KEYS[column].equals(feature)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] column(FeatureMatrix features, int column) {
+        return switch (column) {
+            case 0 -> features.camera;
+            case 1 -> features.battery;
+            case 2 -> features.software;
+            case 3 -> features.privacy;
+            default -> features.looks;
+        };
+    }
+
+    /**
+     * Ranking produced by a session, as catalog indexes into the snapshot it was computed on
+     */
+    public static final class Ranking {
+        private final String sessionId;
+        private final String bucket;
+        private final PhoneCatalog.Snapshot catalog;
+        private final TopKSelector ranked;
+        private final Map<String, Integer> priorities;
+
+        Ranking(String sessionId, String bucket, PhoneCatalog.Snapshot catalog, TopKSelector ranked,
+                Map<String, Integer> priorities) {
+            this.sessionId = sessionId;
+            this.bucket = bucket;
+            this.catalog = catalog;
+            this.ranked = ranked;
+            this.priorities = priorities;
+        }
+
+        public String getSessionId() { return sessionId; }
+        public String getBucket() { return bucket; }
+        public PhoneCatalog.Snapshot getCatalog() { return catalog; }
+        public TopKSelector getRanked() { return ranked; }
+        public Map<String, Integer> getPriorities() { return priorities; }
+    }
+
+    private static final class Session {
+        private final String id;
+        private final String bucket;
+        private final RecommendationRequest.BudgetRange budgetRange;
+        private final int[] weights;
+        // The request's priorities with every change applied (insights and comparisons read these)
+        private final Map<String, Integer> priorities;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PhoneCatalog.Snapshot catalog;
+        private int from;
+        // Weighted feature total per candidate, before rounding: catalog index from + i
+        private int[] totals;
+
+        Session(String id, RecommendationRequest.BudgetRange budgetRange, Map<String, Integer> priorities,
+                String bucket) {
+            this.id = id;
+            this.bucket = bucket;
+            this.budgetRange = budgetRange;
+            this.weights = CandidateRanker.scorerWeights(priorities);
+            this.priorities = new LinkedHashMap<>(priorities);
+        }
+
+        /**
+         * Recompute every total against this catalog
+         */
+        void load(PhoneCatalog.Snapshot snapshot) {
+            catalog = snapshot;
+            from = snapshot.lowerBound(budgetRange.getMin());
+            int to = Math.max(from, snapshot.upperBound(budgetRange.getMax()));
+            totals = new int[to - from];
+            FeatureMatrix features = snapshot.features();
+            for (int column = 0; column < weights.length; column++) {
+                int[] scores = column(features, column);
+                int weight = weights[column];
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += scores[from + i] * weight / 100;
+                }
+            }
+        }
+
+        /**
+         * Swap one feature's term in every total
+         */
+        void setWeight(int column, int weight) {
+            int previous = weights[column];
+            if (previous == weight) {
+                return;
+            }
+            int[] scores = column(catalog.features(), column);
+            for (int i = 0; i < totals.length; i++) {
+                int score = scores[from + i];
+                totals[i] += score * weight / 100 - score * previous / 100;
+            }
+            weights[column] = weight;
+        }
+
+        Ranking rank(int k) {
+            TopKSelector topK = new TopKSelector(k);
+            for (int i = 0; i < totals.length; i++) {
+                int baseMatchScore = Math.round((float) totals[i] / 5);
+                int index = from + i;
+                topK.offer(catalog.familyKeyAt(index),
+                           CandidateRanker.combineScores(baseMatchScore, catalog.unifiedScoreAt(index)), index);
+            }
+            topK.finish();
+            return new Ranking(id, bucket, catalog, topK, Map.copyOf(priorities));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU cache of recommendation responses
+ * Keyed by budget bucket plus a canonical encoding of the priority weights.
+ * Each entry remembers the catalog version it was computed against and is
+ * discarded on read once phone scores or insights have changed.
+ *
+ * Entries hold deep copies and every hit returns a fresh copy, so callers may
+ * modify what they get. Counters are published as recommendation.cache.* meters.
+ */
+@Service
+@Slf4j
+public class RecommendationCache implements MeterBinder {
+
+    // Features read by the scorer, in a fixed order (missing weights default to 50)
+    private static final String[] WEIGHT_KEYS = {"camera", "battery", "performance", "privacy", "looks"};
+
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RecommendationCache(@Value("${recommendation.cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Canonical cache key: budget bounds, the five scorer weights and the
+     * priority pattern (which selects insights and comparison features)
+     */
+    public static String keyFor(RecommendationRequest.BudgetRange budgetRange,
+                                Map<String, Integer> priorities,
+                                String priorityPattern) {
+        StringBuilder key = new StringBuilder(64)
+            .append(budgetRange.getMin()).append('-').append(budgetRange.getMax()).append('|');
+        for (String feature : WEIGHT_KEYS) {
+            key.append(priorities.getOrDefault(feature, 50)).append(',');
+        }
+        return key.append('|').append(priorityPattern).toString();
+    }
+
+    /**
+     * Cached recommendations for the key, or null on a miss or stale entry
+     */
+    public List<PhoneRecommendation> get(String key, long catalogVersion) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.catalogVersion == catalogVersion) {
+                hits.incrementAndGet();
+                return copyOf(entry.recommendations);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                invalidations.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, long catalogVersion, List<PhoneRecommendation> recommendations) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry(catalogVersion, List.copyOf(copyOf(recommendations))));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Recommendation cache cleared");
+    }
+
+    public Stats getStats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new Stats(size, maxEntries, hits.get(), misses.get(), evictions.get(), invalidations.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("recommendation.cache.requests", hits, AtomicLong::get)
+            .description("Recommendation cache lookups by result")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("recommendation.cache.requests", misses, AtomicLong::get)
+            .description("Recommendation cache lookups by result")
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("recommendation.cache.evictions", evictions, AtomicLong::get)
+            .description("Entries evicted to stay within the size limit")
+            .register(registry);
+        FunctionCounter.builder("recommendation.cache.invalidations", invalidations, AtomicLong::get)
+            .description("Entries dropped because the catalog version changed")
+            .register(registry);
+        Gauge.builder("recommendation.cache.size", this, cache -> cache.getStats().getSize())
+            .description("Entries currently cached")
+            .register(registry);
+    }
+
+    private static List<PhoneRecommendation> copyOf(List<PhoneRecommendation> recommendations) {
+        List<PhoneRecommendation> copy = new ArrayList<>(recommendations.size());
+        for (PhoneRecommendation recommendation : recommendations) {
+            copy.add(recommendation.copy());
+        }
+        return copy;
+    }
+
+    private static class Entry {
+        private final long catalogVersion;
+        private final List<PhoneRecommendation> recommendations;
+
+        Entry(long catalogVersion, List<PhoneRecommendation> recommendations) {
+            this.catalogVersion = catalogVersion;
+            this.recommendations = recommendations;
+        }
+    }
+
+    /**
+     * Cache counters since startup
+     */
+    public static class Stats {
+        private final int size;
+        private final int maxEntries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        public Stats(int size, int maxEntries, long hits, long misses, long evictions, long invalidations) {
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxEntries() { return maxEntries; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
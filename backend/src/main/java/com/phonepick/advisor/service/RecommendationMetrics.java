@@ -0,0 +1,110 @@
+package com.phonepick.advisor.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation for POST /api/recommend
+ * Stage timers, candidate-set sizes and insight resolution outcomes, all tagged
+ * by budget bucket. Custom price ranges share the "custom" tag so the number of
+ * time series stays bounded. Exposed through /actuator/prometheus.
+ */
+@Component
+public class RecommendationMetrics {
+
+    public static final String STAGE_CACHE = "cache";
+    public static final String STAGE_CATALOG = "catalog";
+    public static final String STAGE_SCORING = "scoring";
+    public static final String STAGE_INSIGHTS = "insights";
+    public static final String STAGE_COMPARISONS = "comparisons";
+    public static final String STAGE_SERIALIZATION = "serialization";
+
+    // Request attribute carrying the bucket tag to the serialization timer
+    public static final String BUCKET_ATTRIBUTE = RecommendationMetrics.class.getName() + ".bucket";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public RecommendationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Tag value for a request: the named bucket, "custom" or "other"
+     */
+    public static String bucketOf(RecommendationRequest request) {
+        if (request.hasCustomPriceRange()) {
+            return "custom";
+        }
+        return RecommendationRequest.BUDGET_BUCKETS.contains(request.getBudget()) ? request.getBudget() : "other";
+    }
+
+    public void recordStage(String bucket, String stage, long nanos) {
+        stageTimers.computeIfAbsent(bucket + '|' + stage, key -> Timer.builder("recommendation.stage")
+                .description("Time spent in each stage of getRecommendations")
+                .tag("bucket", bucket)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Phones in the budget range before ranking
+     */
+    public void recordCandidates(String bucket, int count) {
+        summary("recommendation.candidates", "Phones in the requested price range", "bucket", bucket).record(count);
+    }
+
+    /**
+     * Cache and ranking-table outcome per request (hit / miss, table / live)
+     */
+    public void recordOutcome(String bucket, String outcome) {
+        outcomes.computeIfAbsent(bucket + '|' + outcome, key -> Counter.builder("recommendation.requests")
+                .description("Requests by cache and ranking outcome")
+                .tag("bucket", bucket)
+                .tag("outcome", outcome)
+                .register(registry))
+            .increment();
+    }
+
+    /**
+     * Insight resolution per request: how many picks had an exact, fallback or no insight
+     */
+    public void recordInsights(String bucket, int exact, int fallback, int missing) {
+        insightSummary(bucket, "exact").record(exact);
+        insightSummary(bucket, "fallback").record(fallback);
+        insightSummary(bucket, "miss").record(missing);
+    }
+
+    private DistributionSummary insightSummary(String bucket, String result) {
+        return summary("recommendation.insights", "Insights per request by resolution result",
+                       "bucket", bucket, "result", result);
+    }
+
+    /**
+     * Summary per name and tag values; tags are key / value pairs
+     */
+    private DistributionSummary summary(String name, String description, String... tags) {
+        return summaries.computeIfAbsent(name + '|' + String.join("|", tags), key -> DistributionSummary.builder(name)
+            .description(description)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+}
@@ -1,18 +1,25 @@
 package com.phonepick.advisor.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.phonepick.advisor.model.Phone;
-import com.phonepick.advisor.model.PhoneInsight;
 import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationPage;
 import com.phonepick.advisor.model.RecommendationRequest;
-import com.phonepick.advisor.repository.PhoneInsightRepository;
-import com.phonepick.advisor.repository.PhoneRepository;
+import com.phonepick.advisor.model.RecommendationSession;
+import com.phonepick.advisor.model.SpecFilters;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,84 +29,370 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RecommendationService {
     
-    private final PhoneRepository phoneRepository;
-    private final PhoneInsightRepository phoneInsightRepository;
-    private final UnifiedScoringService unifiedScoringService;
+    static final int MAX_RECOMMENDATIONS = 5;
+    
+    private final PhoneCatalog phoneCatalog;
+    private final PhoneInsightIndex phoneInsightIndex;
+    private final RecommendationCache recommendationCache;
+    private final CandidateRanker candidateRanker;
+    private final PriorityRankingTables rankingTables;
+    private final SkylineIndex skylineIndex;
+    private final RankingSessions rankingSessions;
+    private final SpecFacetIndex specFacetIndex;
+    private final ComparisonService comparisonService;
+    private final RecommendationMetrics metrics;
+    
+    @Value("${recommendation.page.max-size:50}")
+    private int maxPageSize;
+    
+    @Value("${recommendation.page.max-depth:500}")
+    private int maxRankingDepth;
+    
+    @Value("${recommendation.skyline.pruning-enabled:true}")
+    private boolean skylinePruning;
     // private final RedditService redditService;
     
     /**
      * Main recommendation algorithm
-     * Finds phones in budget range and ranks them by weighted score
+     * Finds phones in budget range and ranks them by weighted score.
+     * Each stage is timed under recommendation.stage, tagged by budget bucket.
      */
     public List<PhoneRecommendation> getRecommendations(RecommendationRequest request) {
         log.info("Getting recommendations for budget: {} with priorities: {}", 
                  request.getBudget(), request.getPriorities());
         
+        String bucket = RecommendationMetrics.bucketOf(request);
+        long stageStart = System.nanoTime();
+        
         // Get budget range
         RecommendationRequest.BudgetRange budgetRange = request.getBudgetRange();
         
-        // Find phones in budget range
-        List<Phone> phonesInBudget = phoneRepository.findByPriceBetween(
-            budgetRange.getMin(), 
-            budgetRange.getMax()
-        );
-        
-        log.info("Found {} phones in budget range: ₹{} - ₹{}", 
-                 phonesInBudget.size(), budgetRange.getMin(), budgetRange.getMax());
-        
         // Build priority pattern from user's priorities
         String priorityPattern = buildPriorityPattern(request.getPriorities());
         log.info("Priority pattern: {}", priorityPattern);
         
+        // Serve repeated profiles from cache while the catalog version is unchanged
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        String cacheKey = cacheKeyFor(request, budgetRange, priorityPattern);
+        List<PhoneRecommendation> cached = recommendationCache.get(cacheKey, catalog.getVersion());
+        stageStart = recordStage(bucket, RecommendationMetrics.STAGE_CACHE, stageStart);
+        if (cached != null) {
+            metrics.recordOutcome(bucket, "cache-hit");
+            log.info("Returning {} cached recommendations", cached.size());
+            return cached;
+        }
+        
+        // Find phones in budget range (served from the in-memory catalog)
+        int from = catalog.lowerBound(budgetRange.getMin());
+        int to = Math.max(from, catalog.upperBound(budgetRange.getMax()));
+        stageStart = recordStage(bucket, RecommendationMetrics.STAGE_CATALOG, stageStart);
+        metrics.recordCandidates(bucket, to - from);
+        
+        log.info("Found {} phones in budget range: ₹{} - ₹{}", 
+                 to - from, budgetRange.getMin(), budgetRange.getMax());
+        
         // Get top 2 priorities for comparison logic
         List<String> topPriorities = getTopPriorities(request.getPriorities(), 2);
         
-        // Calculate weighted scores and convert to recommendations
-        List<PhoneRecommendation> recommendations = phonesInBudget.stream()
-            .collect(Collectors.toMap(
-                Phone::getId, // Key by phone ID
-                phone -> phone, // Value is the phone itself
-                (existing, replacement) -> existing // Keep first if duplicate IDs (shouldn't happen)
-            ))
-            .values().stream() // Now we have unique phones by ID
-            .map(phone -> {
-                // Calculate base match score from user priorities
-                int baseMatchScore = calculateMatchScore(phone, request.getPriorities());
-                
-                // Calculate unified score incorporating YouTube, Reddit, and spec scores
-                int unifiedScore = unifiedScoringService.calculateUnifiedScore(phone, null);
-                
-                // Combine priority match with unified scoring (70% priority match, 30% unified)
-                int finalMatchScore = (int) Math.round(baseMatchScore * 0.70 + unifiedScore * 0.30);
-                
-                log.debug("Phone {}: base={}, unified={}, final={}",
-                         phone.getModel(), baseMatchScore, unifiedScore, finalMatchScore);
-                
-                PhoneRecommendation recommendation = PhoneRecommendation.fromPhone(phone, finalMatchScore);
-                
-                // Fetch and add insights
-                addInsightsToRecommendation(recommendation, phone.getId(), priorityPattern);
-                
-                return recommendation;
-            })
-            .sorted((a, b) -> b.getMatchScore().compareTo(a.getMatchScore())) // Sort by match score descending
-            .collect(Collectors.groupingBy(
-                rec -> rec.getBrand() + "::" + rec.getModel() // Group by brand + model
-            ))
-            .values().stream()
-            .map(list -> list.get(0)) // Take only the first (highest scored) variant of each model
-            .sorted((a, b) -> b.getMatchScore().compareTo(a.getMatchScore())) // Re-sort after deduplication
-            .limit(5) // Return top 5 unique phone models
-            .collect(Collectors.toList());
+        // Standard bucket + front-end ranking order: answered from the precomputed tables,
+        // otherwise score the range live and keep the top 5 unique phone models
+        // (standard buckets only score the phones that can still make the top 5)
+        PhoneCatalog.Snapshot rankedFrom = catalog;
+        RankedCandidates topK;
+        if (request.hasFilters()) {
+            // Tables and bands rank unfiltered; score only the phones passing the spec filters
+            metrics.recordOutcome(bucket, "ranked-filtered");
+            BitSet matching = specFacetIndex.matching(request.getFilters(), catalog, from, to);
+            topK = candidateRanker.rank(catalog, from, to, matching, request.getPriorities(), MAX_RECOMMENDATIONS);
+        } else {
+            topK = rankingTables.lookup(budgetRange, request.getPriorities(), catalog);
+            PhoneCatalog.Snapshot band = topK == null ? pruningBand(budgetRange, List.of(request.getPriorities()), catalog) : null;
+            if (band != null) {
+                metrics.recordOutcome(bucket, "ranked-band");
+                rankedFrom = band;
+                topK = candidateRanker.rank(band, 0, band.size(), request.getPriorities(), MAX_RECOMMENDATIONS);
+            } else if (topK == null) {
+                metrics.recordOutcome(bucket, "ranked-live");
+                topK = candidateRanker.rank(catalog, from, to, request.getPriorities(), MAX_RECOMMENDATIONS);
+            } else {
+                metrics.recordOutcome(bucket, "ranked-table");
+            }
+        }
+        
+        // Only the winners are converted to response objects
+        List<PhoneRecommendation> recommendations = toRecommendations(rankedFrom, topK);
+        stageStart = recordStage(bucket, RecommendationMetrics.STAGE_SCORING, stageStart);
+        
+        // Fetch insights for the final picks only, in one batched lookup
+        addInsightsToRecommendations(recommendations, priorityPattern, bucket);
+        stageStart = recordStage(bucket, RecommendationMetrics.STAGE_INSIGHTS, stageStart);
         
         // Generate dynamic comparisons for top recommendation
         if (recommendations.size() > 1) {
             PhoneRecommendation topPick = recommendations.get(0);
-            generateDynamicComparisons(topPick, recommendations, phonesInBudget, topPriorities);
+            generateDynamicComparisons(topPick, recommendations, catalog, topPriorities);
         }
+        recordStage(bucket, RecommendationMetrics.STAGE_COMPARISONS, stageStart);
         
         log.info("Returning {} recommendations with insights", recommendations.size());
         
+        recommendationCache.put(cacheKey, catalog.getVersion(), recommendations);
+        return recommendations;
+    }
+    
+    /**
+     * Recommendations for many profiles in one call, results in request order
+     * Identical profiles are computed once, requests are grouped by budget range so
+     * each group is scored in one shared pass over the catalog, and insights for
+     * every group are fetched with a single combined lookup.
+     */
+    public List<List<PhoneRecommendation>> getRecommendations(List<RecommendationRequest> requests) {
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        List<List<PhoneRecommendation>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        
+        // Distinct profiles that missed the cache, grouped by budget range and spec filters
+        Map<String, BatchEntry> pending = new LinkedHashMap<>();
+        Map<String, List<BatchEntry>> groups = new LinkedHashMap<>();
+        int cachedCount = 0;
+        for (int position = 0; position < requests.size(); position++) {
+            RecommendationRequest request = requests.get(position);
+            RecommendationRequest.BudgetRange budgetRange = request.getBudgetRange();
+            String priorityPattern = buildPriorityPattern(request.getPriorities());
+            String cacheKey = cacheKeyFor(request, budgetRange, priorityPattern);
+            
+            BatchEntry entry = pending.get(cacheKey);
+            if (entry == null) {
+                List<PhoneRecommendation> cached = recommendationCache.get(cacheKey, catalog.getVersion());
+                if (cached != null) {
+                    metrics.recordOutcome(RecommendationMetrics.bucketOf(request), "cache-hit");
+                    results.set(position, cached);
+                    cachedCount++;
+                    continue;
+                }
+                entry = new BatchEntry(request, budgetRange, priorityPattern, cacheKey);
+                pending.put(cacheKey, entry);
+                String group = budgetRange.getMin() + "-" + budgetRange.getMax()
+                    + (request.hasFilters() ? "|" + request.getFilters().getKey() : "");
+                groups.computeIfAbsent(group, key -> new ArrayList<>()).add(entry);
+            }
+            entry.positions.add(position);
+        }
+        
+        // Rank each budget group: precomputed tables first, the rest in one shared scan
+        Map<String, List<Long>> idsByPattern = new HashMap<>();
+        for (List<BatchEntry> group : groups.values()) {
+            RecommendationRequest.BudgetRange budgetRange = group.get(0).budgetRange;
+            SpecFilters filters = group.get(0).request.hasFilters() ? group.get(0).request.getFilters() : null;
+            int from = catalog.lowerBound(budgetRange.getMin());
+            int to = Math.max(from, catalog.upperBound(budgetRange.getMax()));
+            
+            List<BatchEntry> live = new ArrayList<>();
+            for (BatchEntry entry : group) {
+                metrics.recordCandidates(entry.bucket, to - from);
+                entry.ranked = filters == null ? rankingTables.lookup(budgetRange, entry.request.getPriorities(), catalog) : null;
+                entry.rankedFrom = catalog;
+                if (entry.ranked == null) {
+                    live.add(entry);
+                } else {
+                    metrics.recordOutcome(entry.bucket, "ranked-table");
+                }
+            }
+            if (!live.isEmpty()) {
+                // The shared scan covers the pruned band only if every live profile allows it
+                // (filtered groups scan just the phones passing their filters)
+                List<Map<String, Integer>> profiles = live.stream().map(entry -> entry.request.getPriorities()).toList();
+                PhoneCatalog.Snapshot band = filters == null ? pruningBand(budgetRange, profiles, catalog) : null;
+                BitSet matching = filters != null ? specFacetIndex.matching(filters, catalog, from, to) : null;
+                List<TopKSelector> ranked = band != null
+                    ? candidateRanker.rankAll(band, 0, band.size(), profiles, MAX_RECOMMENDATIONS)
+                    : candidateRanker.rankAll(catalog, from, to, matching, profiles, MAX_RECOMMENDATIONS);
+                String outcome = band != null ? "ranked-band" : filters != null ? "ranked-filtered" : "ranked-live";
+                for (int i = 0; i < live.size(); i++) {
+                    BatchEntry entry = live.get(i);
+                    entry.ranked = ranked.get(i);
+                    entry.rankedFrom = band != null ? band : catalog;
+                    metrics.recordOutcome(entry.bucket, outcome);
+                }
+            }
+            
+            for (BatchEntry entry : group) {
+                entry.recommendations = toRecommendations(entry.rankedFrom, entry.ranked);
+                List<Long> ids = idsByPattern.computeIfAbsent(entry.priorityPattern, pattern -> new ArrayList<>());
+                entry.recommendations.forEach(recommendation -> ids.add(recommendation.getId()));
+            }
+        }
+        
+        // One insight lookup for every pattern in the batch
+        Map<String, Map<Long, PhoneInsightIndex.Match>> insights;
+        try {
+            insights = idsByPattern.isEmpty() ? Map.of() : phoneInsightIndex.resolveAll(idsByPattern);
+        } catch (Exception e) {
+            log.error("Error fetching insights for batch of {} profiles: {}", pending.size(), e.getMessage());
+            insights = Map.of();
+        }
+        
+        for (BatchEntry entry : pending.values()) {
+            applyInsights(entry.recommendations, insights.getOrDefault(entry.priorityPattern, Map.of()),
+                          entry.priorityPattern, entry.bucket);
+            if (entry.recommendations.size() > 1) {
+                List<String> topPriorities = getTopPriorities(entry.request.getPriorities(), 2);
+                generateDynamicComparisons(entry.recommendations.get(0), entry.recommendations, catalog, topPriorities);
+            }
+            recommendationCache.put(entry.cacheKey, catalog.getVersion(), entry.recommendations);
+            for (int position : entry.positions) {
+                results.set(position, entry.recommendations);
+            }
+        }
+        
+        log.info("Batch of {} recommendation requests: {} cached, {} distinct profiles computed in {} budget groups",
+                 requests.size(), cachedCount, pending.size(), groups.size());
+        return results;
+    }
+    
+    /**
+     * One page of the full ranking for a request (e.g. "show more")
+     * Ranks only as deep as the requested page with a bounded top-K over the
+     * price-sorted catalog, so the complete ranked list is never materialized.
+     * The cursor encodes the page offset; rankings follow the current catalog.
+     */
+    public RecommendationPage getRecommendationPage(RecommendationRequest request, String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        int offset = decodeCursor(cursor);
+        if (offset + pageSize > maxRankingDepth) {
+            throw new IllegalArgumentException("Pages are available for the top " + maxRankingDepth + " phones only");
+        }
+        
+        RecommendationRequest.BudgetRange budgetRange = request.getBudgetRange();
+        String priorityPattern = buildPriorityPattern(request.getPriorities());
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        int from = catalog.lowerBound(budgetRange.getMin());
+        int to = Math.max(from, catalog.upperBound(budgetRange.getMax()));
+        
+        // One extra slot tells whether another page exists
+        int depth = offset + pageSize;
+        BitSet matching = request.hasFilters() ? specFacetIndex.matching(request.getFilters(), catalog, from, to) : null;
+        TopKSelector topK = candidateRanker.rank(catalog, from, to, matching, request.getPriorities(), depth + 1);
+        
+        List<PhoneRecommendation> items = new ArrayList<>(pageSize);
+        for (int rank = offset; rank < Math.min(depth, topK.size()); rank++) {
+            items.add(PhoneRecommendation.fromPhone(catalog.get(topK.itemAt(rank)), topK.scoreAt(rank)));
+        }
+        addInsightsToRecommendations(items, priorityPattern, RecommendationMetrics.bucketOf(request));
+        
+        // Same comparisons as the main endpoint on the first page
+        if (offset == 0 && items.size() > 1) {
+            List<String> topPriorities = getTopPriorities(request.getPriorities(), 2);
+            generateDynamicComparisons(items.get(0), items, catalog, topPriorities);
+        }
+        
+        String nextCursor = topK.size() > depth && depth < maxRankingDepth ? encodeCursor(depth) : null;
+        log.info("Returning page at offset {} with {} recommendations for range ₹{} - ₹{}",
+                 offset, items.size(), budgetRange.getMin(), budgetRange.getMax());
+        if (matching == null) {
+            return new RecommendationPage(items, nextCursor, to - from, null);
+        }
+        // Filtered pages count the phones passing the filters, with facet counts for drill-down
+        return new RecommendationPage(items, nextCursor, matching.cardinality(),
+                                      specFacetIndex.counts(request.getFilters(), catalog, from, to));
+    }
+    
+    /**
+     * Rank a request and keep its per-phone totals for live slider changes
+     * Follow up with {@link #updateSession} as single weights move.
+     */
+    public RecommendationSession openSession(RecommendationRequest request) {
+        if (request.hasFilters()) {
+            throw new IllegalArgumentException("Spec filters are not supported in live sessions");
+        }
+        RankingSessions.Ranking ranking = rankingSessions.open(request.getBudgetRange(), request.getPriorities(),
+            RecommendationMetrics.bucketOf(request), phoneCatalog.snapshot(), MAX_RECOMMENDATIONS);
+        return toSession(ranking);
+    }
+    
+    /**
+     * Apply one changed weight to a session and return the new top picks
+     * Only that feature's term is recomputed for each candidate.
+     * @return null if the session is unknown or expired
+     */
+    public RecommendationSession updateSession(String sessionId, String feature, int weight) {
+        RankingSessions.Ranking ranking = rankingSessions.update(
+            sessionId, feature, weight, phoneCatalog.snapshot(), MAX_RECOMMENDATIONS);
+        return ranking != null ? toSession(ranking) : null;
+    }
+    
+    private RecommendationSession toSession(RankingSessions.Ranking ranking) {
+        String bucket = ranking.getBucket();
+        metrics.recordOutcome(bucket, "ranked-session");
+        List<PhoneRecommendation> recommendations = toRecommendations(ranking.getCatalog(), ranking.getRanked());
+        addInsightsToRecommendations(recommendations, buildPriorityPattern(ranking.getPriorities()), bucket);
+        if (recommendations.size() > 1) {
+            List<String> topPriorities = getTopPriorities(ranking.getPriorities(), 2);
+            generateDynamicComparisons(recommendations.get(0), recommendations, ranking.getCatalog(), topPriorities);
+        }
+        return new RecommendationSession(ranking.getSessionId(), recommendations);
+    }
+    
+    /**
+     * Cache key of a request; filtered requests are cached apart from unfiltered ones
+     */
+    private static String cacheKeyFor(RecommendationRequest request, RecommendationRequest.BudgetRange budgetRange,
+                                      String priorityPattern) {
+        String key = RecommendationCache.keyFor(budgetRange, request.getPriorities(), priorityPattern);
+        return request.hasFilters() ? key + '|' + request.getFilters().getKey() : key;
+    }
+    
+    private static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("o" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith("o")) {
+                int offset = Integer.parseInt(decoded.substring(1));
+                if (offset >= 0) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below (NumberFormatException is an IllegalArgumentException)
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+    
+    /**
+     * Skyline band that ranks like the whole budget range for all these profiles, or null
+     */
+    private PhoneCatalog.Snapshot pruningBand(RecommendationRequest.BudgetRange budgetRange,
+                                              List<Map<String, Integer>> profiles,
+                                              PhoneCatalog.Snapshot catalog) {
+        if (!skylinePruning) {
+            return null;
+        }
+        PhoneCatalog.Snapshot band = null;
+        for (Map<String, Integer> priorities : profiles) {
+            band = skylineIndex.band(budgetRange, priorities, MAX_RECOMMENDATIONS, catalog);
+            if (band == null) {
+                return null;
+            }
+        }
+        return band;
+    }
+    
+    /**
+     * Convert ranked catalog indexes to response objects, best first
+     */
+    private List<PhoneRecommendation> toRecommendations(PhoneCatalog.Snapshot catalog, RankedCandidates ranked) {
+        List<PhoneRecommendation> recommendations = new ArrayList<>(ranked.size());
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            recommendations.add(PhoneRecommendation.fromPhone(catalog.get(ranked.itemAt(rank)), ranked.scoreAt(rank)));
+        }
         return recommendations;
     }
     
@@ -119,13 +412,10 @@ public class RecommendationService {
      */
     private void generateDynamicComparisons(PhoneRecommendation topPick, 
                                            List<PhoneRecommendation> allRecommendations,
-                                           List<Phone> allPhones,
+                                           PhoneCatalog.Snapshot catalog,
                                            List<String> topPriorities) {
-        // Get the actual Phone objects for comparison
-        Phone topPhone = allPhones.stream()
-            .filter(p -> p.getId().equals(topPick.getId()))
-            .findFirst()
-            .orElse(null);
+        // Get the actual Phone objects for comparison (id index lookup)
+        Phone topPhone = catalog.findById(topPick.getId());
         
         if (topPhone == null) return;
         
@@ -133,13 +423,11 @@ public class RecommendationService {
         for (int i = 1; i < Math.min(3, allRecommendations.size()); i++) {
             PhoneRecommendation alternative = allRecommendations.get(i);
             
-            Phone altPhone = allPhones.stream()
-                .filter(p -> p.getId().equals(alternative.getId()))
-                .findFirst()
-                .orElse(null);
+            Phone altPhone = catalog.findById(alternative.getId());
             
             if (altPhone != null) {
-                String comparisonReason = generateComparisonReason(topPhone, altPhone, topPriorities);
+                String comparisonReason = comparisonService.comparisonReason(
+                    topPhone, altPhone, topPriorities, catalog.getVersion());
                 topPick.addAlternativeComparison(
                     alternative.getBrand(),
                     alternative.getModel(),
@@ -149,77 +437,6 @@ public class RecommendationService {
         }
     }
     
-    /**
-     * Generate comparison reason based on feature scores
-     */
-    private String generateComparisonReason(Phone topPhone, Phone alternative, List<String> topPriorities) {
-        List<String> advantages = new ArrayList<>();
-        
-        // Check user's top priorities
-        for (String priority : topPriorities) {
-            int topScore = getFeatureScore(topPhone, priority);
-            int altScore = getFeatureScore(alternative, priority);
-            
-            if (topScore > altScore) {
-                int diff = topScore - altScore;
-                if (diff >= 5) { // Only mention if significantly better
-                    String advantage = getAdvantageText(priority, diff);
-                    if (advantage != null) {
-                        advantages.add(advantage);
-                    }
-                }
-            }
-        }
-        
-        // Check price advantage
-        if (topPhone.getPrice() < alternative.getPrice()) {
-            int savings = alternative.getPrice() - topPhone.getPrice();
-            advantages.add("₹" + String.format("%,d", savings) + " cheaper");
-        }
-        
-        // If no clear advantages found, use generic text
-        if (advantages.isEmpty()) {
-            return "Better overall balance for your priorities";
-        }
-        
-        // Join advantages
-        if (advantages.size() == 1) {
-            return advantages.get(0);
-        } else if (advantages.size() == 2) {
-            return advantages.get(0) + " and " + advantages.get(1);
-        } else {
-            return advantages.get(0) + ", " + advantages.get(1) + ", and more";
-        }
-    }
-    
-    /**
-     * Get feature score by name
-     */
-    private int getFeatureScore(Phone phone, String feature) {
-        return switch (feature.toLowerCase()) {
-            case "camera" -> phone.getCameraScore();
-            case "battery" -> phone.getBatteryScore();
-            case "performance", "software" -> phone.getSoftwareScore();
-            case "privacy" -> phone.getPrivacyScore();
-            case "looks", "design" -> phone.getLooksScore();
-            default -> 0;
-        };
-    }
-    
-    /**
-     * Convert feature advantage to human-readable text
-     */
-    private String getAdvantageText(String feature, int scoreDiff) {
-        return switch (feature.toLowerCase()) {
-            case "camera" -> scoreDiff >= 10 ? "significantly better camera" : "better camera quality";
-            case "battery" -> scoreDiff >= 10 ? "much longer battery life" : "better battery life";
-            case "performance", "software" -> scoreDiff >= 10 ? "noticeably faster performance" : "smoother performance";
-            case "privacy" -> scoreDiff >= 10 ? "stronger privacy protection" : "better privacy features";
-            case "looks", "design" -> scoreDiff >= 10 ? "premium design and build" : "better design";
-            default -> null;
-        };
-    }
-    
     /**
      * Build priority pattern string from user priorities
      * Format: "camera-battery-performance-privacy-design"
@@ -232,90 +449,81 @@ public class RecommendationService {
     }
     
     /**
-     * Fetch insights for a phone and add to recommendation
+     * Fetch insights for the final recommendations and add them
+     * Exact pattern match first, otherwise ANY insight for the phone (fallback)
      */
-    private void addInsightsToRecommendation(PhoneRecommendation recommendation, Long phoneId, String priorityPattern) {
+    private void addInsightsToRecommendations(List<PhoneRecommendation> recommendations, String priorityPattern,
+                                              String bucket) {
+        if (recommendations.isEmpty()) {
+            return;
+        }
+        
         try {
-            // Try exact match first
-            PhoneInsight insight = phoneInsightRepository
-                .findByPhoneIdAndPriorityPattern(phoneId, priorityPattern)
-                .orElse(null);
+            List<Long> phoneIds = recommendations.stream().map(PhoneRecommendation::getId).toList();
+            applyInsights(recommendations, phoneInsightIndex.resolve(phoneIds, priorityPattern), priorityPattern, bucket);
+        } catch (Exception e) {
+            log.error("Error fetching insights for {} phones: {}", recommendations.size(), e.getMessage());
+            metrics.recordInsights(bucket, 0, 0, recommendations.size());
+            // Continue without insights rather than failing
+        }
+    }
+    
+    private void applyInsights(List<PhoneRecommendation> recommendations,
+                               Map<Long, PhoneInsightIndex.Match> insights,
+                               String priorityPattern,
+                               String bucket) {
+        int exact = 0;
+        int fallback = 0;
+        for (PhoneRecommendation recommendation : recommendations) {
+            PhoneInsightIndex.Match insight = insights.get(recommendation.getId());
             
-            // If no exact match, get ANY insight for this phone (fallback)
             if (insight == null) {
-                insight = phoneInsightRepository
-                    .findFirstByPhoneId(phoneId)
-                    .orElse(null);
-                
-                if (insight != null) {
-                    log.debug("Using fallback insight for phone {} (exact pattern not found)", phoneId);
-                }
-            } else {
-                log.debug("Found exact insight match for phone {} with pattern {}", phoneId, priorityPattern);
+                log.warn("No insights found at all for phone {}", recommendation.getId());
+                continue;
             }
             
-            if (insight != null) {
-                recommendation.addInsights(insight);
+            if (insight.isExact()) {
+                exact++;
+                log.debug("Found exact insight match for phone {} with pattern {}", recommendation.getId(), priorityPattern);
             } else {
-                log.warn("No insights found at all for phone {}", phoneId);
+                fallback++;
+                log.debug("Using fallback insight for phone {} (exact pattern not found)", recommendation.getId());
             }
-        } catch (Exception e) {
-            log.error("Error fetching insights for phone {}: {}", phoneId, e.getMessage());
-            // Continue without insights rather than failing
+            recommendation.addInsights(insight.getWhyPicked(), insight.getWhyLoveIt(), insight.getWhatToKnow());
         }
+        metrics.recordInsights(bucket, exact, fallback, recommendations.size() - exact - fallback);
     }
     
     /**
-     * Calculate weighted match score for a phone based on user priorities
-     * Formula: Sum of (feature_score * priority_weight) / number_of_features
-     */
-    private int calculateMatchScore(Phone phone, Map<String, Integer> priorities) {
-        int totalScore = 0;
-        int totalWeight = 0;
-        
-        // Camera
-        int cameraWeight = priorities.getOrDefault("camera", 50);
-        totalScore += phone.getCameraScore() * cameraWeight / 100;
-        totalWeight += cameraWeight;
-        
-        // Battery
-        int batteryWeight = priorities.getOrDefault("battery", 50);
-        totalScore += phone.getBatteryScore() * batteryWeight / 100;
-        totalWeight += batteryWeight;
-        
-        // Software/Performance
-        int performanceWeight = priorities.getOrDefault("performance", 50);
-        totalScore += phone.getSoftwareScore() * performanceWeight / 100;
-        totalWeight += performanceWeight;
-        
-        // Privacy
-        int privacyWeight = priorities.getOrDefault("privacy", 50);
-        totalScore += phone.getPrivacyScore() * privacyWeight / 100;
-        totalWeight += privacyWeight;
-        
-        // Looks/Design
-        int looksWeight = priorities.getOrDefault("looks", 50);
-        totalScore += phone.getLooksScore() * looksWeight / 100;
-        totalWeight += looksWeight;
-        
-        // Normalize to 0-100 scale
-        return Math.round((float) totalScore / 5);
-    }
-    
-    /**
-     * Get all phones (for testing/admin purposes)
+     * Record the stage that started at stageStart and return the start of the next one
      */
-    public List<Phone> getAllPhones() {
-        return phoneRepository.findAll();
+    private long recordStage(String bucket, String stage, long stageStart) {
+        long now = System.nanoTime();
+        metrics.recordStage(bucket, stage, now - stageStart);
+        return now;
     }
     
     /**
-     * Get phone count in a budget range
+     * One distinct profile within a batch and the request positions it answers
      */
-    public Long getPhoneCountInBudget(String budget) {
-        RecommendationRequest request = new RecommendationRequest();
-        request.setBudget(budget);
-        RecommendationRequest.BudgetRange range = request.getBudgetRange();
-        return phoneRepository.countByPriceBetween(range.getMin(), range.getMax());
+    private static class BatchEntry {
+        private final RecommendationRequest request;
+        private final RecommendationRequest.BudgetRange budgetRange;
+        private final String priorityPattern;
+        private final String cacheKey;
+        private final String bucket;
+        private final List<Integer> positions = new ArrayList<>();
+        private RankedCandidates ranked;
+        private PhoneCatalog.Snapshot rankedFrom;
+        private List<PhoneRecommendation> recommendations;
+        
+        BatchEntry(RecommendationRequest request, RecommendationRequest.BudgetRange budgetRange,
+                   String priorityPattern, String cacheKey) {
+            this.request = request;
+            this.budgetRange = budgetRange;
+            this.priorityPattern = priorityPattern;
+            this.cacheKey = cacheKey;
+            this.bucket = RecommendationMetrics.bucketOf(request);
+        }
     }
 }
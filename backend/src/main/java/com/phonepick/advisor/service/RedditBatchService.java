@@ -6,6 +6,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +21,9 @@ public class RedditBatchService {
     private final RedditService redditService;
     private final RedditPostRepository redditPostRepository;
     private final SentimentAnalysisService sentimentAnalysisService;
+    private final UnifiedScoringService unifiedScoringService;
     private final com.phonepick.advisor.repository.PhoneRepository phoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Value("${batch.processing.enabled:true}")
     private boolean batchProcessingEnabled;
@@ -29,11 +32,15 @@ public class RedditBatchService {
             RedditService redditService,
             RedditPostRepository redditPostRepository,
             SentimentAnalysisService sentimentAnalysisService,
-            com.phonepick.advisor.repository.PhoneRepository phoneRepository) {
+            UnifiedScoringService unifiedScoringService,
+            com.phonepick.advisor.repository.PhoneRepository phoneRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.redditService = redditService;
         this.redditPostRepository = redditPostRepository;
         this.sentimentAnalysisService = sentimentAnalysisService;
+        this.unifiedScoringService = unifiedScoringService;
         this.phoneRepository = phoneRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -171,6 +178,7 @@ public class RedditBatchService {
                 
                 if (avgScore != null) {
                     phone.setRedditSentimentScore(avgScore.intValue());
+                    unifiedScoringService.refreshStoredScores(phone);
                     phoneRepository.save(phone);
                     updatedCount++;
                     
@@ -184,5 +192,9 @@ public class RedditBatchService {
         }
         
         logger.info("Updated {} phones with Reddit sentiment scores", updatedCount);
+        
+        if (updatedCount > 0) {
+            eventPublisher.publishEvent(CatalogChangedEvent.all("reddit-sentiment"));
+        }
     }
 }
\ No newline at end of file
@@ -36,16 +36,19 @@ public class RedditService {
     private final WebClient webClient;
     private final RedditPostRepository redditPostRepository;
     private final PhoneRepository phoneRepository;
+    private final PhoneSearchIndex phoneSearchIndex;
     private final ObjectMapper objectMapper;
     
     public RedditService(
             WebClient.Builder webClientBuilder,
             RedditPostRepository redditPostRepository,
             PhoneRepository phoneRepository,
+            PhoneSearchIndex phoneSearchIndex,
             ObjectMapper objectMapper) {
         this.webClient = webClientBuilder.baseUrl(REDDIT_BASE_URL).build();
         this.redditPostRepository = redditPostRepository;
         this.phoneRepository = phoneRepository;
+        this.phoneSearchIndex = phoneSearchIndex;
         this.objectMapper = objectMapper;
     }
     
@@ -108,11 +111,8 @@ public class RedditService {
             JsonNode root = objectMapper.readTree(jsonResponse);
             JsonNode children = root.path("data").path("children");
             
-            // Use findByModelContainingIgnoreCase instead of findByModelNameContainingIgnoreCase
-            Phone phone = phoneRepository.findByModelContainingIgnoreCase(phoneModel)
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
+            // Token lookup in the search index instead of a LIKE '%model%' table scan
+            Phone phone = phoneSearchIndex.findBest(phoneModel);
             
             if (phone == null) {
                 logger.warn("Phone not found in database: {}", phoneModel);
@@ -0,0 +1,120 @@
+package com.phonepick.advisor.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch form of {@link CandidateRanker#calculateMatchScore}
+ * Computes the weighted feature total for a whole catalog range in one pass over
+ * the {@link FeatureMatrix} columns. Results are bit-identical to the per-phone
+ * formula: each term is truncated by integer division and the total is rounded
+ * with Math.round((float) total / 5).
+ *
+ * When every score and weight is within 0..100 (the normal case) the range is
+ * processed with the JDK Vector API if the jdk.incubator.vector module is
+ * present (JVM flag --add-modules jdk.incubator.vector), otherwise with the
+ * equivalent scalar loop. Out-of-range inputs use plain integer arithmetic.
+ */
+@Slf4j
+final class ScoringKernel {
+
+    // floor(x / 100) == (x * DIV100_MULTIPLIER) >>> DIV100_SHIFT for 0 <= x <= 10000
+    static final int DIV100_MULTIPLIER = 41944;
+    static final int DIV100_SHIFT = 22;
+
+    // Largest weighted total when every score and weight is within 0..100
+    static final int MAX_TOTAL = 5 * 100;
+
+    private static final int[] ROUNDED_FIFTHS = new int[MAX_TOTAL + 1];
+    private static final int[] COMBINED = new int[101 * 101];
+
+    static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+        && !Boolean.getBoolean("recommendation.scoring.vector.disabled");
+
+    static {
+        for (int total = 0; total <= MAX_TOTAL; total++) {
+            ROUNDED_FIFTHS[total] = Math.round((float) total / 5);
+        }
+        for (int base = 0; base <= 100; base++) {
+            for (int unified = 0; unified <= 100; unified++) {
+                COMBINED[base * 101 + unified] = CandidateRanker.combineScores(base, unified);
+            }
+        }
+        log.info("Scoring kernel: {}", VECTOR_AVAILABLE ? "vectorized" : "scalar");
+    }
+
+    private ScoringKernel() {
+    }
+
+    /**
+     * Base match scores for catalog entries [from, to), written to out[0 .. to - from)
+     * @param weights camera, battery, performance, privacy, looks
+     */
+    static void matchScores(FeatureMatrix matrix, int from, int to, int[] weights, int[] out) {
+        if (matrix.normalized && inPercentRange(weights)) {
+            if (VECTOR_AVAILABLE) {
+                VectorScoringKernel.percentTotals(matrix, from, to, weights, out);
+            } else {
+                percentTotals(matrix, from, to, weights, out);
+            }
+            for (int i = 0, n = to - from; i < n; i++) {
+                out[i] = ROUNDED_FIFTHS[out[i]];
+            }
+        } else {
+            genericScores(matrix, from, to, weights, out);
+        }
+    }
+
+    /**
+     * 70/30 blend of base match and unified score, via lookup for in-range inputs
+     */
+    static int combine(int baseMatchScore, int unifiedScore) {
+        if (baseMatchScore >= 0 && baseMatchScore <= 100 && unifiedScore >= 0 && unifiedScore <= 100) {
+            return COMBINED[baseMatchScore * 101 + unifiedScore];
+        }
+        return CandidateRanker.combineScores(baseMatchScore, unifiedScore);
+    }
+
+    /**
+     * Scalar reference for the in-range fast path: weighted totals before rounding
+     */
+    static void percentTotals(FeatureMatrix matrix, int from, int to, int[] weights, int[] out) {
+        for (int i = from; i < to; i++) {
+            out[i - from] = percentTotal(matrix, i, weights);
+        }
+    }
+
+    static int percentTotal(FeatureMatrix matrix, int index, int[] weights) {
+        return div100(matrix.camera[index] * weights[0])
+            + div100(matrix.battery[index] * weights[1])
+            + div100(matrix.software[index] * weights[2])
+            + div100(matrix.privacy[index] * weights[3])
+            + div100(matrix.looks[index] * weights[4]);
+    }
+
+    /**
+     * Same formula with Java integer semantics for any input (negative or oversized values)
+     */
+    static void genericScores(FeatureMatrix matrix, int from, int to, int[] weights, int[] out) {
+        for (int i = from; i < to; i++) {
+            int totalScore = matrix.camera[i] * weights[0] / 100
+                + matrix.battery[i] * weights[1] / 100
+                + matrix.software[i] * weights[2] / 100
+                + matrix.privacy[i] * weights[3] / 100
+                + matrix.looks[i] * weights[4] / 100;
+            out[i - from] = Math.round((float) totalScore / 5);
+        }
+    }
+
+    static int div100(int x) {
+        return (x * DIV100_MULTIPLIER) >>> DIV100_SHIFT;
+    }
+
+    private static boolean inPercentRange(int[] weights) {
+        for (int weight : weights) {
+            if (weight < 0 || weight > 100) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
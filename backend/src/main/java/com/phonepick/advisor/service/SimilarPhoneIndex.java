@@ -0,0 +1,197 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Nearest-neighbour index for "phones like this one"
+ * Every ranked catalog entry is a point in a flat float matrix: the five feature
+ * scores, the unified score and a log-scaled price, all on a 0..100 scale.
+ * Queries walk the requested price band outwards from the query phone (the
+ * catalog is price-sorted and price is one of the axes, so the walk stops as soon
+ * as the price gap alone is larger than the current k-th distance) and keep the
+ * closest phone of each other model family in a bounded heap.
+ *
+ * Vectors depend only on the phone itself, so a partial catalog refresh copies
+ * unchanged rows from the previous matrix and recomputes just the changed phones.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarPhoneIndex {
+
+    static final int DIMENSIONS = 7;
+    private static final int PRICE = 6;
+
+    // Price axis: MIN_PRICE maps to 0, MIN_PRICE * PRICE_RANGE (and above) to 100
+    private static final double MIN_PRICE = 5_000;
+    private static final double PRICE_RANGE = 40;
+
+    // Largest possible distance, used to turn distances into a 0..100 similarity
+    private static final double MAX_DISTANCE = Math.sqrt(DIMENSIONS) * 100;
+
+    private final PhoneCatalog phoneCatalog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Index index;
+
+    /**
+     * Closest phones to the given one within [minPrice, maxPrice], most similar first
+     * matchScore carries the similarity (100 = identical vector).
+     * @return null if the phone is not in the catalog
+     */
+    public List<PhoneRecommendation> findSimilar(Long phoneId, int minPrice, int maxPrice, int limit) {
+        Index current = current();
+        PhoneCatalog.Snapshot catalog = current.catalog;
+        int query = catalog.indexOf(phoneId);
+        if (query < 0) {
+            return null;
+        }
+
+        int from = catalog.lowerBound(minPrice);
+        int to = Math.max(from, catalog.upperBound(maxPrice));
+        float[] vectors = current.vectors;
+        int base = query * DIMENSIONS;
+        String queryFamily = catalog.familyKeyAt(query);
+
+        // Squared distances as negative int scores so the ranking top-K keeps the closest
+        // (the query itself is excluded with its family)
+        TopKSelector nearest = new TopKSelector(limit);
+
+        // Walk outwards from the query's price: the price axis alone bounds the distance,
+        // so each direction stops once its price gap can no longer beat the heap
+        int start = Math.min(Math.max(query, from), to);
+        int below = start - 1;
+        int above = start;
+        while (below >= from || above < to) {
+            float gapBelow = below >= from ? vectors[base + PRICE] - vectors[below * DIMENSIONS + PRICE] : Float.MAX_VALUE;
+            float gapAbove = above < to ? vectors[above * DIMENSIONS + PRICE] - vectors[base + PRICE] : Float.MAX_VALUE;
+            boolean down = Math.abs(gapBelow) <= Math.abs(gapAbove);
+            float gap = down ? gapBelow : gapAbove;
+            if (!nearest.accepts(-Math.round(gap * gap * 16))) {
+                break;
+            }
+            int i = down ? below-- : above++;
+            int offset = i * DIMENSIONS;
+            float distance = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                float delta = vectors[offset + d] - vectors[base + d];
+                distance += delta * delta;
+            }
+            // Family checks only for candidates close enough to enter the heap
+            int score = -Math.round(distance * 16);
+            if (nearest.accepts(score) && !catalog.familyKeyAt(i).equals(queryFamily)) {
+                nearest.offer(catalog.familyKeyAt(i), score, i);
+            }
+        }
+        nearest.finish();
+
+        List<PhoneRecommendation> similar = new ArrayList<>(nearest.size());
+        for (int rank = 0; rank < nearest.size(); rank++) {
+            double distance = Math.sqrt(-nearest.scoreAt(rank) / 16.0);
+            int similarity = (int) Math.round(100 * (1 - distance / MAX_DISTANCE));
+            similar.add(PhoneRecommendation.fromPhone(catalog.get(nearest.itemAt(rank)), similarity));
+        }
+        return similar;
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        lock.lock();
+        try {
+            index = apply(index, event);
+        } catch (Exception e) {
+            // Dropped here, rebuilt from the current catalog on the next query
+            index = null;
+            log.error("Failed to update similar-phone index after {}: {}", event, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Index current() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (index == null) {
+                index = build(phoneCatalog.snapshot(), null, null);
+            }
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Index for the refreshed catalog, reusing rows of phones that did not change
+     */
+    static Index apply(Index previous, CatalogRefreshedEvent event) {
+        if (event.isFullReload() || previous == null || !previous.catalog.sharesDataWith(event.getPrevious())) {
+            return build(event.getCurrent(), null, null);
+        }
+        return build(event.getCurrent(), previous, event);
+    }
+
+    private static Index build(PhoneCatalog.Snapshot catalog, Index previous, CatalogRefreshedEvent event) {
+        float[] vectors = new float[catalog.size() * DIMENSIONS];
+        int reused = 0;
+        for (int i = 0; i < catalog.size(); i++) {
+            Phone phone = catalog.get(i);
+            int before = previous != null && !event.getChangedIds().contains(phone.getId())
+                ? previous.catalog.indexOf(phone.getId()) : -1;
+            if (before >= 0 && previous.catalog.get(before) == phone) {
+                System.arraycopy(previous.vectors, before * DIMENSIONS, vectors, i * DIMENSIONS, DIMENSIONS);
+                reused++;
+            } else {
+                writeVector(phone, catalog.unifiedScoreAt(i), vectors, i * DIMENSIONS);
+            }
+        }
+        log.debug("Similar-phone index built for catalog version {}: {} phones, {} rows reused",
+                  catalog.getVersion(), catalog.size(), reused);
+        return new Index(catalog, vectors);
+    }
+
+    static void writeVector(Phone phone, int unifiedScore, float[] vectors, int offset) {
+        vectors[offset] = score(phone.getCameraScore());
+        vectors[offset + 1] = score(phone.getBatteryScore());
+        vectors[offset + 2] = score(phone.getSoftwareScore());
+        vectors[offset + 3] = score(phone.getPrivacyScore());
+        vectors[offset + 4] = score(phone.getLooksScore());
+        vectors[offset + 5] = unifiedScore;
+        vectors[offset + PRICE] = priceAxis(phone.getPrice());
+    }
+
+    /**
+     * Log-scaled so a 2,000 difference matters more at 10,000 than at 100,000
+     */
+    static float priceAxis(int price) {
+        double position = Math.log(Math.max(price, MIN_PRICE) / MIN_PRICE) / Math.log(PRICE_RANGE);
+        return (float) (100 * Math.min(1, position));
+    }
+
+    private static float score(Integer value) {
+        return value != null ? value : 50;
+    }
+
+    static final class Index {
+        private final PhoneCatalog.Snapshot catalog;
+        private final float[] vectors;
+
+        Index(PhoneCatalog.Snapshot catalog, float[] vectors) {
+            this.catalog = catalog;
+            this.vectors = vectors;
+        }
+    }
+}
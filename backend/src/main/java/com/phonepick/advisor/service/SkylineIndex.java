@@ -0,0 +1,316 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per budget bucket: the phones no other phone beats on every feature for the same money
+ * A phone is on a bucket's skyline unless another phone in the bucket costs the same or
+ * less and scores at least as well on all five features (and better on one, or is cheaper).
+ * Built with a sort-filter pass over the price-sorted catalog, so each phone is only
+ * compared against the skyline of cheaper phones and its own price run.
+ *
+ * Each bucket also keeps a candidate band for live ranking. A phone leaves the band once
+ * phones of {@value #BAND_DEPTH} other model families, earlier in catalog order, match or
+ * beat it on all five features and the unified score: for any non-negative weights those
+ * families outrank it, so it can never reach the top {@value #BAND_DEPTH}.
+ *
+ * Same lifecycle as {@link PriorityRankingTables}: built in the background on startup,
+ * and a partial refresh recomputes only buckets whose price range saw a changed phone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkylineIndex {
+
+    // Deepest ranking the band is exact for
+    static final int BAND_DEPTH = RecommendationService.MAX_RECOMMENDATIONS;
+
+    private final PhoneCatalog phoneCatalog;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "skyline-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Skylines skylines;
+
+    /**
+     * Skyline of a budget bucket, cheapest first
+     * matchScore carries the phone's unified score.
+     * @return null if the range is not one of the standard buckets
+     */
+    public List<PhoneRecommendation> skyline(RecommendationRequest.BudgetRange budgetRange) {
+        int bucket = PriorityRankingTables.bucketIndex(budgetRange);
+        if (bucket < 0) {
+            return null;
+        }
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        int from = catalog.lowerBound(budgetRange.getMin());
+        int to = Math.max(from, catalog.upperBound(budgetRange.getMax()));
+
+        // Lagging the catalog: compute this one bucket on the spot
+        Skylines current = skylines;
+        int[] offsets = current != null && current.builtFrom.sharesDataWith(catalog)
+            ? current.buckets[bucket].skyline : computeSkyline(catalog, from, to);
+
+        List<PhoneRecommendation> result = new ArrayList<>(offsets.length);
+        for (int offset : offsets) {
+            result.add(PhoneRecommendation.fromPhone(catalog.get(from + offset), catalog.unifiedScoreAt(from + offset)));
+        }
+        return result;
+    }
+
+    /**
+     * Candidate band to rank instead of the whole bucket, or null if it would not be exact
+     * The band only stands in for a standard bucket ranked to at most {@value #BAND_DEPTH}
+     * families with non-negative weights.
+     */
+    public PhoneCatalog.Snapshot band(RecommendationRequest.BudgetRange budgetRange,
+                                      Map<String, Integer> priorities, int depth,
+                                      PhoneCatalog.Snapshot catalog) {
+        Skylines current = skylines;
+        if (current == null || !current.builtFrom.sharesDataWith(catalog)
+                || depth > BAND_DEPTH) {
+            return null;
+        }
+        int bucket = PriorityRankingTables.bucketIndex(budgetRange);
+        if (bucket < 0) {
+            return null;
+        }
+        for (int weight : CandidateRanker.scorerWeights(priorities)) {
+            if (weight < 0) {
+                return null;
+            }
+        }
+        return current.buckets[bucket].band;
+    }
+
+    public boolean isReady() {
+        return skylines != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(() -> {
+            try {
+                rebuild(phoneCatalog.snapshot());
+            } catch (Exception e) {
+                log.error("Failed to build skyline index: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Queued on the single worker thread so refreshes are applied in publish order
+     */
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        executor.execute(() -> {
+            try {
+                apply(event);
+            } catch (Exception e) {
+                // A stale index no longer matches the catalog, so requests rank the whole bucket
+                log.error("Failed to update skyline index after {}: {}", event, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Compute every bucket from scratch
+     */
+    void rebuild(PhoneCatalog.Snapshot catalog) {
+        long start = System.currentTimeMillis();
+        BucketSkyline[] buckets = new BucketSkyline[PriorityRankingTables.BUCKETS.size()];
+        int skylinePhones = 0;
+        int bandPhones = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = buildBucket(catalog, PriorityRankingTables.BUCKETS.get(i));
+            skylinePhones += buckets[i].skyline.length;
+            bandPhones += buckets[i].band.size();
+        }
+        skylines = new Skylines(catalog, buckets);
+        log.info("Skyline index built: {} buckets, {} skyline phones, {} band phones over {} phones in {} ms",
+                 buckets.length, skylinePhones, bandPhones, catalog.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Bring the index up to date with a refreshed catalog, recomputing only touched buckets
+     */
+    void apply(CatalogRefreshedEvent event) {
+        Skylines current = skylines;
+        if (event.isFullReload() || current == null || !current.builtFrom.sharesDataWith(event.getPrevious())) {
+            rebuild(event.getCurrent());
+            return;
+        }
+
+        boolean[] touched = PriorityRankingTables.touchedBuckets(event);
+        BucketSkyline[] buckets = current.buckets.clone();
+        int rebuilt = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (touched[i]) {
+                buckets[i] = buildBucket(event.getCurrent(), PriorityRankingTables.BUCKETS.get(i));
+                rebuilt++;
+            }
+        }
+        skylines = new Skylines(event.getCurrent(), buckets);
+        log.debug("Skyline index updated: {} of {} buckets recomputed for {} changed phones",
+                  rebuilt, buckets.length, event.getChangedIds().size());
+    }
+
+    private static BucketSkyline buildBucket(PhoneCatalog.Snapshot catalog, RecommendationRequest.BudgetRange range) {
+        int from = catalog.lowerBound(range.getMin());
+        int to = Math.max(from, catalog.upperBound(range.getMax()));
+        return new BucketSkyline(computeSkyline(catalog, from, to), computeBand(catalog, from, to));
+    }
+
+    /**
+     * Skyline of catalog entries [from, to), as offsets from from
+     * Phones of one price are checked against the skyline of cheaper phones first
+     * (any match-or-beat there dominates), then against each other.
+     */
+    static int[] computeSkyline(PhoneCatalog.Snapshot catalog, int from, int to) {
+        FeatureMatrix features = catalog.features();
+        List<Integer> skyline = new ArrayList<>();
+        int runStart = from;
+        while (runStart < to) {
+            int runEnd = runStart + 1;
+            while (runEnd < to && catalog.priceAt(runEnd) == catalog.priceAt(runStart)) {
+                runEnd++;
+            }
+
+            List<Integer> survivors = new ArrayList<>();
+            for (int i = runStart; i < runEnd; i++) {
+                if (!coveredBy(features, skyline, from, i)) {
+                    survivors.add(i);
+                }
+            }
+            for (int i : survivors) {
+                boolean dominated = false;
+                for (int j : survivors) {
+                    if (j != i && covers(features, j, i) && !covers(features, i, j)) {
+                        dominated = true;
+                        break;
+                    }
+                }
+                if (!dominated) {
+                    skyline.add(i - from);
+                }
+            }
+            runStart = runEnd;
+        }
+        return skyline.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Catalog entries [from, to) that can still reach the top BAND_DEPTH, in catalog order
+     */
+    static PhoneCatalog.Snapshot computeBand(PhoneCatalog.Snapshot catalog, int from, int to) {
+        FeatureMatrix features = catalog.features();
+        int[] band = new int[to - from];
+        int size = 0;
+        String[] dominatingFamilies = new String[BAND_DEPTH];
+        for (int i = from; i < to; i++) {
+            String family = catalog.familyKeyAt(i);
+            int dominating = 0;
+            for (int b = 0; b < size && dominating < BAND_DEPTH; b++) {
+                int j = band[b];
+                if (catalog.unifiedScoreAt(j) < catalog.unifiedScoreAt(i) || !covers(features, j, i)) {
+                    continue;
+                }
+                String other = catalog.familyKeyAt(j);
+                if (!other.equals(family) && !contains(dominatingFamilies, dominating, other)) {
+                    dominatingFamilies[dominating++] = other;
+                }
+            }
+            if (dominating < BAND_DEPTH) {
+                band[size++] = i;
+            }
+        }
+
+        Phone[] phones = new Phone[size];
+        int[] prices = new int[size];
+        int[] unifiedScores = new int[size];
+        String[] familyKeys = new String[size];
+        for (int b = 0; b < size; b++) {
+            phones[b] = catalog.get(band[b]);
+            prices[b] = catalog.priceAt(band[b]);
+            unifiedScores[b] = catalog.unifiedScoreAt(band[b]);
+            familyKeys[b] = catalog.familyKeyAt(band[b]);
+        }
+        return new PhoneCatalog.Snapshot(catalog.getVersion(), phones, prices, unifiedScores, familyKeys);
+    }
+
+    private static boolean coveredBy(FeatureMatrix features, List<Integer> skyline, int from, int i) {
+        for (int offset : skyline) {
+            if (covers(features, from + offset, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if phone a scores at least as well as phone b on every feature
+     */
+    private static boolean covers(FeatureMatrix features, int a, int b) {
+        return features.camera[a] >= features.camera[b]
+            && features.battery[a] >= features.battery[b]
+            && features.software[a] >= features.software[b]
+            && features.privacy[a] >= features.privacy[b]
+            && features.looks[a] >= features.looks[b];
+    }
+
+    private static boolean contains(String[] families, int count, String family) {
+        for (int i = 0; i < count; i++) {
+            if (families[i].equals(family)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Skylines {
+        private final PhoneCatalog.Snapshot builtFrom;
+        private final BucketSkyline[] buckets;
+
+        Skylines(PhoneCatalog.Snapshot builtFrom, BucketSkyline[] buckets) {
+            this.builtFrom = builtFrom;
+            this.buckets = buckets;
+        }
+    }
+
+    /**
+     * One bucket: skyline as offsets from the bucket's first catalog index, plus the ranking band
+     */
+    private static final class BucketSkyline {
+        private final int[] skyline;
+        private final PhoneCatalog.Snapshot band;
+
+        BucketSkyline(int[] skyline, PhoneCatalog.Snapshot band) {
+            this.skyline = skyline;
+            this.band = band;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+import com.phonepick.advisor.model.SpecFilters;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spec facets (RAM, storage, display type, refresh rate, battery, 5G) for hard filters
+ * Each ranked catalog entry's free-text specs are parsed once into discrete facet
+ * values, and every value keeps a bitmap of the catalog indexes holding it. A filter
+ * ORs the bitmaps of the values it accepts ("8 GB or more" = 8 | 12 | 16), filters
+ * AND together, and the budget range is just a run of bits, so only the surviving
+ * phones are scored. Facet counts are computed the usual way for drill-down: each
+ * facet is counted under every filter except its own.
+ *
+ * Variants collapsed into one ranking entry share price and scores; the entry's
+ * representative listing stands for their specs. Bitmaps are rebuilt per catalog
+ * refresh (indexes shift with prices), but parsed values are reused for every phone
+ * that did not change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpecFacetIndex {
+
+    private static final Pattern RAM = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(MB|GB)\\s*RAM", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STORAGE = Pattern.compile("(\\d+)\\s*(MB|GB|TB)\\s*ROM", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REFRESH_RATE = Pattern.compile("(\\d{2,3})\\s*Hz", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BATTERY = Pattern.compile("(\\d+)\\s*mAh", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FIVE_G = Pattern.compile("\\b5G\\b", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Facets in response order, with the parsed value each one reads
+     */
+    enum Facet {
+        RAM_GB("ramGb", specs -> specs.ramGb),
+        STORAGE_GB("storageGb", specs -> specs.storageGb),
+        EXPANDABLE_STORAGE("expandableStorage", specs -> specs.expandable),
+        DISPLAY_TYPE("displayType", specs -> specs.displayType),
+        REFRESH_RATE_HZ("refreshRateHz", specs -> specs.refreshRateHz),
+        BATTERY_MAH("batteryMah", specs -> specs.batteryMah),
+        FIVE_G("fiveG", specs -> specs.fiveG);
+
+        private final String name;
+        private final Function<Specs, Object> value;
+
+        Facet(String name, Function<Specs, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private final PhoneCatalog phoneCatalog;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Index index;
+
+    /**
+     * Catalog indexes in [from, to) that pass every filter
+     */
+    public BitSet matching(SpecFilters filters, PhoneCatalog.Snapshot catalog, int from, int to) {
+        Index current = indexFor(catalog);
+        BitSet matching = range(from, to);
+        constraintsOf(filters).forEach((facet, accepts) -> matching.and(current.union(facet, accepts)));
+        return matching;
+    }
+
+    /**
+     * Phone counts per facet value in [from, to), each facet under all the other filters
+     * Values no phone in the range has are left out.
+     */
+    public Map<String, Map<String, Integer>> counts(SpecFilters filters, PhoneCatalog.Snapshot catalog, int from, int to) {
+        Index current = indexFor(catalog);
+        Map<Facet, Predicate<Object>> constraints = constraintsOf(filters);
+        Map<Facet, BitSet> passing = new EnumMap<>(Facet.class);
+        constraints.forEach((facet, accepts) -> passing.put(facet, current.union(facet, accepts)));
+
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            BitSet base = range(from, to);
+            passing.forEach((other, bits) -> {
+                if (other != facet) {
+                    base.and(bits);
+                }
+            });
+            Map<String, Integer> values = new LinkedHashMap<>();
+            for (Map.Entry<Object, BitSet> entry : current.facets.get(facet).entrySet()) {
+                BitSet bits = (BitSet) base.clone();
+                bits.and(entry.getValue());
+                int count = bits.cardinality();
+                if (count > 0) {
+                    values.put(String.valueOf(entry.getKey()), count);
+                }
+            }
+            counts.put(facet.name, values);
+        }
+        return counts;
+    }
+
+    /**
+     * Phones passing the filters in a price range of the current catalog, with facet counts
+     * (the GET /api/phones/facets body)
+     */
+    public Map<String, Object> summary(SpecFilters filters, RecommendationRequest.BudgetRange budgetRange) {
+        PhoneCatalog.Snapshot catalog = phoneCatalog.snapshot();
+        int from = catalog.lowerBound(budgetRange.getMin());
+        int to = Math.max(from, catalog.upperBound(budgetRange.getMax()));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("candidateCount", matching(filters, catalog, from, to).cardinality());
+        response.put("facets", counts(filters, catalog, from, to));
+        return response;
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        lock.lock();
+        try {
+            index = build(event.getCurrent(), index);
+        } catch (Exception e) {
+            // Dropped here, rebuilt from the queried catalog on the next request
+            index = null;
+            log.error("Failed to update spec facet index after {}: {}", event, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Index indexFor(PhoneCatalog.Snapshot catalog) {
+        Index current = index;
+        if (current != null && current.catalog.sharesDataWith(catalog)) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (index == null || !index.catalog.sharesDataWith(catalog)) {
+                index = build(catalog, index);
+            }
+            return index;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Accepted values per filtered facet
+     */
+    static Map<Facet, Predicate<Object>> constraintsOf(SpecFilters filters) {
+        Map<Facet, Predicate<Object>> constraints = new EnumMap<>(Facet.class);
+        if (filters == null) {
+            return constraints;
+        }
+        if (filters.getMinRamGb() != null) {
+            constraints.put(Facet.RAM_GB, atLeast(filters.getMinRamGb()));
+        }
+        if (filters.getMinStorageGb() != null) {
+            constraints.put(Facet.STORAGE_GB, atLeast(filters.getMinStorageGb()));
+        }
+        if (filters.getExpandableStorage() != null) {
+            constraints.put(Facet.EXPANDABLE_STORAGE, filters.getExpandableStorage()::equals);
+        }
+        if (filters.getDisplayTypes() != null && !filters.getDisplayTypes().isEmpty()) {
+            Set<String> types = filters.getDisplayTypes().stream()
+                .map(type -> type.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+            constraints.put(Facet.DISPLAY_TYPE, types::contains);
+        }
+        if (filters.getMinRefreshRateHz() != null) {
+            constraints.put(Facet.REFRESH_RATE_HZ, atLeast(filters.getMinRefreshRateHz()));
+        }
+        if (filters.getMinBatteryMah() != null) {
+            constraints.put(Facet.BATTERY_MAH, atLeast(filters.getMinBatteryMah()));
+        }
+        if (filters.getFiveG() != null) {
+            constraints.put(Facet.FIVE_G, filters.getFiveG()::equals);
+        }
+        return constraints;
+    }
+
+    private static Predicate<Object> atLeast(int min) {
+        return value -> (Integer) value >= min;
+    }
+
+    private static BitSet range(int from, int to) {
+        BitSet bits = new BitSet(to);
+        if (to > from) {
+            bits.set(from, to);
+        }
+        return bits;
+    }
+
+    /**
+     * Index for a catalog, reusing the parsed specs of phones the previous index already saw
+     */
+    static Index build(PhoneCatalog.Snapshot catalog, Index previous) {
+        Specs[] specs = new Specs[catalog.size()];
+        Map<Facet, Map<Object, BitSet>> facets = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            facets.put(facet, new HashMap<>());
+        }
+        int reused = 0;
+        for (int i = 0; i < catalog.size(); i++) {
+            Phone phone = catalog.get(i);
+            int before = previous != null ? previous.catalog.indexOf(phone.getId()) : -1;
+            if (before >= 0 && previous.catalog.get(before) == phone) {
+                specs[i] = previous.specs[before];
+                reused++;
+            } else {
+                specs[i] = Specs.parse(phone);
+            }
+            for (Facet facet : Facet.values()) {
+                Object value = facet.value.apply(specs[i]);
+                if (value != null) {
+                    facets.get(facet).computeIfAbsent(value, key -> new BitSet(catalog.size())).set(i);
+                }
+            }
+        }
+        // Values in ascending order, as the counts list them
+        Map<Facet, Map<Object, BitSet>> sorted = new EnumMap<>(Facet.class);
+        facets.forEach((facet, values) -> {
+            Map<Object, BitSet> ordered = new LinkedHashMap<>();
+            values.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(SpecFacetIndex::compareValues))
+                .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+            sorted.put(facet, ordered);
+        });
+        log.debug("Spec facet index built for catalog version {}: {} phones, {} parsed specs reused",
+                  catalog.getVersion(), catalog.size(), reused);
+        return new Index(catalog, specs, sorted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    static final class Index {
+        private final PhoneCatalog.Snapshot catalog;
+        private final Specs[] specs;
+        private final Map<Facet, Map<Object, BitSet>> facets;
+
+        Index(PhoneCatalog.Snapshot catalog, Specs[] specs, Map<Facet, Map<Object, BitSet>> facets) {
+            this.catalog = catalog;
+            this.specs = specs;
+            this.facets = facets;
+        }
+
+        /**
+         * Catalog indexes holding any accepted value of the facet
+         */
+        BitSet union(Facet facet, Predicate<Object> accepts) {
+            BitSet union = new BitSet(catalog.size());
+            for (Map.Entry<Object, BitSet> entry : facets.get(facet).entrySet()) {
+                if (accepts.test(entry.getKey())) {
+                    union.or(entry.getValue());
+                }
+            }
+            return union;
+        }
+    }
+
+    /**
+     * Facet values parsed from one phone's spec text; null where the text does not say
+     */
+    static final class Specs {
+        private final Integer ramGb;
+        private final Integer storageGb;
+        private final Boolean expandable;
+        private final String displayType;
+        private final Integer refreshRateHz;
+        private final Integer batteryMah;
+        private final Boolean fiveG;
+
+        private Specs(Integer ramGb, Integer storageGb, Boolean expandable, String displayType,
+                      Integer refreshRateHz, Integer batteryMah, Boolean fiveG) {
+            this.ramGb = ramGb;
+            this.storageGb = storageGb;
+            this.expandable = expandable;
+            this.displayType = displayType;
+            this.refreshRateHz = refreshRateHz;
+            this.batteryMah = batteryMah;
+            this.fiveG = fiveG;
+        }
+
+        static Specs parse(Phone phone) {
+            String memory = phone.getMemory_and_storage();
+            String display = phone.getDisplayInfo();
+            Integer ramGb = null;
+            Integer storageGb = null;
+            Boolean expandable = null;
+            if (memory != null) {
+                Matcher ram = RAM.matcher(memory);
+                if (ram.find()) {
+                    // Feature phones list RAM in MB; they count as 0 GB
+                    double amount = Double.parseDouble(ram.group(1));
+                    ramGb = (int) (ram.group(2).equalsIgnoreCase("MB") ? amount / 1024 : amount);
+                }
+                Matcher storage = STORAGE.matcher(memory);
+                if (storage.find()) {
+                    int amount = Integer.parseInt(storage.group(1));
+                    String unit = storage.group(2).toUpperCase(Locale.ROOT);
+                    storageGb = unit.equals("TB") ? amount * 1024 : unit.equals("MB") ? amount / 1024 : amount;
+                }
+                expandable = memory.toLowerCase(Locale.ROOT).contains("expandable");
+            }
+            String displayType = null;
+            Integer refreshRateHz = null;
+            if (display != null) {
+                String lower = display.toLowerCase(Locale.ROOT);
+                if (lower.contains("amoled")) {
+                    displayType = "AMOLED";
+                } else if (lower.contains("oled")) {
+                    displayType = "OLED";
+                } else if (lower.contains("lcd") || lower.contains("ips")) {
+                    displayType = "LCD";
+                }
+                Matcher refresh = REFRESH_RATE.matcher(display);
+                if (refresh.find()) {
+                    refreshRateHz = Integer.parseInt(refresh.group(1));
+                }
+            }
+            Integer batteryMah = null;
+            if (phone.getBattery() != null) {
+                Matcher battery = BATTERY.matcher(phone.getBattery());
+                if (battery.find()) {
+                    batteryMah = Integer.parseInt(battery.group(1));
+                }
+            }
+            boolean fiveG = (phone.getModel() != null && FIVE_G.matcher(phone.getModel()).find())
+                || (phone.getProcessor() != null && FIVE_G.matcher(phone.getProcessor()).find());
+            return new Specs(ramGb, storageGb, expandable, displayType, refreshRateHz, batteryMah, fiveG);
+        }
+
+        List<Object> values() {
+            List<Object> values = new ArrayList<>();
+            for (Facet facet : Facet.values()) {
+                values.add(facet.value.apply(this));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.phonepick.advisor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.phonepick.advisor.model.Phone;
+
+/**
+ * A phone's spec strings reduced to the values the spec scorers read
+ * Each string is tokenized in one pass: digit runs are read together with the unit
+ * after them (MP, mAh, W, GB) and keywords are matched case-insensitively at every
+ * position, so no lower-cased copies, regex matchers or substrings are created.
+ * Keywords match anywhere in the text, as String.contains on the lower-cased text
+ * did, so {@link PhoneSpecScoringService} scores are unchanged.
+ */
+public final class SpecProfile {
+
+    /**
+     * Panel family named in the display text
+     */
+    public enum Panel { UNKNOWN, LCD, OLED, AMOLED }
+
+    /**
+     * Highest resolution class named in the display text
+     */
+    public enum Resolution { UNKNOWN, HD, FHD, QHD }
+
+    /**
+     * Chipsets the processor scorer knows, most specific match first
+     * When the text names several, the earliest constant wins.
+     */
+    public enum Chipset {
+        SNAPDRAGON_8_GEN_3("snapdragon 8 gen 3|sd 8 gen 3"),
+        SNAPDRAGON_8_GEN_2("snapdragon 8 gen 2|sd 8 gen 2"),
+        SNAPDRAGON_8_PLUS_GEN_1("snapdragon 8+ gen 1|sd 8+ gen 1"),
+        SNAPDRAGON_8_GEN_1("snapdragon 8 gen 1|sd 8 gen 1"),
+        SNAPDRAGON_888("snapdragon 888"),
+        DIMENSITY_9200("dimensity 9200|dimensity 9300"),
+        DIMENSITY_9000("dimensity 9000"),
+        EXYNOS_2400("exynos 2400"),
+        EXYNOS_2200("exynos 2200"),
+        SNAPDRAGON_7_GEN_3("snapdragon 7+ gen 3|snapdragon 7s gen 3"),
+        SNAPDRAGON_7_GEN_2("snapdragon 7+ gen 2|snapdragon 7s gen 2"),
+        SNAPDRAGON_778("snapdragon 778|snapdragon 780"),
+        DIMENSITY_8200("dimensity 8200|dimensity 8300"),
+        DIMENSITY_7200("dimensity 7200"),
+        SNAPDRAGON_6_OR_4("snapdragon 6|snapdragon 4"),
+        DIMENSITY_6("dimensity 6"),
+        HELIO_G("helio g"),
+        UNKNOWN(null);
+
+        private final String keywords;
+
+        Chipset(String keywords) {
+            this.keywords = keywords;
+        }
+    }
+
+    private static final Chipset[] CHIPSETS = Chipset.values();
+    private static final int KNOWN_CHIPSETS = CHIPSETS.length - 1;
+
+    private static final int[] UFS_VERSIONS = {40, 31, 30};
+    private static final int[] PROCESS_NODES = {3, 4, 5, 6};
+    private static final int[] REFRESH_RATES = {144, 120, 90, 60};
+    private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    // One bit per group, in declaration order
+    private static final Keywords CAMERA_WORDS = new Keywords(
+        "ois|optical stabilization", "telephoto|periscope", "ultra wide|ultrawide", "macro", "night mode|night sight");
+    private static final Keywords BATTERY_WORDS = new Keywords("wireless", "reverse charging");
+    private static final Keywords MEMORY_WORDS = new Keywords(
+        "expandable|card slot|microsd", "ufs 4.0", "ufs 3.1", "ufs 3.0");
+    private static final Keywords PROCESSOR_WORDS = processorWords();
+    private static final Keywords DISPLAY_WORDS = new Keywords(
+        "amoled", "oled", "lcd", "144hz|144 hz", "120hz|120 hz", "90hz|90 hz", "60hz|60 hz",
+        "2k|1440p|quad hd", "fhd+|1080p|full hd", "hd+", "ltpo|adaptive refresh", "hdr10", "dolby vision",
+        "gorilla glass|victus");
+
+    private final boolean cameraInfo;
+    private final int maxCameraMp;
+    private final int cameraCount;
+    private final long cameraFeatures;
+
+    private final boolean batteryInfo;
+    private final int batteryMah;
+    private final int chargingWatts;
+    private final long batteryFeatures;
+
+    private final boolean memoryInfo;
+    private final int ramGb;
+    private final int storageGb;
+    private final boolean expandableStorage;
+    private final int ufsVersion;
+
+    private final boolean processorInfo;
+    private final Chipset chipset;
+    private final int processNodeNm;
+
+    private final boolean displayInfo;
+    private final Panel panel;
+    private final int refreshRateHz;
+    private final Resolution resolution;
+    private final double displaySize;
+    private final long displayFeatures;
+
+    private SpecProfile(String camera, String battery, String memory, String processor, String display) {
+        // Camera: largest "<n> MP", lenses counted as '+'-separated parts (as String.split counts them)
+        int maxMp = 0;
+        int lenses = 0;
+        long cameraMask = 0;
+        cameraInfo = stated(camera);
+        if (cameraInfo) {
+            int pluses = 0;
+            int trailingPluses = 0;
+            for (int i = 0, n = camera.length(); i < n; i++) {
+                if (camera.charAt(i) == '+') {
+                    pluses++;
+                    trailingPluses++;
+                } else {
+                    trailingPluses = 0;
+                }
+                if (runStart(camera, i)) {
+                    int end = runEnd(camera, i);
+                    if (unitAt(camera, end, "mp")) {
+                        maxMp = Math.max(maxMp, number(camera, i, end));
+                    }
+                }
+                cameraMask |= CAMERA_WORDS.matchAt(camera, i);
+            }
+            lenses = pluses + 1 - trailingPluses;
+        }
+        maxCameraMp = maxMp;
+        cameraCount = lenses;
+        cameraFeatures = cameraMask;
+
+        // Battery: first "<n> mAh" and first "<n> W"
+        int mah = 0;
+        int watts = 0;
+        long batteryMask = 0;
+        batteryInfo = stated(battery);
+        if (batteryInfo) {
+            boolean mahFound = false;
+            boolean wattsFound = false;
+            for (int i = 0, n = battery.length(); i < n; i++) {
+                if (runStart(battery, i)) {
+                    int end = runEnd(battery, i);
+                    if (!mahFound && unitAt(battery, end, "mah")) {
+                        mah = number(battery, i, end);
+                        mahFound = true;
+                    }
+                    if (!wattsFound && unitAt(battery, end, "w")) {
+                        watts = number(battery, i, end);
+                        wattsFound = true;
+                    }
+                }
+                batteryMask |= BATTERY_WORDS.matchAt(battery, i);
+            }
+        }
+        batteryMah = mah;
+        chargingWatts = watts;
+        batteryFeatures = batteryMask;
+
+        // Memory: first "<n> GB RAM", largest other "<n> GB"
+        int ram = 0;
+        int storage = 0;
+        long memoryMask = 0;
+        memoryInfo = stated(memory);
+        if (memoryInfo) {
+            boolean ramFound = false;
+            for (int i = 0, n = memory.length(); i < n; i++) {
+                if (runStart(memory, i)) {
+                    int end = runEnd(memory, i);
+                    int unit = skipSpace(memory, end);
+                    if (memory.regionMatches(true, unit, "gb", 0, 2)) {
+                        if (!unitAt(memory, unit + 2, "ram")) {
+                            storage = Math.max(storage, number(memory, i, end));
+                        } else if (!ramFound) {
+                            ram = number(memory, i, end);
+                            ramFound = true;
+                        }
+                    }
+                }
+                memoryMask |= MEMORY_WORDS.matchAt(memory, i);
+            }
+        }
+        ramGb = ram;
+        storageGb = storage;
+        expandableStorage = (memoryMask & 1) != 0;
+        ufsVersion = firstOf(memoryMask >>> 1, UFS_VERSIONS);
+
+        processorInfo = stated(processor);
+        long processorMask = processorInfo ? PROCESSOR_WORDS.scan(processor) : 0;
+        long chipsetMask = processorMask & ((1L << KNOWN_CHIPSETS) - 1);
+        chipset = chipsetMask == 0 ? Chipset.UNKNOWN : CHIPSETS[Long.numberOfTrailingZeros(chipsetMask)];
+        processNodeNm = firstOf(processorMask >>> KNOWN_CHIPSETS, PROCESS_NODES);
+
+        // Display: keywords plus the first decimal number
+        double size = 0;
+        long displayMask = 0;
+        displayInfo = stated(display);
+        if (displayInfo) {
+            boolean sizeFound = false;
+            for (int i = 0, n = display.length(); i < n; i++) {
+                if (!sizeFound && runStart(display, i)) {
+                    int end = runEnd(display, i);
+                    if (end + 1 < n && display.charAt(end) == '.' && isDigit(display.charAt(end + 1))) {
+                        size = decimal(display, i, end, runEnd(display, end + 1));
+                        sizeFound = true;
+                    }
+                }
+                displayMask |= DISPLAY_WORDS.matchAt(display, i);
+            }
+        }
+        panel = (displayMask & 1) != 0 ? Panel.AMOLED
+            : (displayMask & 2) != 0 ? Panel.OLED
+            : (displayMask & 4) != 0 ? Panel.LCD
+            : Panel.UNKNOWN;
+        refreshRateHz = firstOf(displayMask >>> 3, REFRESH_RATES);
+        resolution = (displayMask & (1L << 7)) != 0 ? Resolution.QHD
+            : (displayMask & (1L << 8)) != 0 ? Resolution.FHD
+            : (displayMask & (1L << 9)) != 0 ? Resolution.HD
+            : Resolution.UNKNOWN;
+        displaySize = size;
+        displayFeatures = displayMask >>> 10;
+    }
+
+    public static SpecProfile of(Phone phone) {
+        return new SpecProfile(phone.getCameraInfo(), phone.getBattery(), phone.getMemory_and_storage(),
+            phone.getProcessor(), phone.getDisplayInfo());
+    }
+
+    /**
+     * Profile of raw spec strings; any of them may be null
+     */
+    public static SpecProfile of(String camera, String battery, String memory, String processor, String display) {
+        return new SpecProfile(camera, battery, memory, processor, display);
+    }
+
+    public boolean hasCameraInfo() { return cameraInfo; }
+    public int getMaxCameraMp() { return maxCameraMp; }
+    public int getCameraCount() { return cameraCount; }
+    public boolean hasOpticalStabilization() { return (cameraFeatures & 1) != 0; }
+    public boolean hasTelephoto() { return (cameraFeatures & 2) != 0; }
+    public boolean hasUltraWide() { return (cameraFeatures & 4) != 0; }
+    public boolean hasMacro() { return (cameraFeatures & 8) != 0; }
+    public boolean hasNightMode() { return (cameraFeatures & 16) != 0; }
+
+    public boolean hasBatteryInfo() { return batteryInfo; }
+    public int getBatteryMah() { return batteryMah; }
+    public int getChargingWatts() { return chargingWatts; }
+    public boolean hasWirelessCharging() { return (batteryFeatures & 1) != 0; }
+    public boolean hasReverseCharging() { return (batteryFeatures & 2) != 0; }
+
+    public boolean hasMemoryInfo() { return memoryInfo; }
+    public int getRamGb() { return ramGb; }
+    public int getStorageGb() { return storageGb; }
+    public boolean isExpandableStorage() { return expandableStorage; }
+
+    /**
+     * UFS version times ten (31 for UFS 3.1), 0 when not stated
+     */
+    public int getUfsVersion() { return ufsVersion; }
+
+    public boolean hasProcessorInfo() { return processorInfo; }
+    public Chipset getChipset() { return chipset; }
+
+    /**
+     * Process node in nm (3 to 6), 0 when not stated
+     */
+    public int getProcessNodeNm() { return processNodeNm; }
+
+    public boolean hasDisplayInfo() { return displayInfo; }
+    public Panel getPanel() { return panel; }
+
+    /**
+     * 144, 120, 90 or 60, 0 when none of them is stated
+     */
+    public int getRefreshRateHz() { return refreshRateHz; }
+    public Resolution getResolution() { return resolution; }
+
+    /**
+     * First decimal number in the display text, 0 if there is none
+     * Flipkart text leads with centimetres ("17.02 cm (6.7 inch)"), so this is not always inches.
+     */
+    public double getDisplaySize() { return displaySize; }
+    public boolean hasAdaptiveRefresh() { return (displayFeatures & 1) != 0; }
+    public boolean hasHdr() { return (displayFeatures & 2) != 0; }
+    public boolean hasDolbyVision() { return (displayFeatures & 4) != 0; }
+    public boolean hasToughenedGlass() { return (displayFeatures & 8) != 0; }
+
+    private static Keywords processorWords() {
+        String[] groups = new String[KNOWN_CHIPSETS + PROCESS_NODES.length];
+        for (int i = 0; i < KNOWN_CHIPSETS; i++) {
+            groups[i] = CHIPSETS[i].keywords;
+        }
+        for (int i = 0; i < PROCESS_NODES.length; i++) {
+            groups[KNOWN_CHIPSETS + i] = PROCESS_NODES[i] + "nm|" + PROCESS_NODES[i] + " nm";
+        }
+        return new Keywords(groups);
+    }
+
+    private static boolean stated(String text) {
+        return text != null && !text.isEmpty();
+    }
+
+    /**
+     * Value of the lowest set bit among values.length bits, 0 if none is set
+     */
+    private static int firstOf(long mask, int[] values) {
+        long bits = mask & ((1L << values.length) - 1);
+        return bits == 0 ? 0 : values[Long.numberOfTrailingZeros(bits)];
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Same characters as the regex \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean runStart(String text, int i) {
+        return isDigit(text.charAt(i)) && (i == 0 || !isDigit(text.charAt(i - 1)));
+    }
+
+    private static int runEnd(String text, int i) {
+        while (i < text.length() && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpace(String text, int i) {
+        while (i < text.length() && isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Whether unit follows position at, after optional whitespace
+     */
+    private static boolean unitAt(String text, int at, String unit) {
+        return text.regionMatches(true, skipSpace(text, at), unit, 0, unit.length());
+    }
+
+    // Saturates instead of overflowing on absurdly long digit runs
+    private static int number(String text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to && value <= Integer.MAX_VALUE; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    /**
+     * digits '.' digits; exact like Double.parseDouble while the digits fit a double's mantissa
+     */
+    private static double decimal(String text, int from, int point, int to) {
+        int fractionDigits = to - point - 1;
+        if (point - from + fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text.substring(from, to));
+        }
+        long mantissa = 0;
+        for (int i = from; i < to; i++) {
+            if (i != point) {
+                mantissa = mantissa * 10 + (text.charAt(i) - '0');
+            }
+        }
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    /**
+     * Case-insensitive keyword groups; bit i of a match mask is group i
+     * Groups are '|'-separated alternatives. Candidates are bucketed by first letter.
+     */
+    static final class Keywords {
+
+        private final char[][] words;
+        private final long[] bits;
+        private final int[][] byFirstChar = new int[128][];
+
+        Keywords(String... alternatives) {
+            List<String> wordList = new ArrayList<>();
+            List<Integer> groupList = new ArrayList<>();
+            for (int group = 0; group < alternatives.length; group++) {
+                for (String word : alternatives[group].split("\\|")) {
+                    wordList.add(word);
+                    groupList.add(group);
+                }
+            }
+            words = new char[wordList.size()][];
+            bits = new long[words.length];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = wordList.get(w).toCharArray();
+                bits[w] = 1L << groupList.get(w);
+                char first = words[w][0];
+                int[] bucket = byFirstChar[first];
+                bucket = bucket == null ? new int[1] : Arrays.copyOf(bucket, bucket.length + 1);
+                bucket[bucket.length - 1] = w;
+                byFirstChar[first] = bucket;
+            }
+        }
+
+        long matchAt(String text, int at) {
+            char c = lower(text.charAt(at));
+            int[] candidates = c < byFirstChar.length ? byFirstChar[c] : null;
+            if (candidates == null) {
+                return 0;
+            }
+            long mask = 0;
+            int remaining = text.length() - at;
+            for (int w : candidates) {
+                char[] word = words[w];
+                if (word.length > remaining) {
+                    continue;
+                }
+                int k = 1;
+                while (k < word.length && lower(text.charAt(at + k)) == word[k]) {
+                    k++;
+                }
+                if (k == word.length) {
+                    mask |= bits[w];
+                }
+            }
+            return mask;
+        }
+
+        long scan(String text) {
+            long mask = 0;
+            for (int i = 0, n = text.length(); i < n; i++) {
+                mask |= matchAt(text, i);
+            }
+            return mask;
+        }
+
+        private static char lower(char c) {
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return c < 128 ? c : Character.toLowerCase(c);
+        }
+    }
+}
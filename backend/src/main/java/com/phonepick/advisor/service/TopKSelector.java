@@ -0,0 +1,179 @@
+package com.phonepick.advisor.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-pass top-K selection with per-family deduplication
+ * Keeps a bounded min-heap of at most K families; a family's entry is only
+ * replaced when a higher-scoring variant arrives. Items are int payloads
+ * (catalog indexes) so offering a candidate allocates nothing unless it
+ * enters the heap.
+ *
+ * Ordering: higher score first, ties go to the earlier arrival.
+ */
+public class TopKSelector implements RankedCandidates {
+
+    private final int k;
+    private final int[] scores;
+    private final int[] items;
+    private final long[] arrivals;
+    private final Object[] keys;
+    private final Map<Object, Integer> slotByKey;
+    private int size;
+    private long arrival;
+    private boolean finished;
+
+    public TopKSelector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.scores = new int[k];
+        this.items = new int[k];
+        this.arrivals = new long[k];
+        this.keys = new Object[k];
+        this.slotByKey = new HashMap<>(Math.min(k, 1024) * 2);
+    }
+
+    /**
+     * Offer a candidate
+     * @param familyKey variants with equal keys compete for a single slot
+     * @param score ranking score, higher is better
+     * @param item payload returned by {@link #itemAt(int)}
+     */
+    public void offer(Object familyKey, int score, int item) {
+        if (finished) {
+            throw new IllegalStateException("Selector already finished");
+        }
+        long seq = arrival++;
+
+        Integer slot = slotByKey.get(familyKey);
+        if (slot != null) {
+            // Same family already present: keep the better variant
+            if (score > scores[slot]) {
+                scores[slot] = score;
+                items[slot] = item;
+                arrivals[slot] = seq;
+                siftDown(slot);
+            }
+            return;
+        }
+
+        if (size < k) {
+            set(size, familyKey, score, item, seq);
+            slotByKey.put(familyKey, size);
+            siftUp(size++);
+            return;
+        }
+
+        // Full: replace the worst entry only if strictly better (ties keep the earlier arrival)
+        if (score > scores[0]) {
+            slotByKey.remove(keys[0]);
+            set(0, familyKey, score, item, seq);
+            slotByKey.put(familyKey, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * False if offering this score cannot change the selection
+     * Lets callers skip building the family key for most candidates once the heap is full.
+     */
+    public boolean accepts(int score) {
+        return size < k || score > scores[0];
+    }
+
+    /**
+     * Sort the retained entries best-first; afterwards read them with itemAt / scoreAt
+     */
+    public TopKSelector finish() {
+        if (!finished) {
+            slotByKey.clear();
+            finished = true;
+            // In-place heap sort: repeatedly move the worst entry to the end
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public int itemAt(int rank) {
+        checkFinished();
+        return items[rank];
+    }
+
+    @Override
+    public int scoreAt(int rank) {
+        checkFinished();
+        return scores[rank];
+    }
+
+    private void checkFinished() {
+        if (!finished) {
+            throw new IllegalStateException("Call finish() before reading results");
+        }
+    }
+
+    private void set(int slot, Object key, int score, int item, long seq) {
+        keys[slot] = key;
+        scores[slot] = score;
+        items[slot] = item;
+        arrivals[slot] = seq;
+    }
+
+    /**
+     * True if entry a ranks below entry b
+     */
+    private boolean worse(int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && arrivals[a] > arrivals[b]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!worse(slot, parent)) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        siftDown(slot, size);
+    }
+
+    private void siftDown(int slot, int limit) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= limit) {
+                return;
+            }
+            int right = left + 1;
+            int worst = right < limit && worse(right, left) ? right : left;
+            if (!worse(worst, slot)) {
+                return;
+            }
+            swap(slot, worst);
+            slot = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int score = scores[a]; scores[a] = scores[b]; scores[b] = score;
+        int item = items[a]; items[a] = items[b]; items[b] = item;
+        long seq = arrivals[a]; arrivals[a] = arrivals[b]; arrivals[b] = seq;
+        Object key = keys[a]; keys[a] = keys[b]; keys[b] = key;
+        if (!finished) {
+            slotByKey.put(keys[a], a);
+            slotByKey.put(keys[b], b);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.phonepick.advisor.repository.PhoneReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +30,8 @@ public class TranscriptBatchService {
     private final PhoneReviewRepository reviewRepository;
     private final PhoneRepository phoneRepository;
     private final SentimentAnalysisService sentimentAnalysisService;
+    private final UnifiedScoringService unifiedScoringService;
+    private final ApplicationEventPublisher eventPublisher;
     private final RestTemplate restTemplate = new RestTemplate();
     
     @Value("${youtube.transcript.api.url:https://youtube-transcript-api.fly.dev/transcript}")
@@ -177,6 +180,7 @@ public class TranscriptBatchService {
             if (count > 0) {
                 int avgScore = totalScore / count;
                 phone.setYoutubeSentimentScore(avgScore);
+                unifiedScoringService.refreshStoredScores(phone);
                 phoneRepository.save(phone);
                 updatedCount++;
                 
@@ -186,6 +190,10 @@ public class TranscriptBatchService {
         }
         
         log.info("Updated {} phones with aggregate sentiment scores", updatedCount);
+        
+        if (updatedCount > 0) {
+            eventPublisher.publishEvent(CatalogChangedEvent.all("youtube-sentiment"));
+        }
     }
     
     /**
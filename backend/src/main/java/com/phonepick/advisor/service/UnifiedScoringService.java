@@ -4,7 +4,12 @@ import com.phonepick.advisor.model.Phone;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
 /**
@@ -27,6 +32,9 @@ public class UnifiedScoringService {
     private static final int MIN_REVIEWERS_FOR_BONUS = 3;  // Need 3+ positive reviews
     private static final int CONSENSUS_THRESHOLD = 70;     // 70+ score = positive recommendation
     
+    // Bump whenever the spec or unified formula changes so stored scores are recomputed
+    static final int SCORING_VERSION = 1;
+    
     private final PhoneSpecScoringService specScoringService;
     
     public UnifiedScoringService(PhoneSpecScoringService specScoringService) {
@@ -40,9 +48,87 @@ public class UnifiedScoringService {
      * @return Unified score (0-100)
      */
     public int calculateUnifiedScore(Phone phone, Map<String, Integer> youtubeReviewScores) {
-        // Calculate spec-based score
-        int specScore = calculateSpecScore(phone);
+        return calculateUnifiedScore(phone, calculateSpecScore(phone), youtubeReviewScores);
+    }
+    
+    /**
+     * Recompute the materialized spec and unified scores if their inputs changed
+     * Call on every write path before saving the phone.
+     * @return true if the stored scores were (re)computed
+     */
+    public boolean refreshStoredScores(Phone phone) {
+        String inputsDigest = scoreInputsDigest(phone);
+        if (!needsRescore(phone, inputsDigest)) {
+            return false;
+        }
         
+        int specScore = calculateSpecScore(phone);
+        phone.setSpecScore(specScore);
+        phone.setUnifiedScore(calculateUnifiedScore(phone, specScore, null));
+        phone.setScoreInputsDigest(inputsDigest);
+        return true;
+    }
+    
+    /**
+     * Whether the stored scores are missing or were computed from different inputs
+     */
+    public boolean needsRescore(Phone phone) {
+        return needsRescore(phone, scoreInputsDigest(phone));
+    }
+    
+    private boolean needsRescore(Phone phone, String inputsDigest) {
+        return phone.getSpecScore() == null
+            || phone.getUnifiedScore() == null
+            || !inputsDigest.equals(phone.getScoreInputsDigest());
+    }
+    
+    /**
+     * SHA-256 fingerprint (hex) of everything the spec and unified scores depend on
+     * Each value is length-prefixed and nulls are marked, so distinct inputs never
+     * encode to the same bytes; a 32-bit hash would let a spec edit go unnoticed.
+     */
+    private static String scoreInputsDigest(Phone phone) {
+        return scoreInputsDigest(phone, SCORING_VERSION);
+    }
+    
+    static String scoreInputsDigest(Phone phone, int scoringVersion) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digestInt(digest, scoringVersion);
+        digestString(digest, phone.getCameraInfo());
+        digestString(digest, phone.getBattery());
+        digestString(digest, phone.getMemory_and_storage());
+        digestString(digest, phone.getProcessor());
+        digestString(digest, phone.getDisplayInfo());
+        digestInteger(digest, phone.getYoutubeSentimentScore());
+        digestInteger(digest, phone.getRedditSentimentScore());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static void digestString(MessageDigest digest, String value) {
+        if (value == null) {
+            digestInt(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digestInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+    
+    private static void digestInteger(MessageDigest digest, Integer value) {
+        digest.update((byte) (value == null ? 0 : 1));
+        digestInt(digest, value == null ? 0 : value);
+    }
+    
+    private static void digestInt(MessageDigest digest, int value) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+    }
+    
+    private int calculateUnifiedScore(Phone phone, int specScore, Map<String, Integer> youtubeReviewScores) {
         // Get stored sentiment scores
         Integer youtubeScore = phone.getYoutubeSentimentScore();
         Integer redditScore = phone.getRedditSentimentScore();
@@ -96,11 +182,12 @@ public class UnifiedScoringService {
      * Calculate spec-based score (average of all feature scores)
      */
     private int calculateSpecScore(Phone phone) {
-        int cameraScore = specScoringService.scoreCameraSpec(phone.getCameraInfo());
-        int batteryScore = specScoringService.scoreBatterySpec(phone.getBattery());
-        int storageScore = specScoringService.scoreStorageAndRam(phone.getMemory_and_storage());
-        int processorScore = specScoringService.scoreProcessor(phone.getProcessor());
-        int displayScore = specScoringService.scoreDisplay(phone.getDisplayInfo());
+        SpecProfile specs = SpecProfile.of(phone);
+        int cameraScore = specScoringService.scoreCameraSpec(specs);
+        int batteryScore = specScoringService.scoreBatterySpec(specs);
+        int storageScore = specScoringService.scoreStorageAndRam(specs);
+        int processorScore = specScoringService.scoreProcessor(specs);
+        int displayScore = specScoringService.scoreDisplay(specs);
         
         // Average of all specs
         return (cameraScore + batteryScore + storageScore + processorScore + displayScore) / 5;
@@ -149,24 +236,25 @@ public class UnifiedScoringService {
     public Map<String, Integer> calculateFeatureScores(Phone phone, 
                                                        Map<String, Map<String, Integer>> youtubeFeatureScores) {
         Map<String, Integer> unifiedScores = new HashMap<>();
+        SpecProfile specs = SpecProfile.of(phone);
         
         // Camera
-        int cameraSpec = specScoringService.scoreCameraSpec(phone.getCameraInfo());
+        int cameraSpec = specScoringService.scoreCameraSpec(specs);
         int cameraYT = getAverageFeatureScore(youtubeFeatureScores, "camera");
         unifiedScores.put("camera", combineScores(cameraSpec, cameraYT, phone.getYoutubeSentimentScore()));
         
         // Battery
-        int batterySpec = specScoringService.scoreBatterySpec(phone.getBattery());
+        int batterySpec = specScoringService.scoreBatterySpec(specs);
         int batteryYT = getAverageFeatureScore(youtubeFeatureScores, "battery");
         unifiedScores.put("battery", combineScores(batterySpec, batteryYT, phone.getYoutubeSentimentScore()));
         
         // Performance
-        int perfSpec = specScoringService.scoreProcessor(phone.getProcessor());
+        int perfSpec = specScoringService.scoreProcessor(specs);
         int perfYT = getAverageFeatureScore(youtubeFeatureScores, "performance");
         unifiedScores.put("performance", combineScores(perfSpec, perfYT, phone.getYoutubeSentimentScore()));
         
         // Display
-        int displaySpec = specScoringService.scoreDisplay(phone.getDisplayInfo());
+        int displaySpec = specScoringService.scoreDisplay(specs);
         int displayYT = getAverageFeatureScore(youtubeFeatureScores, "display");
         unifiedScores.put("display", combineScores(displaySpec, displayYT, phone.getYoutubeSentimentScore()));
         
@@ -0,0 +1,45 @@
+package com.phonepick.advisor.service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link ScoringKernel#percentTotals}
+ * Only loaded when the jdk.incubator.vector module is present.
+ */
+final class VectorScoringKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorScoringKernel() {
+    }
+
+    static void percentTotals(FeatureMatrix matrix, int from, int to, int[] weights, int[] out) {
+        int length = to - from;
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            int index = from + i;
+            IntVector total = term(matrix.camera, index, weights[0])
+                .add(term(matrix.battery, index, weights[1]))
+                .add(term(matrix.software, index, weights[2]))
+                .add(term(matrix.privacy, index, weights[3]))
+                .add(term(matrix.looks, index, weights[4]));
+            total.intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = ScoringKernel.percentTotal(matrix, from + i, weights);
+        }
+    }
+
+    /**
+     * floor(score * weight / 100) for one lane block, division by multiply and shift
+     */
+    private static IntVector term(int[] column, int index, int weight) {
+        return IntVector.fromArray(SPECIES, column, index)
+            .mul(weight)
+            .mul(ScoringKernel.DIV100_MULTIPLIER)
+            .lanewise(VectorOperators.LSHR, ScoringKernel.DIV100_SHIFT);
+    }
+}
@@ -0,0 +1,12 @@
+-- Materialize spec and unified scores on the phones table
+-- Populated at write time by imports, score updates and sentiment batch jobs
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS spec_score INTEGER;
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS unified_score INTEGER;
+
+-- Fingerprint of the inputs the scores were computed from; NULL forces a recompute
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS score_inputs_hash INTEGER;
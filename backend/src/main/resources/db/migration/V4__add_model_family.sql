@@ -0,0 +1,13 @@
+-- Model family and variant extracted from the listing title at import
+-- Listings of one phone (colors, storage options) share a family_key such as 'vivo::t4 lite 5g'
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS family_key VARCHAR(255);
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS color VARCHAR(255);
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS storage_variant VARCHAR(32);
+
+CREATE INDEX IF NOT EXISTS idx_phones_family_key ON phones (family_key);
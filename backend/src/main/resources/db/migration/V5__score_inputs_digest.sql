@@ -0,0 +1,9 @@
+-- Replace the 32-bit score input fingerprint with a SHA-256 digest (hex)
+-- NULL marks a row stale: the catalog scores it in memory on load and logs a warning until
+-- POST /api/analysis/update-scores persists the scores and digest
+
+ALTER TABLE phones 
+ADD COLUMN IF NOT EXISTS score_inputs_digest VARCHAR(64);
+
+ALTER TABLE phones 
+DROP COLUMN IF EXISTS score_inputs_hash;
@@ -0,0 +1,73 @@
+package com.phonepick.advisor;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+/**
+ * Guard for the virtual-threads profile
+ * On Java 21 a virtual thread that blocks inside a synchronized method or block
+ * pins its carrier thread. Use ReentrantLock in application code instead.
+ */
+class VirtualThreadPinningTest {
+
+	@Test
+	void applicationCodeDoesNotSynchronize() throws IOException {
+		List<String> violations = new ArrayList<>();
+		Resource[] classes = new PathMatchingResourcePatternResolver()
+			.getResources("classpath*:com/phonepick/advisor/**/*.class");
+		for (Resource resource : classes) {
+			// Main classes only; test helpers never run on request threads
+			if (resource.getURL().toString().contains("test-classes")) {
+				continue;
+			}
+			try (InputStream in = resource.getInputStream()) {
+				new ClassReader(in).accept(new SynchronizationFinder(violations), ClassReader.SKIP_DEBUG);
+			}
+		}
+		assertTrue(classes.length > 0, "No application classes found");
+		assertTrue(violations.isEmpty(), "synchronized pins virtual threads, use ReentrantLock: " + violations);
+	}
+
+	private static final class SynchronizationFinder extends ClassVisitor {
+		private final List<String> violations;
+		private String className;
+
+		SynchronizationFinder(List<String> violations) {
+			super(Opcodes.ASM9);
+			this.violations = violations;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			className = name.replace('/', '.');
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+			String method = className + "." + name;
+			if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+				violations.add(method + " (synchronized method)");
+			}
+			return new MethodVisitor(Opcodes.ASM9) {
+				@Override
+				public void visitInsn(int opcode) {
+					if (opcode == Opcodes.MONITORENTER) {
+						violations.add(method + " (synchronized block)");
+					}
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.phonepick.advisor.controller;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.repository.PhoneRepository;
+import com.phonepick.advisor.service.CatalogResponseCache;
+import com.phonepick.advisor.service.CatalogStatistics;
+import com.phonepick.advisor.service.PhoneCatalog;
+import com.phonepick.advisor.service.PhoneListingService;
+import com.phonepick.advisor.service.UnifiedScoringService;
+
+class CatalogConditionalGetTest {
+
+	private final PhoneRepository phoneRepository = mock(PhoneRepository.class);
+	private final List<Phone> phones = new ArrayList<>();
+	private PhoneCatalog phoneCatalog;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		phones.add(phone(2L, 21000));
+		phones.add(phone(1L, 32000));
+		when(phoneRepository.findAll()).thenAnswer(invocation -> List.copyOf(phones));
+		phoneCatalog = new PhoneCatalog(phoneRepository, mock(UnifiedScoringService.class), event -> { });
+		ObjectMapper objectMapper = new ObjectMapper();
+		CatalogResponseCache cache = new CatalogResponseCache(phoneCatalog, new CatalogStatistics(phoneCatalog), objectMapper);
+		PhoneListingService listing = new PhoneListingService(phoneCatalog, objectMapper, 2);
+		mockMvc = MockMvcBuilders
+			.standaloneSetup(new RecommendationController(null, null, cache, listing, null, null, null, null))
+			.build();
+	}
+
+	@Test
+	void matchingEtagReturnsNotModifiedUntilCatalogChanges() throws Exception {
+		String etag = mockMvc.perform(get("/api/phones"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(1))
+			.andExpect(jsonPath("$[1].id").value(2))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/phones").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+
+		// A version bump with identical phones keeps the same ETag
+		phoneCatalog.bumpVersion();
+		mockMvc.perform(get("/api/phones").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		phones.get(0).setPrice(23000);
+		phoneCatalog.refresh();
+		String changed = mockMvc.perform(get("/api/phones").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+
+		// Rendered once per catalog data change, not per request
+		verify(phoneRepository, times(2)).findAll();
+	}
+
+	@Test
+	void binaryEncodingsAreNegotiatedWithTheirOwnEtags() throws Exception {
+		String jsonEtag = mockMvc.perform(get("/api/phones"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+			.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse cbor = mockMvc.perform(get("/api/phones").header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.9"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/cbor"))
+			.andReturn().getResponse();
+		assertNotEquals(jsonEtag, cbor.getHeader(HttpHeaders.ETAG));
+		JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(cbor.getContentAsByteArray());
+		assertEquals(1, decoded.get(0).get("id").asLong());
+		assertEquals(2, decoded.get(1).get("id").asLong());
+
+		// An ETag of one encoding does not validate another
+		mockMvc.perform(get("/api/phones").header(HttpHeaders.ACCEPT, "application/cbor").header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/api/phones").param("limit", "2").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("application/x-jackson-smile"));
+		mockMvc.perform(get("/api/phones").header(HttpHeaders.ACCEPT, "*/*"))
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void pagesFollowPriceOrderWithProjectedFields() throws Exception {
+		phones.add(phone(3L, 21000));
+		phones.add(phone(4L, 45000));
+
+		String cursor = mockMvc.perform(get("/api/phones").param("limit", "2").param("fields", "id,price"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.ETAG))
+			.andExpect(jsonPath("$.items[0].id").value(2))
+			.andExpect(jsonPath("$.items[1].id").value(3))
+			.andExpect(jsonPath("$.items[1].price").value(21000))
+			.andExpect(jsonPath("$.items[0].model").doesNotExist())
+			.andReturn().getResponse().getContentAsString().replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+		// A phone added before the cursor does not shift the next page
+		phones.add(phone(5L, 15000));
+		phoneCatalog.refresh();
+		mockMvc.perform(get("/api/phones").param("limit", "2").param("cursor", cursor).param("maxPrice", "40000"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(1))
+			.andExpect(jsonPath("$.items[0].id").value(1))
+			.andExpect(jsonPath("$.items[0].model").value("Model1"))
+			.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+		mockMvc.perform(get("/api/phones").param("fields", "id,password"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.error").exists());
+		mockMvc.perform(get("/api/phones").param("limit", "3"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void countsAreServedFromTheCatalogWithEtags() throws Exception {
+		mockMvc.perform(get("/api/phones/count"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.ETAG))
+			.andExpect(jsonPath("$.count").value(2));
+
+		String etag = mockMvc.perform(get("/api/phones/count").param("budget", "20-25"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.count").value(1))
+			.andExpect(jsonPath("$.budget").value("20-25"))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/phones/count").param("budget", "20-25").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+		verify(phoneRepository, times(0)).countByPriceBetween(any(), any());
+	}
+
+	private static Phone phone(Long id, int price) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand("Brand");
+		phone.setModel("Model" + id);
+		phone.setPrice(price);
+		phone.setUnifiedScore(70);
+		return phone;
+	}
+}
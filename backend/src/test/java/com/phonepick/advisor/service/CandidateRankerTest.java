@@ -0,0 +1,96 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+
+class CandidateRankerTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void sharedScanMatchesPerPhoneRankingAcrossBlocks() {
+		Random random = new Random(21);
+		Phone[] phones = new Phone[3000];
+		int[] prices = new int[phones.length];
+		int[] unified = new int[phones.length];
+		String[] families = new String[phones.length];
+		for (int i = 0; i < phones.length; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i);
+			phone.setPrice(i * 10);
+			phone.setCameraScore(random.nextInt(101));
+			phone.setBatteryScore(random.nextInt(101));
+			phone.setSoftwareScore(random.nextInt(101));
+			phone.setPrivacyScore(random.nextInt(101));
+			phone.setLooksScore(random.nextInt(101));
+			phones[i] = phone;
+			prices[i] = phone.getPrice();
+			unified[i] = random.nextInt(101);
+			families[i] = "family" + random.nextInt(800);
+		}
+		PhoneCatalog.Snapshot catalog = new PhoneCatalog.Snapshot(1, phones, prices, unified, families);
+
+		List<Map<String, Integer>> profiles = new ArrayList<>(PriorityRankingTables.PROFILES.subList(0, 10));
+		profiles.add(Map.of("camera", 150, "performance", -20));
+		profiles.add(Map.of());
+
+		int from = 7;
+		int to = 2900;
+		List<TopKSelector> ranked = ranker.rankAll(catalog, from, to, profiles, 5);
+		for (int p = 0; p < profiles.size(); p++) {
+			TopKSelector expected = new TopKSelector(5);
+			for (int i = from; i < to; i++) {
+				int base = ranker.calculateMatchScore(phones[i], profiles.get(p));
+				expected.offer(families[i], CandidateRanker.combineScores(base, unified[i]), i);
+			}
+			expected.finish();
+
+			TopKSelector actual = ranked.get(p);
+			assertEquals(expected.size(), actual.size());
+			for (int rank = 0; rank < expected.size(); rank++) {
+				assertEquals(expected.itemAt(rank), actual.itemAt(rank));
+				assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+			}
+		}
+	}
+
+	@Test
+	void unscoredPhoneIsRankedWithZeroFeatureScores() {
+		Phone[] phones = new Phone[3];
+		for (int i = 0; i < phones.length; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i);
+			phone.setPrice(20000 + i);
+			phone.setCameraScore(60);
+			phone.setBatteryScore(60);
+			phone.setSoftwareScore(60);
+			phone.setPrivacyScore(60);
+			phone.setLooksScore(60);
+			phones[i] = phone;
+		}
+		// Feature scores not computed yet
+		phones[1].setCameraScore(null);
+		phones[1].setBatteryScore(null);
+		phones[1].setSoftwareScore(null);
+		phones[1].setPrivacyScore(null);
+		phones[1].setLooksScore(null);
+		PhoneCatalog.Snapshot catalog = new PhoneCatalog.Snapshot(1, phones,
+			new int[] {20000, 20001, 20002}, new int[] {50, 90, 50}, new String[] {"a", "b", "c"});
+
+		Map<String, Integer> priorities = Map.of("camera", 100, "battery", 85, "performance", 70);
+		TopKSelector ranked = ranker.rank(catalog, 0, 3, priorities, 3);
+
+		assertEquals(3, ranked.size());
+		assertEquals(1, ranked.itemAt(2));
+		assertEquals(0, ranker.calculateMatchScore(phones[1], priorities));
+		assertEquals(CandidateRanker.combineScores(0, 90), ranked.scoreAt(2));
+	}
+}
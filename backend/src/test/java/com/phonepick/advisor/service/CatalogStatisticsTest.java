@@ -0,0 +1,84 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+class CatalogStatisticsTest {
+
+	private final List<Phone> phones = new ArrayList<>();
+	private final PhoneRepository repository = mock(PhoneRepository.class);
+	private CatalogStatistics statistics;
+
+	@Test
+	void partialRefreshesMatchAFullRebuild() {
+		Random random = new Random(21);
+		for (long id = 1; id <= 400; id++) {
+			phones.add(phone(random, id));
+		}
+		when(repository.findAll()).thenAnswer(call -> List.copyOf(phones));
+		when(repository.findAllById(any())).thenAnswer(call -> {
+			Collection<Long> ids = call.getArgument(0);
+			return phones.stream().filter(phone -> ids.contains(phone.getId())).toList();
+		});
+		PhoneCatalog catalog = new PhoneCatalog(repository, mock(UnifiedScoringService.class), event -> {
+			if (event instanceof CatalogRefreshedEvent refreshed) {
+				statistics.onCatalogRefreshed(refreshed);
+			}
+		});
+		statistics = new CatalogStatistics(catalog);
+		assertEquals(400, statistics.current().getTotalPhones());
+
+		for (int round = 0; round < 20; round++) {
+			List<Long> changed = new ArrayList<>();
+			// Reloaded rows are new instances; the previous snapshot keeps the old ones
+			for (int i = 0; i < 5; i++) {
+				int position = random.nextInt(phones.size());
+				Phone phone = phone(random, phones.get(position).getId());
+				phones.set(position, phone);
+				changed.add(phone.getId());
+			}
+			// One phone removed, one brand-new phone added
+			changed.add(phones.remove(random.nextInt(phones.size())).getId());
+			Phone added = phone(random, 1000L + round);
+			phones.add(added);
+			changed.add(added.getId());
+
+			catalog.refresh(changed);
+			CatalogStatistics.Stats incremental = statistics.current();
+			CatalogStatistics.Stats rebuilt = new CatalogStatistics(catalog).current();
+			assertEquals(rebuilt.getTotalPhones(), incremental.getTotalPhones());
+			assertEquals(rebuilt.getBudgets(), incremental.getBudgets());
+			assertEquals(rebuilt.getBrands(), incremental.getBrands());
+			assertEquals(rebuilt.getUnifiedScoreDeciles(), incremental.getUnifiedScoreDeciles());
+		}
+		assertEquals(400, statistics.current().getTotalPhones());
+		assertEquals(catalog.snapshot().countBetween(20000, 25000), statistics.current().getBudgets().get("20-25"));
+	}
+
+	private static Phone phone(Random random, long id) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand("Brand" + random.nextInt(12));
+		phone.setModel("Model" + id);
+		phone.setPrice(1000 + random.nextInt(120000));
+		phone.setCameraScore(random.nextInt(101));
+		phone.setBatteryScore(random.nextInt(101));
+		phone.setSoftwareScore(random.nextInt(101));
+		phone.setPrivacyScore(random.nextInt(101));
+		phone.setLooksScore(random.nextInt(101));
+		phone.setUnifiedScore(random.nextInt(101));
+		return phone;
+	}
+}
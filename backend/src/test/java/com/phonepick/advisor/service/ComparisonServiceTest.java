@@ -0,0 +1,100 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneComparison;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+class ComparisonServiceTest {
+
+	private static final List<String> PRIORITIES = List.of("camera", "battery");
+
+	private final List<Phone> phones = new ArrayList<>();
+	private ComparisonService comparisonService;
+
+	@BeforeEach
+	void setUp() {
+		phones.add(phone(1L, 20000, 90, 80, 75));
+		phones.add(phone(2L, 25000, 70, 60, 65));
+		phones.add(phone(3L, 18000, 92, 85, 80));
+		comparisonService = new ComparisonService(catalogOf(phones), 100);
+	}
+
+	@Test
+	void firstPhoneIsComparedWithEachOtherInRequestOrder() {
+		PhoneComparison comparison = comparisonService.compare(List.of(1L, 2L, 3L), PRIORITIES);
+
+		assertEquals(List.of(1L, 2L, 3L), comparison.getPhones().stream().map(PhoneRecommendation::getId).toList());
+		assertEquals(List.of(75, 65, 80), comparison.getPhones().stream().map(PhoneRecommendation::getMatchScore).toList());
+		assertEquals(2, comparison.getComparisons().size());
+		assertEquals("Model2", comparison.getComparisons().get(0).getModel());
+		assertEquals("significantly better camera, much longer battery life, and more",
+			comparison.getComparisons().get(0).getReason());
+		assertEquals("Better overall balance for your priorities", comparison.getComparisons().get(1).getReason());
+	}
+
+	@Test
+	void unknownIdsAreRejected() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+			() -> comparisonService.compare(List.of(1L, 99L), PRIORITIES));
+		assertEquals("Phone not found: 99", error.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> comparisonService.compare(List.of(99L, 1L, 2L), PRIORITIES));
+	}
+
+	@Test
+	void repeatedIdsAreComparedOnce() {
+		PhoneComparison comparison = comparisonService.compare(List.of(1L, 2L, 1L, 2L), PRIORITIES);
+		assertEquals(List.of(1L, 2L), comparison.getPhones().stream().map(PhoneRecommendation::getId).toList());
+		assertEquals(1, comparison.getComparisons().size());
+
+		// A phone is never compared with itself
+		assertThrows(IllegalArgumentException.class, () -> comparisonService.compare(List.of(1L, 1L), PRIORITIES));
+		assertThrows(IllegalArgumentException.class, () -> comparisonService.compare(List.of(1L), PRIORITIES));
+	}
+
+	@Test
+	void unscoredPhonesCanBeCompared() {
+		Phone unscored = phone(4L, 30000, 0, 0, 50);
+		unscored.setCameraScore(null);
+		unscored.setBatteryScore(null);
+		phones.add(unscored);
+		comparisonService = new ComparisonService(catalogOf(phones), 100);
+
+		PhoneComparison comparison = comparisonService.compare(List.of(1L, 4L), PRIORITIES);
+		assertEquals(0, comparison.getPhones().get(1).getScores().get("camera"));
+		assertEquals("significantly better camera, much longer battery life, and more",
+			comparison.getComparisons().get(0).getReason());
+	}
+
+	private static PhoneCatalog catalogOf(List<Phone> phones) {
+		PhoneRepository phoneRepository = mock(PhoneRepository.class);
+		when(phoneRepository.findAll()).thenReturn(List.copyOf(phones));
+		return new PhoneCatalog(phoneRepository, mock(UnifiedScoringService.class), event -> { });
+	}
+
+	private static Phone phone(Long id, int price, int camera, int battery, int unifiedScore) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand("Brand");
+		phone.setModel("Model" + id);
+		phone.setPrice(price);
+		phone.setCameraScore(camera);
+		phone.setBatteryScore(battery);
+		phone.setSoftwareScore(70);
+		phone.setPrivacyScore(70);
+		phone.setLooksScore(70);
+		phone.setUnifiedScore(unifiedScore);
+		return phone;
+	}
+}
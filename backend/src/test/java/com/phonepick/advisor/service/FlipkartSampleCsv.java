@@ -0,0 +1,81 @@
+package com.phonepick.advisor.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Bridges the bundled android_smartphones.csv scrape to {@link FlipkartDataParser}
+ * The scrape has one pipe-separated description per phone (title,price,rating,image,description,url);
+ * the importer expects model,price,memory_and_storage,display,camera,processor,battery,image,url.
+ * Used to seed benchmark and load-test catalogs with the real import code.
+ */
+public final class FlipkartSampleCsv {
+
+	public static final String RESOURCE = "/android_smartphones.csv";
+
+	private FlipkartSampleCsv() {
+	}
+
+	/**
+	 * Rewrite the bundled scrape into a temporary file in the importer's layout
+	 * The file is deleted when the JVM exits.
+	 */
+	public static Path toImportFile() {
+		try (InputStream in = FlipkartSampleCsv.class.getResourceAsStream(RESOURCE)) {
+			if (in == null) {
+				throw new IllegalStateException("android_smartphones.csv not on the classpath");
+			}
+			Path file = Files.createTempFile("android_smartphones", ".csv");
+			file.toFile().deleteOnExit();
+			Files.writeString(file, toImportLayout(in), StandardCharsets.UTF_8);
+			return file;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Classify the pipe-separated description segments into the importer's columns
+	 */
+	static String toImportLayout(InputStream scrape) throws IOException {
+		CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+		StringBuilder out = new StringBuilder("model,price,memory_and_storage,display,camera,processor,battery,image,url\n");
+		for (CSVRecord record : format.parse(new InputStreamReader(scrape, StandardCharsets.UTF_8))) {
+			List<String> memory = new ArrayList<>();
+			List<String> camera = new ArrayList<>();
+			String display = "";
+			String processor = "";
+			String battery = "";
+			for (String segment : record.get("description").split("\\|")) {
+				String part = segment.trim();
+				String lower = part.toLowerCase();
+				if (lower.contains("ram") || lower.contains("rom") || lower.contains("expandable")) {
+					memory.add(part);
+				} else if (lower.contains("display")) {
+					display = part;
+				} else if (lower.contains("mah")) {
+					battery = part;
+				} else if (lower.contains("processor")) {
+					processor = part;
+				} else if (lower.contains("mp") || lower.contains("camera")) {
+					camera.add(part);
+				}
+			}
+			List<String> fields = List.of(record.get("title"), record.get("price"), String.join(" | ", memory),
+				display, String.join(" | ", camera), processor, battery, record.get("image"), record.get("url"));
+			out.append(fields.stream().map(field -> '"' + field.replace("\"", "") + '"')
+				.collect(Collectors.joining(","))).append('\n');
+		}
+		return out.toString();
+	}
+}
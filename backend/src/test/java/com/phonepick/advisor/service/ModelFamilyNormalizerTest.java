@@ -0,0 +1,56 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ModelFamilyNormalizerTest {
+
+	@Test
+	void colorAndStorageVariantsShareAFamily() {
+		ModelFamilyNormalizer.Variant gold = ModelFamilyNormalizer.normalize("vivo", "T4 Lite 5G Charger in the Box (Titanium Gold, 128 GB)");
+		ModelFamilyNormalizer.Variant blue = ModelFamilyNormalizer.normalize("vivo", "T4 Lite 5G Charger in the Box (Prism Blue, 256 GB)");
+
+		assertEquals("vivo::t4 lite 5g", gold.getFamilyKey());
+		assertEquals("T4 Lite 5G", gold.getFamilyName());
+		assertEquals("Titanium Gold", gold.getColor());
+		assertEquals("128 GB", gold.getStorage());
+		assertEquals(gold.getFamilyKey(), blue.getFamilyKey());
+		assertEquals("Prism Blue", blue.getColor());
+		assertEquals("256 GB", blue.getStorage());
+	}
+
+	@Test
+	void marketingTailsAndRepeatedColorsAreDropped() {
+		assertEquals("oppo::k13x 5g",
+			ModelFamilyNormalizer.normalize("OPPO", "K13x 5G 6000mAh and 45W SUPERVOOC Charger & AI (Breeze Blue, 128 GB)").getFamilyKey());
+		assertEquals("oppo::k13 5g",
+			ModelFamilyNormalizer.normalize("OPPO", "K13 5G with 7000mAh and 80W SUPERVOOC Charger In-The-Box (Icy Purple, 128 GB)").getFamilyKey());
+		assertEquals("realme::13 5g",
+			ModelFamilyNormalizer.normalize("realme", "13 5G Up to 18GB Dynamic RAM | AI Dual Camera | Dimensity 6300 Processor (Dark Purple, 256 GB)").getFamilyKey());
+		assertEquals("infinix::gt 30 5g+",
+			ModelFamilyNormalizer.normalize("Infinix", "GT 30 5G+ Pulse Green 128 (Pulse Green, 128 GB)").getFamilyKey());
+		assertEquals("Astral Blue", ModelFamilyNormalizer.normalize("LAVA", "Storm Lite 5G (Astral Blue,, 64 GB)").getColor());
+	}
+
+	@Test
+	void brandCasingAndGalaxyPrefixDoNotSplitFamilies() {
+		assertEquals(ModelFamilyNormalizer.normalize("MOTOROLA", "G96 5G (Pantone Ashleigh Blue, 128 GB)").getFamilyKey(),
+			ModelFamilyNormalizer.normalize("Motorola", "g96 5G (Pantone Moss, 128 GB)").getFamilyKey());
+		assertEquals(ModelFamilyNormalizer.normalize("Samsung", "Galaxy S25 Ultra (Titanium Silverblue, 256 GB)").getFamilyKey(),
+			ModelFamilyNormalizer.normalize("Samsung", "S25 Ultra (Titanium Black, 512 GB)").getFamilyKey());
+	}
+
+	@Test
+	void modelNumbersInParenthesesAreKept() {
+		ModelFamilyNormalizer.Variant variant = ModelFamilyNormalizer.normalize("Nothing", "Phone (3) (Black, 512 GB)");
+		assertEquals("nothing::phone (3)", variant.getFamilyKey());
+		assertEquals("Black", variant.getColor());
+
+		ModelFamilyNormalizer.Variant bare = ModelFamilyNormalizer.normalize("Nothing", "Phone (3)");
+		assertEquals("nothing::phone (3)", bare.getFamilyKey());
+		assertNull(bare.getColor());
+		assertNull(bare.getStorage());
+	}
+}
@@ -0,0 +1,121 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+class PhoneCatalogTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void collapsedColorVariantsRankLikeEveryListing() {
+		Random random = new Random(17);
+		List<Phone> phones = new ArrayList<>();
+		long id = 1;
+		for (int family = 0; family < 300; family++) {
+			Phone base = randomPhone(random, family);
+			// Several colors at one price, sometimes a pricier storage option with better looks
+			for (int color = 0, colors = 1 + random.nextInt(4); color < colors; color++) {
+				phones.add(variant(base, id++, "Color" + color + ", 128 GB"));
+			}
+			if (random.nextBoolean()) {
+				Phone storage = variant(base, id++, "Color0, 256 GB");
+				storage.setPrice(base.getPrice() + 3000);
+				storage.setLooksScore(Math.min(100, base.getLooksScore() + 5));
+				phones.add(storage);
+			}
+		}
+
+		PhoneRepository repository = mock(PhoneRepository.class);
+		when(repository.findAll()).thenReturn(phones);
+		PhoneCatalog.Snapshot collapsed = new PhoneCatalog(repository, mock(UnifiedScoringService.class), event -> { })
+			.snapshot();
+		PhoneCatalog.Snapshot everyListing = uncollapsed(phones);
+
+		assertEquals(phones.size(), collapsed.listingCount());
+		assertTrue(collapsed.size() < everyListing.size() / 2);
+		assertEquals(everyListing.countBetween(20000, 40000), collapsed.countBetween(20000, 40000));
+		assertSame(phones.get(1), collapsed.findById(phones.get(1).getId()));
+
+		for (RecommendationRequest.BudgetRange range : PriorityRankingTables.BUCKETS) {
+			for (Map<String, Integer> profile : PriorityRankingTables.PROFILES.subList(0, 30)) {
+				RankedCandidates expected = rank(everyListing, range, profile);
+				RankedCandidates actual = rank(collapsed, range, profile);
+				assertEquals(expected.size(), actual.size());
+				for (int rank = 0; rank < expected.size(); rank++) {
+					assertSame(everyListing.get(expected.itemAt(rank)), collapsed.get(actual.itemAt(rank)));
+					assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+				}
+			}
+		}
+	}
+
+	private RankedCandidates rank(PhoneCatalog.Snapshot catalog, RecommendationRequest.BudgetRange range,
+								  Map<String, Integer> profile) {
+		int from = catalog.lowerBound(range.getMin());
+		int to = Math.max(from, catalog.upperBound(range.getMax()));
+		return ranker.rank(catalog, from, to, profile, RecommendationService.MAX_RECOMMENDATIONS);
+	}
+
+	private static Phone randomPhone(Random random, int family) {
+		Phone phone = new Phone();
+		phone.setBrand("Brand" + random.nextInt(8));
+		phone.setModel("Model " + family + " 5G");
+		phone.setPrice(5000 + random.nextInt(100) * 1000);
+		phone.setCameraScore(random.nextInt(101));
+		phone.setBatteryScore(random.nextInt(101));
+		phone.setSoftwareScore(random.nextInt(101));
+		phone.setPrivacyScore(random.nextInt(101));
+		phone.setLooksScore(random.nextInt(101));
+		phone.setUnifiedScore(random.nextInt(101));
+		return phone;
+	}
+
+	private static Phone variant(Phone base, long id, String variant) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand(base.getBrand());
+		phone.setModel(base.getModel() + " (" + variant + ")");
+		phone.setPrice(base.getPrice());
+		phone.setCameraScore(base.getCameraScore());
+		phone.setBatteryScore(base.getBatteryScore());
+		phone.setSoftwareScore(base.getSoftwareScore());
+		phone.setPrivacyScore(base.getPrivacyScore());
+		phone.setLooksScore(base.getLooksScore());
+		phone.setUnifiedScore(base.getUnifiedScore());
+		return phone;
+	}
+
+	/**
+	 * Every listing ranked on its own, families keyed by the normalizer
+	 */
+	private static PhoneCatalog.Snapshot uncollapsed(List<Phone> phones) {
+		Phone[] sorted = phones.stream()
+			.sorted(Comparator.comparing(Phone::getPrice).thenComparing(Phone::getId))
+			.toArray(Phone[]::new);
+		int[] prices = new int[sorted.length];
+		int[] unifiedScores = new int[sorted.length];
+		String[] familyKeys = new String[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			prices[i] = sorted[i].getPrice();
+			unifiedScores[i] = sorted[i].getUnifiedScore();
+			familyKeys[i] = ModelFamilyNormalizer.familyKeyOf(sorted[i]);
+		}
+		return new PhoneCatalog.Snapshot(1, sorted, prices, unifiedScores, familyKeys);
+	}
+}
@@ -0,0 +1,178 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.PhoneInsight;
+import com.phonepick.advisor.repository.PhoneInsightRepository;
+
+class PhoneInsightIndexTest {
+
+	private final List<PhoneInsight> rows = new ArrayList<>();
+	private final PhoneInsightRepository repository = mock(PhoneInsightRepository.class);
+
+	@Test
+	void exactPatternWinsAndOtherPatternsFallBackToTheFirstRow() {
+		rows.add(insight(11L, 1L, "battery-camera", "battery first"));
+		rows.add(insight(10L, 1L, "camera-battery", "camera first"));
+		rows.add(insight(20L, 2L, "camera-battery", "phone two"));
+		PhoneInsightIndex index = index(Long.MAX_VALUE);
+
+		Map<Long, PhoneInsightIndex.Match> exact = index.resolve(List.of(1L, 2L, 3L), "battery-camera");
+		assertEquals("battery first", exact.get(1L).getWhyPicked());
+		assertTrue(exact.get(1L).isExact());
+		// Phone 2 has no battery-camera row: its only row is the fallback
+		assertEquals("phone two", exact.get(2L).getWhyPicked());
+		assertFalse(exact.get(2L).isExact());
+		assertFalse(exact.containsKey(3L));
+
+		// Lowest id is the fallback, whatever order the rows arrive in
+		PhoneInsightIndex.Match fallback = index.resolve(List.of(1L), "performance-looks").get(1L);
+		assertEquals("camera first", fallback.getWhyPicked());
+		assertFalse(fallback.isExact());
+
+		// One batched query for all three phones, including the one without insights
+		verify(repository, times(1)).findByPhoneIdIn(anyCollection());
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void resolveAllLoadsEveryPatternWithOneQuery() {
+		rows.add(insight(10L, 1L, "camera-battery", "camera first"));
+		rows.add(insight(20L, 2L, "battery-camera", "battery first"));
+		PhoneInsightIndex index = index(Long.MAX_VALUE);
+
+		Map<String, Map<Long, PhoneInsightIndex.Match>> result = index.resolveAll(Map.of(
+			"camera-battery", List.of(1L, 2L),
+			"battery-camera", List.of(2L)));
+
+		assertTrue(result.get("camera-battery").get(1L).isExact());
+		assertFalse(result.get("camera-battery").get(2L).isExact());
+		assertTrue(result.get("battery-camera").get(2L).isExact());
+		verify(repository, times(1)).findByPhoneIdIn(anyCollection());
+	}
+
+	@Test
+	void leastRecentlyUsedPhonesAreEvictedOverTheByteBudget() {
+		for (long phoneId = 1; phoneId <= 3; phoneId++) {
+			rows.add(insight(phoneId, phoneId, "camera-battery", "same length"));
+		}
+		PhoneInsightIndex probe = index(Long.MAX_VALUE);
+		probe.resolve(List.of(1L), "camera-battery");
+		long entryBytes = probe.sizeInBytes();
+
+		PhoneInsightIndex index = index(2 * entryBytes);
+		index.resolve(List.of(1L), "camera-battery");
+		index.resolve(List.of(2L), "camera-battery");
+		index.resolve(List.of(1L), "camera-battery");
+		index.resolve(List.of(3L), "camera-battery");
+		assertEquals(2, index.size());
+		assertEquals(2 * entryBytes, index.sizeInBytes());
+
+		// Phone 1 was used more recently than phone 2, so only phone 2 is reloaded
+		index.resolve(List.of(1L, 3L), "camera-battery");
+		verify(repository, times(4)).findByPhoneIdIn(anyCollection());
+		assertEquals("same length", index.resolve(List.of(2L), "camera-battery").get(2L).getWhyPicked());
+		verify(repository, times(5)).findByPhoneIdIn(anyCollection());
+		assertEquals(2 * entryBytes, index.sizeInBytes());
+	}
+
+	@Test
+	void invalidatedPhonesAreReloaded() {
+		rows.add(insight(10L, 1L, "camera-battery", "before"));
+		PhoneInsightIndex index = index(Long.MAX_VALUE);
+		index.resolve(List.of(1L), "camera-battery");
+
+		rows.set(0, insight(10L, 1L, "camera-battery", "after"));
+		index.invalidate(List.of(1L));
+		assertEquals(0, index.sizeInBytes());
+		assertEquals("after", index.resolve(List.of(1L), "camera-battery").get(1L).getWhyPicked());
+	}
+
+	@Test
+	void concurrentMissesShareOneQuery() throws Exception {
+		rows.add(insight(10L, 1L, "camera-battery", "loaded once"));
+		CountDownLatch queryStarted = new CountDownLatch(1);
+		CountDownLatch releaseQuery = new CountDownLatch(1);
+		when(repository.findByPhoneIdIn(anyCollection())).thenAnswer(invocation -> {
+			queryStarted.countDown();
+			releaseQuery.await(5, TimeUnit.SECONDS);
+			return rowsFor(invocation.getArgument(0));
+		});
+		PhoneInsightIndex index = new PhoneInsightIndex(repository, mock(PhoneCatalog.class), Long.MAX_VALUE);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Map<Long, PhoneInsightIndex.Match>> first = executor.submit(() -> index.resolve(List.of(1L), "camera-battery"));
+			assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+			Future<Map<Long, PhoneInsightIndex.Match>> second = executor.submit(() -> index.resolve(List.of(1L), "camera-battery"));
+			// Give the second lookup time to miss and queue behind the running load
+			Thread.sleep(100);
+			releaseQuery.countDown();
+
+			assertEquals("loaded once", first.get(5, TimeUnit.SECONDS).get(1L).getWhyPicked());
+			assertEquals("loaded once", second.get(5, TimeUnit.SECONDS).get(1L).getWhyPicked());
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(repository, times(1)).findByPhoneIdIn(anyCollection());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void loadsOverlappingAnInvalidationAreNotCached() throws Exception {
+		rows.add(insight(10L, 1L, "camera-battery", "stale"));
+		PhoneInsightIndex[] index = new PhoneInsightIndex[1];
+		when(repository.findByPhoneIdIn(anyCollection())).thenAnswer(invocation -> {
+			List<PhoneInsight> result = rowsFor(invocation.getArgument(0));
+			// The row is edited and invalidated after it was read
+			index[0].invalidateAll();
+			return result;
+		});
+		index[0] = new PhoneInsightIndex(repository, mock(PhoneCatalog.class), Long.MAX_VALUE);
+
+		assertEquals("stale", index[0].resolve(List.of(1L), "camera-battery").get(1L).getWhyPicked());
+		assertEquals(0, index[0].size());
+		assertEquals(0, index[0].sizeInBytes());
+	}
+
+	private PhoneInsightIndex index(long maxBytes) {
+		when(repository.findByPhoneIdIn(anyCollection())).thenAnswer(invocation -> rowsFor(invocation.getArgument(0)));
+		return new PhoneInsightIndex(repository, mock(PhoneCatalog.class), maxBytes);
+	}
+
+	private List<PhoneInsight> rowsFor(Collection<Long> phoneIds) {
+		Set<Long> wanted = Set.copyOf(phoneIds);
+		return rows.stream().filter(row -> wanted.contains(row.getPhoneId())).toList();
+	}
+
+	private static PhoneInsight insight(Long id, Long phoneId, String pattern, String whyPicked) {
+		PhoneInsight insight = new PhoneInsight();
+		insight.setId(id);
+		insight.setPhoneId(phoneId);
+		insight.setPriorityPattern(pattern);
+		insight.setWhyPicked(whyPicked);
+		insight.setWhyLoveIt("love it");
+		insight.setWhatToKnow("know this");
+		return insight;
+	}
+}
@@ -0,0 +1,134 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+class PhoneListingServiceTest {
+
+	private static final List<String> FIELDS = List.of("id", "price");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<Phone> phones = new ArrayList<>();
+	private PhoneCatalog phoneCatalog;
+	private PhoneListingService listing;
+
+	@BeforeEach
+	void setUp() {
+		PhoneRepository phoneRepository = mock(PhoneRepository.class);
+		when(phoneRepository.findAll()).thenAnswer(invocation -> List.copyOf(phones));
+		phoneCatalog = new PhoneCatalog(phoneRepository, mock(UnifiedScoringService.class), event -> { });
+		listing = new PhoneListingService(phoneCatalog, objectMapper, 10);
+	}
+
+	@Test
+	void cursorContinuesThroughARunOfEqualPrices() throws Exception {
+		// Ids out of order within each price, so pages split runs of equal prices
+		phones.add(phone(7L, 20000));
+		phones.add(phone(3L, 20000));
+		phones.add(phone(5L, 20000));
+		phones.add(phone(1L, 20000));
+		phones.add(phone(6L, 25000));
+		phones.add(phone(2L, 25000));
+		phones.add(phone(4L, 15000));
+
+		assertEquals(List.of(4L, 1L, 3L, 5L, 7L, 2L, 6L), walk(3, null, null));
+		assertEquals(List.of(4L, 1L, 3L, 5L, 7L, 2L, 6L), walk(2, null, null));
+		assertEquals(List.of(1L, 3L, 5L, 7L), walk(2, 20000, 20000));
+	}
+
+	@Test
+	void lastPageHasNoCursor() throws Exception {
+		for (long id = 1; id <= 4; id++) {
+			phones.add(phone(id, 20000));
+		}
+
+		JsonNode first = page(2, null, null, null);
+		assertEquals(2, first.get("items").size());
+		// A last page that is exactly full does not promise an empty one after it
+		JsonNode last = page(2, first.get("nextCursor").asText(), null, null);
+		assertEquals(List.of(3L, 4L), ids(last));
+		assertTrue(last.get("nextCursor").isNull());
+
+		JsonNode all = page(10, null, null, null);
+		assertEquals(4, all.get("items").size());
+		assertTrue(all.get("nextCursor").isNull());
+
+		// Nothing after the price bound: the page stops there without a cursor
+		JsonNode bounded = page(2, null, null, 19000);
+		assertEquals(0, bounded.get("items").size());
+		assertTrue(bounded.get("nextCursor").isNull());
+	}
+
+	@Test
+	void cursorStaysValidWhenItsPhoneIsRemoved() throws Exception {
+		phones.add(phone(1L, 20000));
+		phones.add(phone(2L, 20000));
+		phones.add(phone(3L, 20000));
+		JsonNode first = page(2, null, null, null);
+
+		phones.remove(1);
+		phoneCatalog.refresh();
+		JsonNode next = page(2, first.get("nextCursor").asText(), null, null);
+		assertEquals(List.of(3L), ids(next));
+		assertTrue(next.get("nextCursor").isNull());
+	}
+
+	@Test
+	void invalidCursorsAreRejected() {
+		phones.add(phone(1L, 20000));
+		assertThrows(IllegalArgumentException.class, () -> listing.page(2, "not-a-cursor", FIELDS, null, null, PhoneListingService.Encoding.JSON));
+		assertThrows(IllegalArgumentException.class, () -> listing.page(2, "", FIELDS, null, null, PhoneListingService.Encoding.JSON));
+	}
+
+	/**
+	 * Ids of every page from the first until nextCursor is null
+	 */
+	private List<Long> walk(int limit, Integer minPrice, Integer maxPrice) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			JsonNode page = page(limit, cursor, minPrice, maxPrice);
+			assertTrue(page.get("items").size() > 0 && page.get("items").size() <= limit);
+			ids.addAll(ids(page));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private JsonNode page(int limit, String cursor, Integer minPrice, Integer maxPrice) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		listing.page(limit, cursor, FIELDS, minPrice, maxPrice, PhoneListingService.Encoding.JSON).writeTo(out);
+		return objectMapper.readTree(out.toByteArray());
+	}
+
+	private static List<Long> ids(JsonNode page) {
+		List<Long> ids = new ArrayList<>();
+		page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+		return ids;
+	}
+
+	private static Phone phone(Long id, int price) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand("Brand");
+		phone.setModel("Model" + id);
+		phone.setPrice(price);
+		phone.setUnifiedScore(70);
+		return phone;
+	}
+}
@@ -0,0 +1,161 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+class PhoneSearchIndexTest {
+
+	private static final String[] BRANDS = {"Samsung", "Motorola", "OPPO", "vivo", "realme"};
+	private static final String[] PROCESSORS = {"Dimensity 6300 5G", "Snapdragon 8 Gen 2", "Helio G85", "Exynos 1380"};
+
+	private final List<Phone> phones = new ArrayList<>();
+	private final PhoneRepository repository = mock(PhoneRepository.class);
+	private PhoneSearchIndex index;
+
+	@Test
+	void tokenizesSpecsWithUnitsBothGluedAndApart() {
+		assertEquals(List.of("8", "gb", "8gb", "ram", "128gb", "128", "rom"), PhoneSearchIndex.tokenize("8 GB RAM | 128GB ROM"));
+		assertEquals(List.of("17.12", "cm", "17.12cm", "6.74", "inch", "6.74inch", "hd", "display"),
+			PhoneSearchIndex.tokenize("17.12 cm (6.74 inch) HD+ Display"));
+		assertEquals(List.of("dimensity", "6300", "5g", "processor"), PhoneSearchIndex.tokenize("Dimensity 6300 5G Processor"));
+	}
+
+	@Test
+	void searchMatchesEveryTermAndPrefixesTheLast() {
+		PhoneCatalog catalog = catalog(new Random(22), 600);
+		index = new PhoneSearchIndex(catalog);
+
+		for (String query : List.of("samsung", "moto", "snapdragon 8 gen", "vivo 5g 8gb", "oppo amoled 120h", "helio 6000 mah")) {
+			List<PhoneRecommendation> results = index.search(query, 50);
+			assertTrue(!results.isEmpty(), query);
+			List<String> terms = PhoneSearchIndex.tokenize(query);
+			for (PhoneRecommendation result : results) {
+				assertTrue(matchesAll(catalog.snapshot().findById(result.getId()), terms), query + " -> " + result.getModel());
+				assertTrue(result.getMatchScore() > 0 && result.getMatchScore() <= 100);
+			}
+			// One result per family, most relevant first
+			assertEquals(results.size(), results.stream().map(PhoneRecommendation::getModel).distinct().count());
+			for (int i = 1; i < results.size(); i++) {
+				assertTrue(results.get(i - 1).getMatchScore() >= results.get(i).getMatchScore());
+			}
+		}
+		assertTrue(index.search("nokia", 10).isEmpty());
+		assertEquals("Samsung", index.search("sams", 1).get(0).getBrand());
+		assertNull(index.findBest("Pixel 9"));
+	}
+
+	@Test
+	void partialRefreshesMatchAFullRebuild() {
+		Random random = new Random(31);
+		PhoneCatalog catalog = catalog(random, 400);
+		index = new PhoneSearchIndex(catalog);
+		assertTrue(!index.search("samsung", 10).isEmpty());
+
+		for (int round = 0; round < 10; round++) {
+			List<Long> changed = new ArrayList<>();
+			// Reloaded rows are new instances; the previous snapshot keeps the old ones
+			for (int i = 0; i < 5; i++) {
+				int position = random.nextInt(phones.size());
+				Phone phone = phone(random, phones.get(position).getId());
+				phones.set(position, phone);
+				changed.add(phone.getId());
+			}
+			changed.add(phones.remove(random.nextInt(phones.size())).getId());
+			Phone added = phone(random, 1000L + round);
+			phones.add(added);
+			changed.add(added.getId());
+
+			catalog.refresh(changed);
+			PhoneSearchIndex rebuilt = new PhoneSearchIndex(catalog);
+			for (String query : List.of("samsung", "snapdragon", "5g amoled", "8gb 120hz", "exy", "model" + added.getId())) {
+				assertEquals(ids(rebuilt.search(query, 20)), ids(index.search(query, 20)), query);
+			}
+		}
+	}
+
+	@Test
+	void unscoredPhonesAreReturnedWithZeroScores() {
+		PhoneCatalog catalog = catalog(new Random(37), 50);
+		Phone unscored = new Phone();
+		unscored.setId(500L);
+		unscored.setBrand("Nothing");
+		unscored.setModel("Phone 2a");
+		unscored.setPrice(23999);
+		// Feature scores not computed yet; the unified score is filled in by the catalog
+		unscored.setUnifiedScore(50);
+		phones.add(unscored);
+		catalog.refresh();
+		index = new PhoneSearchIndex(catalog);
+
+		List<PhoneRecommendation> results = index.search("nothing phone", 5);
+		assertEquals(1, results.size());
+		assertEquals(500L, results.get(0).getId());
+		assertEquals(0, results.get(0).getScores().get("camera"));
+	}
+
+	private PhoneCatalog catalog(Random random, int count) {
+		for (long id = 1; id <= count; id++) {
+			phones.add(phone(random, id));
+		}
+		when(repository.findAll()).thenAnswer(call -> List.copyOf(phones));
+		when(repository.findAllById(any())).thenAnswer(call -> {
+			Collection<Long> ids = call.getArgument(0);
+			return phones.stream().filter(phone -> ids.contains(phone.getId())).toList();
+		});
+		return new PhoneCatalog(repository, mock(UnifiedScoringService.class), event -> {
+			if (event instanceof CatalogRefreshedEvent refreshed && index != null) {
+				index.onCatalogRefreshed(refreshed);
+			}
+		});
+	}
+
+	private static boolean matchesAll(Phone phone, List<String> terms) {
+		List<String> tokens = PhoneSearchIndex.fieldsByTerm(phone).keySet().stream().toList();
+		for (int t = 0; t < terms.size(); t++) {
+			String term = terms.get(t);
+			boolean last = t == terms.size() - 1;
+			if (!tokens.contains(term) && !(last && tokens.stream().anyMatch(token -> token.startsWith(term)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<Long> ids(List<PhoneRecommendation> results) {
+		return results.stream().map(PhoneRecommendation::getId).toList();
+	}
+
+	private static Phone phone(Random random, long id) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand(BRANDS[random.nextInt(BRANDS.length)]);
+		phone.setModel("Model" + id + (random.nextBoolean() ? " 5G" : ""));
+		phone.setPrice(5000 + random.nextInt(100) * 1000);
+		phone.setProcessor(PROCESSORS[random.nextInt(PROCESSORS.length)] + " Processor");
+		phone.setMemory_and_storage((4 + 2 * random.nextInt(3)) + " GB RAM | 128 GB ROM");
+		phone.setDisplayInfo("6.67 inch " + (random.nextBoolean() ? "AMOLED" : "LCD") + " " + (random.nextBoolean() ? "120Hz" : "90Hz"));
+		phone.setBattery((5000 + 500 * random.nextInt(3)) + " mAh");
+		phone.setUnifiedScore(random.nextInt(101));
+		phone.setCameraScore(random.nextInt(101));
+		phone.setBatteryScore(random.nextInt(101));
+		phone.setSoftwareScore(random.nextInt(101));
+		phone.setPrivacyScore(random.nextInt(101));
+		phone.setLooksScore(random.nextInt(101));
+		return phone;
+	}
+}
@@ -0,0 +1,118 @@
+package com.phonepick.advisor.service;
+
+import static com.phonepick.advisor.service.TestCatalogs.copy;
+import static com.phonepick.advisor.service.TestCatalogs.randomPhones;
+import static com.phonepick.advisor.service.TestCatalogs.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+class PriorityRankingTablesTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void lookupMatchesLiveRankingForEveryBucketAndProfile() {
+		PhoneCatalog.Snapshot catalog = snapshot(randomPhones(new Random(7), 400), 1);
+		PriorityRankingTables tables = new PriorityRankingTables(ranker, null);
+		tables.rebuild(catalog);
+
+		assertMatchesLive(tables, catalog);
+	}
+
+	@Test
+	void partialRefreshMatchesLiveRanking() {
+		Random random = new Random(11);
+		List<Phone> phones = randomPhones(random, 400);
+		PhoneCatalog.Snapshot previous = snapshot(phones, 1);
+		PriorityRankingTables tables = new PriorityRankingTables(ranker, null);
+		tables.rebuild(previous);
+
+		// Move one phone across buckets and rescore another
+		List<Phone> changed = new ArrayList<>(phones);
+		Phone moved = copy(changed.get(3));
+		moved.setPrice(58000);
+		changed.set(3, moved);
+		Phone rescored = copy(changed.get(10));
+		rescored.setCameraScore(100);
+		rescored.setUnifiedScore(100);
+		changed.set(10, rescored);
+		PhoneCatalog.Snapshot current = snapshot(changed, 2);
+
+		tables.apply(new CatalogRefreshedEvent(previous, current, Set.of(moved.getId(), rescored.getId())));
+
+		assertMatchesLive(tables, current);
+	}
+
+	@Test
+	void frontEndPrioritiesHitTheTables() {
+		PhoneCatalog.Snapshot catalog = snapshot(randomPhones(new Random(5), 200), 1);
+		PriorityRankingTables tables = new PriorityRankingTables(ranker, null);
+		tables.rebuild(catalog);
+		RecommendationRequest.BudgetRange range = RecommendationRequest.budgetRangeFor("20-25");
+
+		// As PrioritySelection.jsx sends them: feature ids ranked onto the 100..40 ladder
+		Map<String, Integer> priorities = new HashMap<>();
+		priorities.put("performance", 100);
+		priorities.put("camera", 85);
+		priorities.put("battery", 70);
+		priorities.put("looks", 55);
+		priorities.put("privacy", 40);
+		RankedCandidates actual = tables.lookup(range, priorities, catalog);
+		assertNotNull(actual);
+
+		int from = catalog.lowerBound(range.getMin());
+		int to = Math.max(from, catalog.upperBound(range.getMax()));
+		RankedCandidates expected = ranker.rank(catalog, from, to, priorities, RecommendationService.MAX_RECOMMENDATIONS);
+		assertEquals(expected.size(), actual.size());
+		for (int rank = 0; rank < expected.size(); rank++) {
+			assertEquals(expected.itemAt(rank), actual.itemAt(rank));
+		}
+	}
+
+	@Test
+	void nonStandardWeightsAndStaleCatalogFallBackToLive() {
+		PhoneCatalog.Snapshot catalog = snapshot(randomPhones(new Random(3), 50), 1);
+		PriorityRankingTables tables = new PriorityRankingTables(ranker, null);
+		tables.rebuild(catalog);
+		RecommendationRequest.BudgetRange range = RecommendationRequest.budgetRangeFor("20-25");
+
+		Map<String, Integer> custom = new HashMap<>(PriorityRankingTables.PROFILES.get(0));
+		custom.put("camera", 73);
+		assertNull(tables.lookup(range, custom, catalog));
+		assertNull(tables.lookup(new RecommendationRequest.BudgetRange(1, 2), PriorityRankingTables.PROFILES.get(0), catalog));
+		assertNull(tables.lookup(range, PriorityRankingTables.PROFILES.get(0), snapshot(catalog.all(), 2)));
+
+		// A version bump alone keeps the tables usable
+		assertNotNull(tables.lookup(range, PriorityRankingTables.PROFILES.get(0), catalog.withVersion(5)));
+	}
+
+	private void assertMatchesLive(PriorityRankingTables tables, PhoneCatalog.Snapshot catalog) {
+		for (RecommendationRequest.BudgetRange range : PriorityRankingTables.BUCKETS) {
+			int from = catalog.lowerBound(range.getMin());
+			int to = Math.max(from, catalog.upperBound(range.getMax()));
+			for (Map<String, Integer> profile : PriorityRankingTables.PROFILES) {
+				RankedCandidates expected = ranker.rank(catalog, from, to, profile, RecommendationService.MAX_RECOMMENDATIONS);
+				RankedCandidates actual = tables.lookup(range, profile, catalog);
+				assertNotNull(actual);
+				assertEquals(expected.size(), actual.size());
+				for (int rank = 0; rank < expected.size(); rank++) {
+					assertEquals(expected.itemAt(rank), actual.itemAt(rank));
+					assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+				}
+			}
+		}
+	}
+}
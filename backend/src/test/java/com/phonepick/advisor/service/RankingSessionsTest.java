@@ -0,0 +1,105 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+class RankingSessionsTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+	private final RecommendationRequest.BudgetRange range = new RecommendationRequest.BudgetRange(2000, 9000);
+
+	@Test
+	void sliderChangesMatchFullReranking() {
+		PhoneCatalog.Snapshot catalog = catalog(new Random(18), 1000, 1);
+		RankingSessions sessions = new RankingSessions(10, 30);
+		Map<String, Integer> priorities = new HashMap<>(Map.of(
+			"camera", 100, "battery", 85, "performance", 70, "privacy", 55, "looks", 40));
+
+		RankingSessions.Ranking ranking = sessions.open(range, priorities, "custom", catalog, 5);
+		assertSameRanking(fullRanking(catalog, priorities), ranking.getRanked());
+
+		Random random = new Random(7);
+		for (int change = 0; change < 50; change++) {
+			String feature = RankingSessions.WEIGHT_KEYS[random.nextInt(RankingSessions.WEIGHT_KEYS.length)];
+			int weight = random.nextInt(101);
+			priorities.put(feature, weight);
+
+			ranking = sessions.update(ranking.getSessionId(), feature, weight, catalog, 5);
+			assertSameRanking(fullRanking(catalog, priorities), ranking.getRanked());
+			assertEquals(priorities, ranking.getPriorities());
+		}
+	}
+
+	@Test
+	void refreshedCatalogRecomputesTotals() {
+		RankingSessions sessions = new RankingSessions(10, 30);
+		Map<String, Integer> priorities = new HashMap<>(Map.of("camera", 90, "battery", 30));
+		RankingSessions.Ranking ranking = sessions.open(range, priorities, "custom", catalog(new Random(1), 500, 1), 5);
+
+		PhoneCatalog.Snapshot refreshed = catalog(new Random(2), 600, 2);
+		priorities.put("looks", 100);
+		ranking = sessions.update(ranking.getSessionId(), "looks", 100, refreshed, 5);
+
+		assertSameRanking(fullRanking(refreshed, priorities), ranking.getRanked());
+	}
+
+	@Test
+	void unknownSessionsAndFeatures() {
+		RankingSessions sessions = new RankingSessions(1, 30);
+		PhoneCatalog.Snapshot catalog = catalog(new Random(3), 100, 1);
+		String first = sessions.open(range, Map.of(), "custom", catalog, 5).getSessionId();
+		String second = sessions.open(range, Map.of(), "custom", catalog, 5).getSessionId();
+
+		// Bounded to one session: the first was evicted
+		assertNull(sessions.update(first, "camera", 80, catalog, 5));
+		assertNull(sessions.update("missing", "camera", 80, catalog, 5));
+		assertThrows(IllegalArgumentException.class, () -> sessions.update(second, "speed", 80, catalog, 5));
+		assertEquals(1, sessions.size());
+	}
+
+	private TopKSelector fullRanking(PhoneCatalog.Snapshot catalog, Map<String, Integer> priorities) {
+		int from = catalog.lowerBound(range.getMin());
+		int to = catalog.upperBound(range.getMax());
+		return ranker.rank(catalog, from, to, priorities, 5);
+	}
+
+	private static void assertSameRanking(TopKSelector expected, TopKSelector actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int rank = 0; rank < expected.size(); rank++) {
+			assertEquals(expected.itemAt(rank), actual.itemAt(rank));
+			assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+		}
+	}
+
+	private static PhoneCatalog.Snapshot catalog(Random random, int size, long version) {
+		Phone[] phones = new Phone[size];
+		int[] prices = new int[size];
+		int[] unified = new int[size];
+		String[] families = new String[size];
+		for (int i = 0; i < size; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i);
+			phone.setPrice(i * 10000 / size);
+			phone.setCameraScore(random.nextInt(101));
+			phone.setBatteryScore(random.nextInt(101));
+			phone.setSoftwareScore(random.nextInt(101));
+			phone.setPrivacyScore(random.nextInt(101));
+			phone.setLooksScore(random.nextInt(101));
+			phones[i] = phone;
+			prices[i] = phone.getPrice();
+			unified[i] = random.nextInt(101);
+			families[i] = "family" + random.nextInt(size / 2);
+		}
+		return new PhoneCatalog.Snapshot(version, phones, prices, unified, families);
+	}
+}
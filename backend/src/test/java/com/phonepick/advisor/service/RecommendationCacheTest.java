@@ -0,0 +1,124 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecommendationCacheTest {
+
+	private static final Map<String, Integer> PRIORITIES = Map.of("camera", 100, "battery", 85, "performance", 70);
+
+	@Test
+	void hitsReturnCopiesThatCallersCanModify() {
+		RecommendationCache cache = new RecommendationCache(10);
+		List<PhoneRecommendation> computed = recommendations(1L, 2L);
+		cache.put("a", 1, computed);
+
+		// Changes after put, or to a returned hit, do not reach the cached entry
+		computed.get(0).setWhyPicked("changed after put");
+		List<PhoneRecommendation> first = cache.get("a", 1);
+		first.get(0).setMatchScore(0);
+		first.get(0).getScores().put("camera", 0);
+		first.get(0).getBeatsAlternatives().get(0).setReason("changed by a caller");
+		first.remove(1);
+
+		List<PhoneRecommendation> second = cache.get("a", 1);
+		assertNotSame(first, second);
+		assertEquals(2, second.size());
+		assertEquals(90, second.get(0).getMatchScore());
+		assertEquals("picked", second.get(0).getWhyPicked());
+		assertEquals(80, second.get(0).getScores().get("camera"));
+		assertEquals("brighter display", second.get(0).getBeatsAlternatives().get(0).getReason());
+	}
+
+	@Test
+	void entriesFromAnOlderCatalogVersionAreDropped() {
+		RecommendationCache cache = new RecommendationCache(10);
+		cache.put("a", 1, recommendations(1L));
+
+		assertNull(cache.get("a", 2));
+		// Dropped on the stale read, so the old version no longer hits either
+		assertNull(cache.get("a", 1));
+		RecommendationCache.Stats stats = cache.getStats();
+		assertEquals(0, stats.getSize());
+		assertEquals(1, stats.getInvalidations());
+		assertEquals(2, stats.getMisses());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		RecommendationCache cache = new RecommendationCache(2);
+		cache.put("a", 1, recommendations(1L));
+		cache.put("b", 1, recommendations(2L));
+		assertNotNull(cache.get("a", 1));
+		cache.put("c", 1, recommendations(3L));
+
+		assertNull(cache.get("b", 1));
+		assertNotNull(cache.get("a", 1));
+		assertNotNull(cache.get("c", 1));
+		assertEquals(1, cache.getStats().getEvictions());
+		assertEquals(2, cache.getStats().getSize());
+	}
+
+	@Test
+	void countersArePublishedAsMeters() {
+		RecommendationCache cache = new RecommendationCache(1);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+
+		cache.put("a", 1, recommendations(1L));
+		cache.get("a", 1);
+		cache.get("b", 1);
+		cache.put("b", 1, recommendations(2L));
+		cache.get("b", 2);
+
+		assertEquals(1, registry.get("recommendation.cache.requests").tag("result", "hit").functionCounter().count());
+		assertEquals(2, registry.get("recommendation.cache.requests").tag("result", "miss").functionCounter().count());
+		assertEquals(1, registry.get("recommendation.cache.evictions").functionCounter().count());
+		assertEquals(1, registry.get("recommendation.cache.invalidations").functionCounter().count());
+		assertEquals(0, registry.get("recommendation.cache.size").gauge().value());
+	}
+
+	@Test
+	void keysSeparateBudgetsWeightsAndPatterns() {
+		RecommendationRequest.BudgetRange budget = RecommendationRequest.budgetRangeFor("20-25");
+		String key = RecommendationCache.keyFor(budget, PRIORITIES, "camera-battery");
+
+		assertEquals(key, RecommendationCache.keyFor(budget, Map.of("performance", 70, "battery", 85, "camera", 100), "camera-battery"));
+		assertNotEquals(key, RecommendationCache.keyFor(RecommendationRequest.budgetRangeFor("25-30"), PRIORITIES, "camera-battery"));
+		assertNotEquals(key, RecommendationCache.keyFor(budget, Map.of("camera", 100), "camera-battery"));
+		assertNotEquals(key, RecommendationCache.keyFor(budget, PRIORITIES, "battery-camera"));
+	}
+
+	private static List<PhoneRecommendation> recommendations(Long... ids) {
+		List<PhoneRecommendation> recommendations = new ArrayList<>();
+		for (Long id : ids) {
+			Phone phone = new Phone();
+			phone.setId(id);
+			phone.setBrand("Brand");
+			phone.setModel("Model" + id);
+			phone.setPrice(20000);
+			phone.setCameraScore(80);
+			PhoneRecommendation recommendation = PhoneRecommendation.fromPhone(phone, 90);
+			recommendation.setWhyPicked("picked");
+			recommendation.getBeatsAlternatives().add(
+				new PhoneRecommendation.AlternativeComparison("Other", "Model9", "brighter display"));
+			recommendations.add(recommendation);
+		}
+		return recommendations;
+	}
+}
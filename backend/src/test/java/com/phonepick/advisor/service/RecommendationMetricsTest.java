@@ -0,0 +1,56 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecommendationMetricsTest {
+
+	private SimpleMeterRegistry registry;
+	private RecommendationMetrics metrics;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		metrics = new RecommendationMetrics(registry);
+	}
+
+	@Test
+	void outcomesAreCountedPerBucketAndOutcome() {
+		metrics.recordOutcome("20-25", "cache-hit");
+		metrics.recordOutcome("20-25", "cache-hit");
+		metrics.recordOutcome("20-25", "ranked-table");
+		metrics.recordOutcome("custom", "cache-hit");
+
+		assertEquals(2, registry.get("recommendation.requests")
+			.tags("bucket", "20-25", "outcome", "cache-hit").counter().count());
+		assertEquals(1, registry.get("recommendation.requests")
+			.tags("bucket", "20-25", "outcome", "ranked-table").counter().count());
+		assertEquals(1, registry.get("recommendation.requests")
+			.tags("bucket", "custom", "outcome", "cache-hit").counter().count());
+		assertEquals(3, registry.get("recommendation.requests").counters().size());
+	}
+
+	@Test
+	void candidatesInsightsAndStagesAreRecorded() {
+		metrics.recordCandidates("20-25", 40);
+		metrics.recordInsights("20-25", 3, 1, 1);
+		metrics.recordStage("20-25", RecommendationMetrics.STAGE_SCORING, TimeUnit.MILLISECONDS.toNanos(2));
+
+		DistributionSummary candidates = registry.get("recommendation.candidates").tag("bucket", "20-25").summary();
+		assertEquals(40, candidates.totalAmount());
+		assertEquals(List.of(Tag.of("bucket", "20-25")), candidates.getId().getTags());
+		assertEquals(3, registry.get("recommendation.insights").tag("result", "exact").summary().totalAmount());
+		assertEquals(1, registry.get("recommendation.insights").tag("result", "miss").summary().totalAmount());
+		assertEquals(2, registry.get("recommendation.stage")
+			.tags("bucket", "20-25", "stage", RecommendationMetrics.STAGE_SCORING).timer().totalTime(TimeUnit.MILLISECONDS));
+	}
+}
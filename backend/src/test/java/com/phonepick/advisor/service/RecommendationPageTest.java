@@ -0,0 +1,170 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationPage;
+import com.phonepick.advisor.model.RecommendationRequest;
+import com.phonepick.advisor.repository.PhoneInsightRepository;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecommendationPageTest {
+
+	private static final Map<String, Integer> PRIORITIES =
+		Map.of("camera", 100, "battery", 85, "performance", 70, "privacy", 55, "looks", 40);
+
+	private RecommendationService service;
+
+	@BeforeEach
+	void setUp() {
+		List<Phone> phones = new ArrayList<>();
+		// Seven phones in the 20-25 bucket, better camera first, and four priced above it
+		for (long id = 1; id <= 7; id++) {
+			phones.add(phone(id, 20000 + (int) id * 500, 100 - (int) id * 5));
+		}
+		for (long id = 8; id <= 11; id++) {
+			phones.add(phone(id, 30000 + (int) id * 500, 100 - (int) id * 5));
+		}
+		PhoneRepository phoneRepository = mock(PhoneRepository.class);
+		when(phoneRepository.findAll()).thenReturn(phones);
+		PhoneCatalog catalog = new PhoneCatalog(phoneRepository, mock(UnifiedScoringService.class), event -> { });
+		CandidateRanker ranker = new CandidateRanker();
+
+		service = new RecommendationService(
+			catalog,
+			new PhoneInsightIndex(mock(PhoneInsightRepository.class), catalog, 1024 * 1024),
+			new RecommendationCache(10),
+			ranker,
+			new PriorityRankingTables(ranker, catalog),
+			new SkylineIndex(catalog),
+			new RankingSessions(10, 30),
+			new SpecFacetIndex(catalog),
+			new ComparisonService(catalog, 100),
+			new RecommendationMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(service, "maxPageSize", 5);
+		ReflectionTestUtils.setField(service, "maxRankingDepth", 500);
+	}
+
+	@Test
+	void cursorsContinueWithoutGapsUntilTheLastPage() {
+		RecommendationRequest request = request("20-25");
+
+		RecommendationPage first = service.getRecommendationPage(request, null, 3);
+		assertEquals(List.of(1L, 2L, 3L), ids(first));
+		assertEquals(7, first.getCandidateCount());
+		assertEquals(2, first.getItems().get(0).getBeatsAlternatives().size());
+
+		RecommendationPage second = service.getRecommendationPage(request, first.getNextCursor(), 3);
+		assertEquals(List.of(4L, 5L, 6L), ids(second));
+		// Comparisons belong to the first page only
+		assertTrue(second.getItems().get(0).getBeatsAlternatives().isEmpty());
+
+		RecommendationPage last = service.getRecommendationPage(request, second.getNextCursor(), 3);
+		assertEquals(List.of(7L), ids(last));
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void exactlyFullLastPageHasNoCursor() {
+		RecommendationRequest request = request("20-25");
+		RecommendationPage first = service.getRecommendationPage(request, "", 4);
+		assertNotNull(first.getNextCursor());
+		RecommendationPage last = service.getRecommendationPage(request, first.getNextCursor(), 3);
+		assertEquals(List.of(5L, 6L, 7L), ids(last));
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void pagingStopsAtTheMaximumDepth() {
+		ReflectionTestUtils.setField(service, "maxRankingDepth", 4);
+		RecommendationRequest request = request("20-25");
+
+		RecommendationPage first = service.getRecommendationPage(request, null, 2);
+		RecommendationPage atLimit = service.getRecommendationPage(request, first.getNextCursor(), 2);
+		assertEquals(List.of(3L, 4L), ids(atLimit));
+		// More phones are ranked below, but none can be paged to
+		assertNull(atLimit.getNextCursor());
+
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getRecommendationPage(request, first.getNextCursor(), 3));
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getRecommendationPage(request, cursor("o4"), 1));
+	}
+
+	@Test
+	void malformedCursorsAndSizesAreRejected() {
+		RecommendationRequest request = request("20-25");
+		for (String cursor : List.of("not base64!", cursor("x2"), cursor("o-1"), cursor("o"), cursor("o1x"))) {
+			assertThrows(IllegalArgumentException.class, () -> service.getRecommendationPage(request, cursor, 2), cursor);
+		}
+		assertThrows(IllegalArgumentException.class, () -> service.getRecommendationPage(request, null, 0));
+		assertThrows(IllegalArgumentException.class, () -> service.getRecommendationPage(request, null, 6));
+	}
+
+	@Test
+	void priceBoundsOverrideTheBudget() {
+		RecommendationRequest request = request("20-25");
+		request.setMinPrice(33000);
+		request.setMaxPrice(40000);
+
+		RecommendationPage page = service.getRecommendationPage(request, null, 5);
+		assertEquals(List.of(8L, 9L, 10L, 11L), ids(page));
+		assertEquals(4, page.getCandidateCount());
+		assertNull(page.getNextCursor());
+
+		// One bound alone also replaces the bucket, open-ended on the other side
+		request.setMinPrice(null);
+		request.setMaxPrice(21000);
+		assertEquals(List.of(1L, 2L), ids(service.getRecommendationPage(request, null, 5)));
+	}
+
+	private static String cursor(String decoded) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<Long> ids(RecommendationPage page) {
+		return page.getItems().stream().map(PhoneRecommendation::getId).toList();
+	}
+
+	private static RecommendationRequest request(String budget) {
+		RecommendationRequest request = new RecommendationRequest();
+		request.setProductType("smartphone");
+		request.setBudget(budget);
+		request.setPriorities(PRIORITIES);
+		return request;
+	}
+
+	private static Phone phone(Long id, int price, int camera) {
+		Phone phone = new Phone();
+		phone.setId(id);
+		phone.setBrand("Brand");
+		phone.setModel("Model " + id);
+		phone.setPrice(price);
+		phone.setCameraScore(camera);
+		phone.setBatteryScore(60);
+		phone.setSoftwareScore(60);
+		phone.setPrivacyScore(60);
+		phone.setLooksScore(60);
+		phone.setUnifiedScore(60);
+		return phone;
+	}
+}
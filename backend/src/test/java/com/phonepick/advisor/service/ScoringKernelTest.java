@@ -0,0 +1,119 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+
+class ScoringKernelTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void multiplyShiftMatchesIntegerDivisionOverProductRange() {
+		for (int x = 0; x <= 100 * 100; x++) {
+			assertEquals(x / 100, ScoringKernel.div100(x));
+		}
+	}
+
+	@Test
+	void combineMatchesFormula() {
+		for (int base = -5; base <= 105; base++) {
+			for (int unified = -5; unified <= 105; unified++) {
+				assertEquals(CandidateRanker.combineScores(base, unified), ScoringKernel.combine(base, unified));
+			}
+		}
+	}
+
+	@Test
+	void matchScoresEqualPerPhoneFormula() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			boolean extreme = round % 4 == 0;
+			Phone[] phones = randomPhones(random, 1 + random.nextInt(70), extreme);
+			FeatureMatrix matrix = FeatureMatrix.of(phones);
+			Map<String, Integer> priorities = Map.of(
+				"camera", weight(random, extreme),
+				"battery", weight(random, extreme),
+				"software", weight(random, extreme),
+				"privacy", weight(random, extreme),
+				"looks", weight(random, extreme));
+			int from = random.nextInt(phones.length);
+			int to = from + random.nextInt(phones.length - from + 1);
+
+			int[] expected = new int[to - from];
+			for (int i = from; i < to; i++) {
+				expected[i - from] = ranker.calculateMatchScore(phones[i], priorities);
+			}
+			int[] actual = new int[to - from];
+			ScoringKernel.matchScores(matrix, from, to, CandidateRanker.scorerWeights(priorities), actual);
+			assertArrayEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void vectorAndScalarTotalsAgree() {
+		if (!ScoringKernel.VECTOR_AVAILABLE) {
+			return;
+		}
+		Random random = new Random(5);
+		for (int round = 0; round < 200; round++) {
+			Phone[] phones = randomPhones(random, 1 + random.nextInt(100), false);
+			FeatureMatrix matrix = FeatureMatrix.of(phones);
+			int[] weights = {random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101)};
+			int from = random.nextInt(phones.length);
+			int to = from + random.nextInt(phones.length - from + 1);
+
+			int[] scalar = new int[to - from];
+			int[] vector = new int[to - from];
+			ScoringKernel.percentTotals(matrix, from, to, weights, scalar);
+			VectorScoringKernel.percentTotals(matrix, from, to, weights, vector);
+			assertArrayEquals(scalar, vector);
+		}
+	}
+
+	@Test
+	void missingScoresCountAsZeroInBothPaths() {
+		Phone[] phones = randomPhones(new Random(1), 3, false);
+		phones[1].setLooksScore(null);
+		phones[1].setCameraScore(null);
+		Map<String, Integer> priorities = Map.of("camera", 80, "looks", 60);
+
+		int[] actual = new int[3];
+		ScoringKernel.matchScores(FeatureMatrix.of(phones), 0, 3, CandidateRanker.scorerWeights(priorities), actual);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(ranker.calculateMatchScore(phones[i], priorities), actual[i]);
+		}
+		phones[1].setLooksScore(0);
+		phones[1].setCameraScore(0);
+		assertEquals(ranker.calculateMatchScore(phones[1], priorities), actual[1]);
+	}
+
+	private static int weight(Random random, boolean extreme) {
+		return extreme ? random.nextInt(400) - 100 : random.nextInt(101);
+	}
+
+	private static Phone[] randomPhones(Random random, int count, boolean extreme) {
+		Phone[] phones = new Phone[count];
+		for (int i = 0; i < count; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i);
+			phone.setCameraScore(score(random, extreme));
+			phone.setBatteryScore(score(random, extreme));
+			phone.setSoftwareScore(score(random, extreme));
+			phone.setPrivacyScore(score(random, extreme));
+			phone.setLooksScore(score(random, extreme));
+			phones[i] = phone;
+		}
+		return phones;
+	}
+
+	private static int score(Random random, boolean extreme) {
+		return extreme ? random.nextInt(300) - 50 : random.nextInt(101);
+	}
+}
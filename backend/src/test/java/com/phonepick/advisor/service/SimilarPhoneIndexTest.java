@@ -0,0 +1,133 @@
+package com.phonepick.advisor.service;
+
+import static com.phonepick.advisor.service.TestCatalogs.catalog;
+import static com.phonepick.advisor.service.TestCatalogs.copy;
+import static com.phonepick.advisor.service.TestCatalogs.randomPhones;
+import static com.phonepick.advisor.service.TestCatalogs.snapshot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+
+class SimilarPhoneIndexTest {
+
+	@Test
+	void nearestNeighboursMatchBruteForceWithinPriceBand() {
+		List<Phone> phones = randomPhones(new Random(23), 2000);
+		SimilarPhoneIndex index = new SimilarPhoneIndex(catalog(phones));
+
+		for (long id = 1; id <= 2000; id += 97) {
+			List<PhoneRecommendation> similar = index.findSimilar(id, 10000, 60000, 5);
+			assertEquals(bruteForce(phones, id, 10000, 60000, 5), distances(phones, id, similar));
+			assertEquals(similar.size(), similar.stream().map(recommendation -> recommendation.getBrand() + recommendation.getModel()).distinct().count());
+			for (PhoneRecommendation recommendation : similar) {
+				assertTrue(recommendation.getPrice() >= 10000 && recommendation.getPrice() <= 60000);
+				assertTrue(recommendation.getMatchScore() >= 0 && recommendation.getMatchScore() <= 100);
+			}
+		}
+		assertNull(index.findSimilar(99999L, 0, Integer.MAX_VALUE, 5));
+	}
+
+	@Test
+	void partialRefreshReusesUnchangedRows() {
+		List<Phone> phones = randomPhones(new Random(29), 500);
+		PhoneCatalog.Snapshot previous = snapshot(phones, 1);
+		SimilarPhoneIndex index = new SimilarPhoneIndex(null);
+		index.onCatalogRefreshed(new CatalogRefreshedEvent(null, previous, Set.of()));
+
+		List<Phone> changed = new ArrayList<>(phones);
+		Phone rescored = copy(changed.get(42));
+		rescored.setCameraScore(100 - rescored.getCameraScore());
+		rescored.setPrice(rescored.getPrice() + 15000);
+		changed.set(42, rescored);
+		PhoneCatalog.Snapshot current = snapshot(changed, 2);
+		index.onCatalogRefreshed(new CatalogRefreshedEvent(previous, current, Set.of(rescored.getId())));
+
+		SimilarPhoneIndex rebuilt = new SimilarPhoneIndex(null);
+		rebuilt.onCatalogRefreshed(new CatalogRefreshedEvent(null, current, Set.of()));
+		for (long id = 1; id <= 500; id += 7) {
+			assertEquals(ids(rebuilt.findSimilar(id, 0, Integer.MAX_VALUE, 5)), ids(index.findSimilar(id, 0, Integer.MAX_VALUE, 5)));
+		}
+		assertEquals(bruteForce(changed, 43L, 0, Integer.MAX_VALUE, 5),
+			distances(changed, 43L, index.findSimilar(43L, 0, Integer.MAX_VALUE, 5)));
+	}
+
+	@Test
+	void unscoredPhonesCanBeReturnedAsNeighbours() {
+		List<Phone> phones = randomPhones(new Random(31), 20);
+		Phone unscored = new Phone();
+		unscored.setId(100L);
+		unscored.setBrand("Brand");
+		unscored.setModel("Unscored");
+		unscored.setPrice(phones.get(0).getPrice());
+		// Feature scores not computed yet; the unified score is filled in by the catalog
+		unscored.setUnifiedScore(50);
+		phones.add(unscored);
+		SimilarPhoneIndex index = new SimilarPhoneIndex(catalog(phones));
+
+		assertTrue(!index.findSimilar(100L, 0, Integer.MAX_VALUE, 25).isEmpty());
+		// Every other family fits in the limit, so the unscored phone is among phone 1's neighbours
+		assertTrue(index.findSimilar(1L, 0, Integer.MAX_VALUE, 25).stream()
+			.anyMatch(recommendation -> recommendation.getId() == 100L && recommendation.getScores().get("camera") == 0));
+	}
+
+	/**
+	 * Scaled squared distances of the closest phone per other family, nearest first
+	 * (distances rather than ids: equally distant phones may be returned in either order)
+	 */
+	private static List<Long> bruteForce(List<Phone> phones, long queryId, int minPrice, int maxPrice, int limit) {
+		Phone query = phones.stream().filter(phone -> phone.getId() == queryId).findFirst().orElseThrow();
+		float[] queryVector = vector(query);
+		List<Phone> candidates = phones.stream()
+			.filter(phone -> phone.getPrice() >= minPrice && phone.getPrice() <= maxPrice)
+			.filter(phone -> !ModelFamilyNormalizer.familyKeyOf(phone).equals(ModelFamilyNormalizer.familyKeyOf(query)))
+			.sorted(Comparator.comparing((Phone phone) -> Math.round(distance(queryVector, vector(phone)) * 16)))
+			.toList();
+		List<Long> result = new ArrayList<>();
+		Set<String> families = new HashSet<>();
+		for (Phone phone : candidates) {
+			if (result.size() < limit && families.add(ModelFamilyNormalizer.familyKeyOf(phone))) {
+				result.add((long) Math.round(distance(queryVector, vector(phone)) * 16));
+			}
+		}
+		return result;
+	}
+
+	private static List<Long> distances(List<Phone> phones, long queryId, List<PhoneRecommendation> similar) {
+		float[] queryVector = vector(phones.stream().filter(phone -> phone.getId() == queryId).findFirst().orElseThrow());
+		return similar.stream()
+			.map(recommendation -> phones.stream().filter(phone -> phone.getId().equals(recommendation.getId())).findFirst().orElseThrow())
+			.map(phone -> (long) Math.round(distance(queryVector, vector(phone)) * 16))
+			.toList();
+	}
+
+	private static float[] vector(Phone phone) {
+		float[] vector = new float[SimilarPhoneIndex.DIMENSIONS];
+		SimilarPhoneIndex.writeVector(phone, phone.getUnifiedScore(), vector, 0);
+		return vector;
+	}
+
+	private static float distance(float[] a, float[] b) {
+		float distance = 0;
+		for (int d = 0; d < a.length; d++) {
+			float delta = b[d] - a[d];
+			distance += delta * delta;
+		}
+		return distance;
+	}
+
+	private static List<Long> ids(List<PhoneRecommendation> recommendations) {
+		return recommendations.stream().map(PhoneRecommendation::getId).toList();
+	}
+}
@@ -0,0 +1,105 @@
+package com.phonepick.advisor.service;
+
+import static com.phonepick.advisor.service.TestCatalogs.catalog;
+import static com.phonepick.advisor.service.TestCatalogs.randomPhones;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.PhoneRecommendation;
+import com.phonepick.advisor.model.RecommendationRequest;
+
+class SkylineIndexTest {
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void skylineMatchesPairwiseDominanceCheck() {
+		PhoneCatalog catalog = catalog(randomPhones(new Random(31), 3000, 10));
+		SkylineIndex index = new SkylineIndex(catalog);
+		index.rebuild(catalog.snapshot());
+
+		PhoneCatalog.Snapshot snapshot = catalog.snapshot();
+		for (RecommendationRequest.BudgetRange range : PriorityRankingTables.BUCKETS) {
+			int from = snapshot.lowerBound(range.getMin());
+			int to = Math.max(from, snapshot.upperBound(range.getMax()));
+			List<Long> expected = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				boolean dominated = false;
+				for (int j = from; j < to && !dominated; j++) {
+					dominated = j != i && dominates(snapshot.get(j), snapshot.get(i));
+				}
+				if (!dominated) {
+					expected.add(snapshot.get(i).getId());
+				}
+			}
+			List<Long> actual = index.skyline(range).stream().map(PhoneRecommendation::getId).toList();
+			assertEquals(expected, actual);
+		}
+		assertNull(index.skyline(new RecommendationRequest.BudgetRange(12345, 23456)));
+	}
+
+	@Test
+	void bandRanksLikeTheWholeBucket() {
+		PhoneCatalog catalog = catalog(randomPhones(new Random(37), 4000, 10));
+		PhoneCatalog.Snapshot snapshot = catalog.snapshot();
+		SkylineIndex index = new SkylineIndex(catalog);
+		index.rebuild(snapshot);
+
+		List<Map<String, Integer>> profiles = new ArrayList<>(PriorityRankingTables.PROFILES.subList(0, 40));
+		profiles.add(Map.of("camera", 150, "looks", 0));
+		profiles.add(Map.of());
+
+		for (RecommendationRequest.BudgetRange range : PriorityRankingTables.BUCKETS) {
+			int from = snapshot.lowerBound(range.getMin());
+			int to = Math.max(from, snapshot.upperBound(range.getMax()));
+			for (Map<String, Integer> profile : profiles) {
+				PhoneCatalog.Snapshot band = index.band(range, profile, RecommendationService.MAX_RECOMMENDATIONS, snapshot);
+				assertNotNull(band);
+				TopKSelector expected = ranker.rank(snapshot, from, to, profile, RecommendationService.MAX_RECOMMENDATIONS);
+				TopKSelector actual = ranker.rank(band, 0, band.size(), profile, RecommendationService.MAX_RECOMMENDATIONS);
+				assertEquals(expected.size(), actual.size());
+				for (int rank = 0; rank < expected.size(); rank++) {
+					assertSame(snapshot.get(expected.itemAt(rank)), band.get(actual.itemAt(rank)));
+					assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+				}
+			}
+			int bandSize = index.band(range, Map.of(), RecommendationService.MAX_RECOMMENDATIONS, snapshot).size();
+			assertTrue(to == from || bandSize < to - from);
+		}
+
+		RecommendationRequest.BudgetRange bucket = PriorityRankingTables.BUCKETS.get(3);
+		assertNull(index.band(bucket, Map.of("camera", -10), RecommendationService.MAX_RECOMMENDATIONS, snapshot));
+		assertNull(index.band(bucket, Map.of(), RecommendationService.MAX_RECOMMENDATIONS + 1, snapshot));
+	}
+
+	private static boolean dominates(Phone a, Phone b) {
+		int[] scoresA = scores(a);
+		int[] scoresB = scores(b);
+		boolean better = a.getPrice() < b.getPrice();
+		for (int f = 0; f < scoresA.length; f++) {
+			if (scoresA[f] < scoresB[f]) {
+				return false;
+			}
+			better |= scoresA[f] > scoresB[f];
+		}
+		return a.getPrice() <= b.getPrice() && better;
+	}
+
+	private static int[] scores(Phone phone) {
+		return new int[] {
+			phone.getCameraScore(), phone.getBatteryScore(), phone.getSoftwareScore(),
+			phone.getPrivacyScore(), phone.getLooksScore()
+		};
+	}
+}
@@ -0,0 +1,144 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.model.SpecFilters;
+
+class SpecFacetIndexTest {
+
+	private static final int[] RAM = {4, 6, 8, 12};
+	private static final int[] REFRESH_RATES = {60, 90, 120, 144};
+	private static final String[] PANELS = {"AMOLED", "LCD"};
+
+	private final CandidateRanker ranker = new CandidateRanker();
+
+	@Test
+	void parsesFlipkartSpecText() {
+		Phone phone = new Phone();
+		phone.setModel("Edge 50 Fusion 5G (Marshmallow Blue, 256 GB)");
+		phone.setMemory_and_storage("8 GB RAM | 256 GB ROM | Expandable Upto 1 TB");
+		phone.setDisplayInfo("17.02 cm (6.7 inch) Full HD+ pOLED Display 144Hz");
+		phone.setBattery("5000 mAh Battery");
+		phone.setProcessor("7s Gen 2 Processor");
+		assertEquals(Arrays.asList(8, 256, true, "OLED", 144, 5000, true), SpecFacetIndex.Specs.parse(phone).values());
+
+		Phone feature = new Phone();
+		feature.setModel("105 Dual Sim");
+		feature.setMemory_and_storage("4 MB RAM | 4 MB ROM");
+		feature.setDisplayInfo("4.57 cm (1.8 inch) Display");
+		assertEquals(Arrays.asList(0, 0, false, null, null, null, false), SpecFacetIndex.Specs.parse(feature).values());
+	}
+
+	@Test
+	void filteredRankingMatchesRankingOnlyThePassingPhones() {
+		Random random = new Random(23);
+		PhoneCatalog.Snapshot catalog = randomCatalog(random, 3000);
+		SpecFacetIndex index = new SpecFacetIndex(null);
+
+		SpecFilters filters = new SpecFilters(8, null, null, List.of("amoled"), 120, 5000, null);
+		Predicate<Phone> passes = phone -> ram(phone) >= 8 && phone.getDisplayInfo().contains("AMOLED")
+			&& refreshRate(phone) >= 120 && battery(phone) >= 5000;
+		int from = catalog.lowerBound(15000);
+		int to = catalog.upperBound(60000);
+		BitSet matching = index.matching(filters, catalog, from, to);
+
+		Map<String, Integer> priorities = Map.of("camera", 90, "battery", 70, "performance", 40);
+		TopKSelector expected = new TopKSelector(5);
+		int passing = 0;
+		for (int i = from; i < to; i++) {
+			if (passes.test(catalog.get(i))) {
+				passing++;
+				int base = ranker.calculateMatchScore(catalog.get(i), priorities);
+				expected.offer(catalog.familyKeyAt(i), CandidateRanker.combineScores(base, catalog.unifiedScoreAt(i)), i);
+			}
+		}
+		expected.finish();
+		TopKSelector actual = ranker.rank(catalog, from, to, matching, priorities, 5);
+
+		assertEquals(passing, matching.cardinality());
+		assertEquals(expected.size(), actual.size());
+		for (int rank = 0; rank < expected.size(); rank++) {
+			assertEquals(expected.itemAt(rank), actual.itemAt(rank));
+			assertEquals(expected.scoreAt(rank), actual.scoreAt(rank));
+		}
+	}
+
+	@Test
+	void eachFacetIsCountedUnderTheOtherFilters() {
+		PhoneCatalog.Snapshot catalog = randomCatalog(new Random(29), 2000);
+		SpecFacetIndex index = new SpecFacetIndex(null);
+		SpecFilters filters = new SpecFilters(8, null, null, List.of("AMOLED"), null, null, true);
+		int from = catalog.lowerBound(10000);
+		int to = catalog.upperBound(40000);
+
+		Map<String, Map<String, Integer>> counts = index.counts(filters, catalog, from, to);
+		// RAM counted under the display and 5G filters only
+		Map<String, Integer> ram = new TreeMap<>();
+		Map<String, Integer> panels = new TreeMap<>();
+		for (int i = from; i < to; i++) {
+			Phone phone = catalog.get(i);
+			boolean fiveG = phone.getModel().endsWith("5G");
+			if (phone.getDisplayInfo().contains("AMOLED") && fiveG) {
+				ram.merge(String.valueOf(ram(phone)), 1, Integer::sum);
+			}
+			if (ram(phone) >= 8 && fiveG) {
+				panels.merge(phone.getDisplayInfo().contains("AMOLED") ? "AMOLED" : "LCD", 1, Integer::sum);
+			}
+		}
+		assertEquals(ram, new TreeMap<>(counts.get("ramGb")));
+		assertEquals(panels, new TreeMap<>(counts.get("displayType")));
+		assertEquals(List.of("4", "6", "8", "12"), new ArrayList<>(counts.get("ramGb").keySet()));
+	}
+
+	private static PhoneCatalog.Snapshot randomCatalog(Random random, int count) {
+		Phone[] phones = new Phone[count];
+		int[] prices = new int[count];
+		int[] unified = new int[count];
+		String[] families = new String[count];
+		for (int i = 0; i < count; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i);
+			phone.setModel("Model " + i + (random.nextBoolean() ? " 5G" : ""));
+			phone.setPrice(5000 + i * 25);
+			phone.setMemory_and_storage(RAM[random.nextInt(RAM.length)] + " GB RAM | 128 GB ROM");
+			phone.setDisplayInfo("6.7 inch " + PANELS[random.nextInt(PANELS.length)] + " Display "
+				+ REFRESH_RATES[random.nextInt(REFRESH_RATES.length)] + "Hz");
+			phone.setBattery((4000 + 500 * random.nextInt(5)) + " mAh Battery");
+			phone.setCameraScore(random.nextInt(101));
+			phone.setBatteryScore(random.nextInt(101));
+			phone.setSoftwareScore(random.nextInt(101));
+			phone.setPrivacyScore(random.nextInt(101));
+			phone.setLooksScore(random.nextInt(101));
+			phones[i] = phone;
+			prices[i] = phone.getPrice();
+			unified[i] = random.nextInt(101);
+			families[i] = "family" + random.nextInt(count / 3);
+		}
+		return new PhoneCatalog.Snapshot(1, phones, prices, unified, families);
+	}
+
+	private static int ram(Phone phone) {
+		return Integer.parseInt(phone.getMemory_and_storage().split(" ")[0]);
+	}
+
+	private static int refreshRate(Phone phone) {
+		String display = phone.getDisplayInfo();
+		return Integer.parseInt(display.substring(display.lastIndexOf(' ') + 1, display.length() - 2));
+	}
+
+	private static int battery(Phone phone) {
+		return Integer.parseInt(phone.getBattery().split(" ")[0]);
+	}
+}
@@ -0,0 +1,261 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+class SpecProfileTest {
+
+	private static final String[] FRAGMENTS = {
+		"50MP", "8 MP", "200mp", " + ", "+", "OIS", "Telephoto", "periscope", "Ultra Wide", "macro", "Night Mode",
+		"5000 mAh", "6000mAh", "33W", " 120 W ", "wireless", "Reverse Charging", "8 GB RAM", "12GB  RAM", "128GB",
+		"| 256 GB ROM", "1024 GB", "4 MB RAM", "Expandable Upto 1 TB", "microSD", "UFS 3.1", "ufs 4.0", "ufs 3.0",
+		"Snapdragon 8 Gen 3", "SD 8+ Gen 1", "snapdragon 888", "Dimensity 9300", "Dimensity 6100+", "Helio G99",
+		"Exynos 2400", "Snapdragon 7s Gen 2", "Snapdragon 4 Gen 2", "4nm", "6 nm", "3 nm", "Super AMOLED", "pOLED",
+		"IPS LCD", "120Hz", "144 hz", "90hz", "60 Hz", "FHD+", "Full HD", "Quad HD", "2K", "HD+", "17.02 cm",
+		"(6.7 inch)", "6.5", "12.5", "LTPO", "HDR10+", "Dolby Vision", "Gorilla Glass Victus", " ", "|", "0", "\t"
+	};
+
+	private final PhoneSpecScoringService scoring = new PhoneSpecScoringService();
+
+	@Test
+	void parsesFlipkartSpecText() {
+		SpecProfile specs = SpecProfile.of(
+			"50MP + 13MP + 5MP | 32MP Front Camera",
+			"5000 mAh Battery with 67W Fast Charging",
+			"12 GB RAM | 256 GB ROM | UFS 3.1",
+			"Snapdragon 7s Gen 2 Processor (4nm)",
+			"17.02 cm (6.7 inch) Full HD+ AMOLED Display 120Hz");
+
+		assertEquals(50, specs.getMaxCameraMp());
+		assertEquals(3, specs.getCameraCount());
+		assertEquals(5000, specs.getBatteryMah());
+		assertEquals(67, specs.getChargingWatts());
+		assertEquals(12, specs.getRamGb());
+		assertEquals(256, specs.getStorageGb());
+		assertFalse(specs.isExpandableStorage());
+		assertEquals(31, specs.getUfsVersion());
+		assertEquals(SpecProfile.Chipset.SNAPDRAGON_7_GEN_2, specs.getChipset());
+		assertEquals(4, specs.getProcessNodeNm());
+		assertEquals(SpecProfile.Panel.AMOLED, specs.getPanel());
+		assertEquals(120, specs.getRefreshRateHz());
+		assertEquals(SpecProfile.Resolution.FHD, specs.getResolution());
+		assertEquals(17.02, specs.getDisplaySize());
+
+		SpecProfile empty = SpecProfile.of(null, "", null, null, null);
+		assertFalse(empty.hasCameraInfo() || empty.hasBatteryInfo() || empty.hasDisplayInfo());
+		assertEquals(SpecProfile.Chipset.UNKNOWN, empty.getChipset());
+		assertEquals(50, scoring.scoreDisplay(empty));
+	}
+
+	@Test
+	void scoresMatchTheRegexScorersOnTheSampleCatalog() throws IOException {
+		int rows = 0;
+		for (CSVRecord record : sampleRows()) {
+			assertSameScores(record.get("camera"), record.get("battery"), record.get("memory_and_storage"),
+				record.get("processor"), record.get("display"));
+			rows++;
+		}
+		assertTrue(rows > 100);
+	}
+
+	@Test
+	void scoresMatchTheRegexScorersOnRandomText() {
+		Random random = new Random(25);
+		for (int round = 0; round < 20000; round++) {
+			String[] texts = new String[5];
+			for (int field = 0; field < texts.length; field++) {
+				StringBuilder text = new StringBuilder();
+				for (int parts = random.nextInt(7); parts > 0; parts--) {
+					text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+				}
+				texts[field] = text.toString();
+			}
+			assertSameScores(texts[0], texts[1], texts[2], texts[3], texts[4]);
+		}
+	}
+
+	private void assertSameScores(String camera, String battery, String memory, String processor, String display) {
+		SpecProfile specs = SpecProfile.of(camera, battery, memory, processor, display);
+		assertEquals(RegexScorers.camera(camera), scoring.scoreCameraSpec(specs), camera);
+		assertEquals(RegexScorers.battery(battery), scoring.scoreBatterySpec(specs), battery);
+		assertEquals(RegexScorers.storage(memory), scoring.scoreStorageAndRam(specs), memory);
+		assertEquals(RegexScorers.processor(processor), scoring.scoreProcessor(specs), processor);
+		assertEquals(RegexScorers.display(display), scoring.scoreDisplay(specs), display);
+	}
+
+	private static List<CSVRecord> sampleRows() throws IOException {
+		try (InputStream in = SpecProfileTest.class.getResourceAsStream(FlipkartSampleCsv.RESOURCE)) {
+			String layout = FlipkartSampleCsv.toImportLayout(in);
+			CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+			return new ArrayList<>(format.parse(new StringReader(layout)).getRecords());
+		}
+	}
+
+	/**
+	 * The regex / String.contains scorers SpecProfile replaced, kept as the reference
+	 */
+	private static final class RegexScorers {
+
+		static int camera(String cameraInfo) {
+			if (cameraInfo == null || cameraInfo.isEmpty()) return 50;
+			int score = 40;
+			String lower = cameraInfo.toLowerCase();
+			Matcher matcher = Pattern.compile("(\\d+)\\s*mp").matcher(lower);
+			int maxMp = 0;
+			while (matcher.find()) maxMp = Math.max(maxMp, Integer.parseInt(matcher.group(1)));
+			if (maxMp >= 200) score += 30;
+			else if (maxMp >= 108) score += 25;
+			else if (maxMp >= 64) score += 20;
+			else if (maxMp >= 50) score += 15;
+			else if (maxMp >= 48) score += 12;
+			else if (maxMp >= 32) score += 10;
+			else if (maxMp >= 16) score += 5;
+			long cameraCount = lower.split("\\+").length;
+			if (cameraCount >= 4) score += 10;
+			else if (cameraCount >= 3) score += 7;
+			else if (cameraCount >= 2) score += 4;
+			if (lower.contains("ois") || lower.contains("optical stabilization")) score += 5;
+			if (lower.contains("telephoto") || lower.contains("periscope")) score += 5;
+			if (lower.contains("ultra wide") || lower.contains("ultrawide")) score += 3;
+			if (lower.contains("macro")) score += 2;
+			if (lower.contains("night mode") || lower.contains("night sight")) score += 3;
+			return Math.min(100, score);
+		}
+
+		static int battery(String batteryInfo) {
+			if (batteryInfo == null || batteryInfo.isEmpty()) return 50;
+			int score = 30;
+			String lower = batteryInfo.toLowerCase();
+			Matcher matcher = Pattern.compile("(\\d+)\\s*mah").matcher(lower);
+			if (matcher.find()) {
+				int capacity = Integer.parseInt(matcher.group(1));
+				if (capacity >= 6000) score += 40;
+				else if (capacity >= 5750) score += 38;
+				else if (capacity >= 5500) score += 36;
+				else if (capacity >= 5250) score += 34;
+				else if (capacity >= 5000) score += 32;
+				else if (capacity >= 4750) score += 28;
+				else if (capacity >= 4500) score += 24;
+				else if (capacity >= 4250) score += 20;
+				else if (capacity >= 4000) score += 16;
+				else if (capacity >= 3750) score += 12;
+				else if (capacity >= 3500) score += 8;
+				else if (capacity >= 3250) score += 4;
+			}
+			Matcher charging = Pattern.compile("(\\d+)\\s*w").matcher(lower);
+			if (charging.find()) {
+				int wattage = Integer.parseInt(charging.group(1));
+				if (wattage >= 120) score += 15;
+				else if (wattage >= 80) score += 12;
+				else if (wattage >= 65) score += 10;
+				else if (wattage >= 45) score += 7;
+				else if (wattage >= 30) score += 5;
+				else if (wattage >= 18) score += 3;
+			}
+			if (lower.contains("wireless")) score += 5;
+			if (lower.contains("reverse charging")) score += 3;
+			return Math.min(100, score);
+		}
+
+		static int storage(String memoryInfo) {
+			if (memoryInfo == null || memoryInfo.isEmpty()) return 50;
+			int score = 30;
+			String lower = memoryInfo.toLowerCase();
+			Matcher ramMatcher = Pattern.compile("(\\d+)\\s*gb\\s*ram").matcher(lower);
+			if (ramMatcher.find()) {
+				int ram = Integer.parseInt(ramMatcher.group(1));
+				if (ram >= 16) score += 20;
+				else if (ram >= 12) score += 17;
+				else if (ram >= 8) score += 14;
+				else if (ram >= 6) score += 10;
+				else if (ram >= 4) score += 6;
+				else if (ram >= 3) score += 3;
+			}
+			Matcher storageMatcher = Pattern.compile("(\\d+)\\s*gb(?!\\s*ram)").matcher(lower);
+			int maxStorage = 0;
+			while (storageMatcher.find()) maxStorage = Math.max(maxStorage, Integer.parseInt(storageMatcher.group(1)));
+			boolean expandable = lower.contains("expandable") || lower.contains("card slot") || lower.contains("microsd");
+			if (!expandable && maxStorage < 128) return 25;
+			if (maxStorage >= 1024) score += 30;
+			else if (maxStorage >= 512) score += 25;
+			else if (maxStorage >= 256) score += 20;
+			else if (maxStorage >= 128) score += expandable ? 17 : 15;
+			else if (maxStorage >= 64 && expandable) score += 12;
+			else if (maxStorage >= 32 && expandable) score += 8;
+			if (expandable) score += 5;
+			if (lower.contains("ufs 4.0")) score += 8;
+			else if (lower.contains("ufs 3.1")) score += 6;
+			else if (lower.contains("ufs 3.0")) score += 4;
+			return Math.min(100, score);
+		}
+
+		static int processor(String processorInfo) {
+			if (processorInfo == null || processorInfo.isEmpty()) return 50;
+			int score = 40;
+			String lower = processorInfo.toLowerCase();
+			if (lower.contains("snapdragon 8 gen 3") || lower.contains("sd 8 gen 3")) score += 30;
+			else if (lower.contains("snapdragon 8 gen 2") || lower.contains("sd 8 gen 2")) score += 28;
+			else if (lower.contains("snapdragon 8+ gen 1") || lower.contains("sd 8+ gen 1")) score += 26;
+			else if (lower.contains("snapdragon 8 gen 1") || lower.contains("sd 8 gen 1")) score += 24;
+			else if (lower.contains("snapdragon 888")) score += 22;
+			else if (lower.contains("dimensity 9200") || lower.contains("dimensity 9300")) score += 28;
+			else if (lower.contains("dimensity 9000")) score += 26;
+			else if (lower.contains("exynos 2400")) score += 25;
+			else if (lower.contains("exynos 2200")) score += 23;
+			else if (lower.contains("snapdragon 7+ gen 3") || lower.contains("snapdragon 7s gen 3")) score += 20;
+			else if (lower.contains("snapdragon 7+ gen 2") || lower.contains("snapdragon 7s gen 2")) score += 18;
+			else if (lower.contains("snapdragon 778") || lower.contains("snapdragon 780")) score += 16;
+			else if (lower.contains("dimensity 8200") || lower.contains("dimensity 8300")) score += 18;
+			else if (lower.contains("dimensity 7200")) score += 15;
+			else if (lower.contains("snapdragon 6") || lower.contains("snapdragon 4")) score += 10;
+			else if (lower.contains("dimensity 6")) score += 10;
+			else if (lower.contains("helio g")) score += 8;
+			if (lower.contains("3nm") || lower.contains("3 nm")) score += 10;
+			else if (lower.contains("4nm") || lower.contains("4 nm")) score += 8;
+			else if (lower.contains("5nm") || lower.contains("5 nm")) score += 6;
+			else if (lower.contains("6nm") || lower.contains("6 nm")) score += 4;
+			return Math.min(100, score);
+		}
+
+		static int display(String displayInfo) {
+			if (displayInfo == null || displayInfo.isEmpty()) return 50;
+			int score = 35;
+			String lower = displayInfo.toLowerCase();
+			if (lower.contains("amoled") || lower.contains("oled")) score += 15;
+			else if (lower.contains("lcd")) score += 8;
+			if (lower.contains("144hz") || lower.contains("144 hz")) score += 15;
+			else if (lower.contains("120hz") || lower.contains("120 hz")) score += 12;
+			else if (lower.contains("90hz") || lower.contains("90 hz")) score += 8;
+			else if (lower.contains("60hz") || lower.contains("60 hz")) score += 3;
+			if (lower.contains("2k") || lower.contains("1440p") || lower.contains("quad hd")) score += 12;
+			else if (lower.contains("fhd+") || lower.contains("1080p") || lower.contains("full hd")) score += 8;
+			else if (lower.contains("hd+")) score += 4;
+			Matcher sizeMatcher = Pattern.compile("(\\d+\\.\\d+)").matcher(lower);
+			if (sizeMatcher.find()) {
+				double size = Double.parseDouble(sizeMatcher.group(1));
+				if (size >= 6.7) score += 8;
+				else if (size >= 6.5) score += 6;
+				else if (size >= 6.0) score += 4;
+			}
+			if (lower.contains("ltpo") || lower.contains("adaptive refresh")) score += 5;
+			if (lower.contains("hdr10")) score += 5;
+			if (lower.contains("dolby vision")) score += 5;
+			if (lower.contains("gorilla glass") || lower.contains("victus")) score += 3;
+			return Math.min(100, score);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.phonepick.advisor.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.phonepick.advisor.model.Phone;
+import com.phonepick.advisor.repository.PhoneRepository;
+
+/**
+ * Random catalogs for the index tests, built through PhoneCatalog's own snapshot path
+ * so family keys and variant collapsing match production.
+ */
+final class TestCatalogs {
+
+	private TestCatalogs() {
+	}
+
+	static List<Phone> randomPhones(Random random, int count) {
+		return randomPhones(random, count, 1);
+	}
+
+	/**
+	 * Phones priced 5,000-124,000 in steps of 1,000, about three per model,
+	 * with feature and unified scores that are multiples of scoreStep
+	 */
+	static List<Phone> randomPhones(Random random, int count, int scoreStep) {
+		int steps = 100 / scoreStep + 1;
+		List<Phone> phones = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Phone phone = new Phone();
+			phone.setId((long) i + 1);
+			phone.setBrand("Brand" + random.nextInt(6));
+			phone.setModel("Model" + random.nextInt(Math.max(1, count / 3)));
+			phone.setPrice(5000 + random.nextInt(120) * 1000);
+			phone.setCameraScore(random.nextInt(steps) * scoreStep);
+			phone.setBatteryScore(random.nextInt(steps) * scoreStep);
+			phone.setSoftwareScore(random.nextInt(steps) * scoreStep);
+			phone.setPrivacyScore(random.nextInt(steps) * scoreStep);
+			phone.setLooksScore(random.nextInt(steps) * scoreStep);
+			phone.setUnifiedScore(random.nextInt(steps) * scoreStep);
+			phones.add(phone);
+		}
+		return phones;
+	}
+
+	static Phone copy(Phone phone) {
+		Phone copy = new Phone();
+		copy.setId(phone.getId());
+		copy.setBrand(phone.getBrand());
+		copy.setModel(phone.getModel());
+		copy.setPrice(phone.getPrice());
+		copy.setCameraScore(phone.getCameraScore());
+		copy.setBatteryScore(phone.getBatteryScore());
+		copy.setSoftwareScore(phone.getSoftwareScore());
+		copy.setPrivacyScore(phone.getPrivacyScore());
+		copy.setLooksScore(phone.getLooksScore());
+		copy.setUnifiedScore(phone.getUnifiedScore());
+		return copy;
+	}
+
+	/**
+	 * Catalog over a mocked repository that returns the given phones
+	 */
+	static PhoneCatalog catalog(List<Phone> phones) {
+		PhoneRepository repository = mock(PhoneRepository.class);
+		when(repository.findAll()).thenReturn(List.copyOf(phones));
+		return new PhoneCatalog(repository, mock(UnifiedScoringService.class), event -> { });
+	}
+
+	static PhoneCatalog.Snapshot snapshot(List<Phone> phones, long version) {
+		return catalog(phones).snapshot().withVersion(version);
+	}
+}
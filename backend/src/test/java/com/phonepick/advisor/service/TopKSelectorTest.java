@@ -0,0 +1,89 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopKSelectorTest {
+
+	@Test
+	void keepsBestVariantPerFamily() {
+		TopKSelector selector = new TopKSelector(2);
+		selector.offer("a", 50, 0);
+		selector.offer("b", 60, 1);
+		selector.offer("a", 70, 2); // better variant of a replaces item 0
+		selector.offer("c", 55, 3); // not better than the worst retained family
+		selector.offer("b", 40, 4); // worse variant of b is ignored
+		selector.finish();
+
+		assertEquals(2, selector.size());
+		assertEquals(2, selector.itemAt(0));
+		assertEquals(70, selector.scoreAt(0));
+		assertEquals(1, selector.itemAt(1));
+		assertEquals(60, selector.scoreAt(1));
+	}
+
+	@Test
+	void tiesGoToEarlierArrival() {
+		TopKSelector selector = new TopKSelector(2);
+		selector.offer("a", 80, 0);
+		selector.offer("b", 80, 1);
+		selector.offer("c", 80, 2);
+		selector.finish();
+
+		assertEquals(0, selector.itemAt(0));
+		assertEquals(1, selector.itemAt(1));
+	}
+
+	@Test
+	void matchesSortAndGroupReference() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			int k = 1 + random.nextInt(8);
+			int n = random.nextInt(300);
+			int[] scores = new int[n];
+			String[] families = new String[n];
+			TopKSelector selector = new TopKSelector(k);
+			for (int i = 0; i < n; i++) {
+				scores[i] = random.nextInt(40);
+				families[i] = "f" + random.nextInt(25);
+				selector.offer(families[i], scores[i], i);
+			}
+			selector.finish();
+
+			// Reference: best (earliest on ties) variant per family, sorted, limited
+			Map<String, Integer> best = new LinkedHashMap<>();
+			for (int i = 0; i < n; i++) {
+				Integer current = best.get(families[i]);
+				if (current == null || scores[i] > scores[current]) {
+					best.put(families[i], i);
+				}
+			}
+			List<Integer> expected = new ArrayList<>(best.values());
+			expected.sort(Comparator.<Integer>comparingInt(i -> -scores[i]).thenComparingInt(i -> i));
+			expected = expected.subList(0, Math.min(k, expected.size()));
+
+			List<Integer> actual = new ArrayList<>();
+			for (int rank = 0; rank < selector.size(); rank++) {
+				actual.add(selector.itemAt(rank));
+			}
+			assertEquals(expected, actual, "round " + round);
+		}
+	}
+
+	@Test
+	void rejectsReadsBeforeFinish() {
+		TopKSelector selector = new TopKSelector(3);
+		selector.offer("a", 1, 0);
+		assertThrows(IllegalStateException.class, () -> selector.itemAt(0));
+	}
+
+}
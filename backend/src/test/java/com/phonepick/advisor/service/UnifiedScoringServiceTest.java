@@ -0,0 +1,101 @@
+package com.phonepick.advisor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+import com.phonepick.advisor.model.Phone;
+
+class UnifiedScoringServiceTest {
+
+	private final UnifiedScoringService service = new UnifiedScoringService(new PhoneSpecScoringService());
+
+	@Test
+	void unchangedInputsAreNotRescored() {
+		Phone phone = phone();
+		assertTrue(service.needsRescore(phone));
+		assertTrue(service.refreshStoredScores(phone));
+
+		assertFalse(service.needsRescore(phone));
+		assertFalse(service.refreshStoredScores(phone));
+	}
+
+	@Test
+	void scoringVersionBumpForcesRescore() {
+		Phone phone = phone();
+		service.refreshStoredScores(phone);
+		int specScore = phone.getSpecScore();
+
+		// As stored by the previous formula version
+		phone.setScoreInputsDigest(UnifiedScoringService.scoreInputsDigest(phone, UnifiedScoringService.SCORING_VERSION - 1));
+		phone.setSpecScore(0);
+		assertTrue(service.needsRescore(phone));
+		assertTrue(service.refreshStoredScores(phone));
+		assertEquals(specScore, phone.getSpecScore());
+		assertEquals(UnifiedScoringService.scoreInputsDigest(phone, UnifiedScoringService.SCORING_VERSION), phone.getScoreInputsDigest());
+	}
+
+	@Test
+	void specChangeForcesRescore() {
+		Phone phone = phone();
+		service.refreshStoredScores(phone);
+		int specScore = phone.getSpecScore();
+
+		phone.setBattery("6500 mAh Battery with 120W Fast Charging");
+		assertTrue(service.needsRescore(phone));
+		assertTrue(service.refreshStoredScores(phone));
+		assertTrue(phone.getSpecScore() > specScore);
+	}
+
+	@Test
+	void editsThatCollideUnderObjectsHashAreDetected() {
+		Phone phone = phone();
+		phone.setProcessor("Snapdragon Aa");
+		service.refreshStoredScores(phone);
+
+		Phone edited = phone();
+		edited.setProcessor("Snapdragon BB");
+		// "Aa" and "BB" share a String hashCode, so the old int fingerprint could not tell these apart
+		assertEquals(Objects.hash(phone.getProcessor()), Objects.hash(edited.getProcessor()));
+		edited.setSpecScore(phone.getSpecScore());
+		edited.setUnifiedScore(phone.getUnifiedScore());
+		edited.setScoreInputsDigest(phone.getScoreInputsDigest());
+		assertTrue(service.needsRescore(edited));
+	}
+
+	@Test
+	void valuesMovedBetweenFieldsChangeTheDigest() {
+		Phone phone = phone();
+		phone.setCameraInfo("50MP");
+		phone.setBattery(null);
+		Phone moved = phone();
+		moved.setCameraInfo(null);
+		moved.setBattery("50MP");
+		assertNotEquals(UnifiedScoringService.scoreInputsDigest(phone, 1), UnifiedScoringService.scoreInputsDigest(moved, 1));
+
+		phone.setYoutubeSentimentScore(null);
+		moved.setCameraInfo("50MP");
+		moved.setBattery(null);
+		moved.setYoutubeSentimentScore(0);
+		assertNotEquals(UnifiedScoringService.scoreInputsDigest(phone, 1), UnifiedScoringService.scoreInputsDigest(moved, 1));
+	}
+
+	private static Phone phone() {
+		Phone phone = new Phone();
+		phone.setBrand("Brand");
+		phone.setModel("Model");
+		phone.setCameraInfo("50MP + 8MP + 2MP Triple Rear Camera with OIS");
+		phone.setBattery("5000 mAh Battery with 33W Fast Charging");
+		phone.setMemory_and_storage("8 GB RAM | 128 GB ROM | Expandable Upto 1 TB");
+		phone.setProcessor("Snapdragon 7 Gen 3");
+		phone.setDisplayInfo("6.7 inch Full HD+ AMOLED Display 120Hz");
+		phone.setYoutubeSentimentScore(75);
+		phone.setRedditSentimentScore(70);
+		return phone;
+	}
+}
@@ -33,13 +33,14 @@ function Recommendations() {
         setLoading(true);
         setError(null);
 
-        // Transform priorities from rank (1-5) to percentage
+        // Weights from the priority page (rank 1-5 mapped to 100, 85, 70, 55, 40),
+        // under the keys the backend scores; a missing one defaults to 50 there
         const priorityMap = {
-          camera: priorities.camera || 3,
-          battery: priorities.battery || 3,
-          software: priorities.software || 3,
-          privacy: priorities.privacy || 3,
-          looks: priorities.looks || 3
+          camera: priorities.camera,
+          battery: priorities.battery,
+          performance: priorities.performance,
+          privacy: priorities.privacy,
+          looks: priorities.looks
         };
 
         const data = await getRecommendations({
@@ -11,7 +11,7 @@ const API_BASE_URL = 'https://smartphone-advisor-backend-production.up.railway.a
  * @param {Object} preferences - User preferences
  * @param {string} preferences.productType - Product type (e.g., 'smartphone')
  * @param {string} preferences.budget - Budget range (e.g., '20-25')
- * @param {Object} preferences.priorities - Priority rankings (1-5)
+ * @param {Object} preferences.priorities - Priority weights (0-100) for camera, battery, performance, privacy and looks
  */
 export const getRecommendations = async (preferences) => {
   try {